@@ -0,0 +1,109 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package uk.ac.open.crc.mdsc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@code DictionarySet.spellCheck} against the
+ * default SCOWL dictionaries as the number of threads sharing a single
+ * dictionary set increases.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DictionarySetThroughputBenchmark {
+
+    /**
+     * A mixture of identifier tokens: mostly correctly spelt words, with
+     * some misspellings that force the suggestion search.
+     */
+    private static final String[] TOKENS = {
+        "get", "set", "value", "index", "count", "buffer", "colour",
+        "color", "iterator", "listener", "handler", "recieve", "paramter",
+        "length", "reader", "writer", "number", "lenght", "string", "name"
+    };
+
+    /**
+     * The dictionary set shared by all benchmark threads.
+     */
+    @State( Scope.Benchmark )
+    public static class SharedDictionaries {
+        DictionarySet dictionarySet;
+
+        @Setup
+        public void setUp() {
+            this.dictionarySet = new DefaultDictionaryManager().dictionarySet();
+        }
+    }
+
+    /**
+     * Each thread walks the token list independently.
+     */
+    @State( Scope.Thread )
+    public static class TokenCursor {
+        int position;
+
+        String next() {
+            String token = TOKENS[this.position];
+            this.position = ( this.position + 1 ) % TOKENS.length;
+            return token;
+        }
+    }
+
+    @Benchmark
+    @Threads( 1 )
+    public List<Result> oneThread( SharedDictionaries shared, TokenCursor cursor ) {
+        return shared.dictionarySet.spellCheck( cursor.next() );
+    }
+
+    @Benchmark
+    @Threads( 2 )
+    public List<Result> twoThreads( SharedDictionaries shared, TokenCursor cursor ) {
+        return shared.dictionarySet.spellCheck( cursor.next() );
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public List<Result> fourThreads( SharedDictionaries shared, TokenCursor cursor ) {
+        return shared.dictionarySet.spellCheck( cursor.next() );
+    }
+
+    @Benchmark
+    @Threads( Threads.MAX )
+    public List<Result> allProcessors( SharedDictionaries shared, TokenCursor cursor ) {
+        return shared.dictionarySet.spellCheck( cursor.next() );
+    }
+}
@@ -0,0 +1,139 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.open.crc.mdsc.engine.DictionaryCompiler;
+import uk.ac.open.crc.mdsc.engine.HashedSpellingDictionary;
+
+/**
+ * Measures the cost of testing identifier tokens against each of the six
+ * default dictionaries with and without a Bloom filter of each
+ * dictionary's words, for dictionaries with their own index, dictionaries
+ * sharing an index and compiled dictionaries. The statistics of the
+ * filters are printed when the benchmark is torn down.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class MembershipFilterBenchmark {
+
+    private static final String[][] WORD_LISTS = {
+        {"en_GB", "/wordlists/scowl/en_GB"},
+        {"en_US", "/wordlists/scowl/en_US"},
+        {"en_CA", "/wordlists/scowl/en_CA"},
+        {"proper-nouns", "/wordlists/scowl/proper-nouns"},
+        {"hacker", "/wordlists/scowl/hacker"},
+        {"technical", "/wordlists/technical"}
+    };
+
+    /**
+     * Identifier tokens, most of which are absent from most of the
+     * dictionaries.
+     */
+    private static final String[] TOKENS = {
+        "get", "set", "value", "index", "count", "buffer", "colour",
+        "color", "iterator", "listener", "handler", "recieve", "paramter",
+        "length", "reader", "writer", "number", "lenght", "string", "name",
+        "impl", "ctx", "Hashmap", "utf", "src", "tmp", "java", "Json",
+        "idx", "len", "msg", "cfg", "async", "mutex", "str", "args"
+    };
+
+    @Param( {"HASHED", "SHARED", "COMPILED"} )
+    public String engine;
+
+    @Param( {"0", "0.01"} )
+    public double falsePositiveRate;
+
+    private List<Dictionary> dictionaries;
+
+    @Setup
+    public void setUp() throws IOException {
+        DictionaryManager manager = new DictionaryManager();
+        manager.setFilterFalsePositiveRate( this.falsePositiveRate );
+        for ( String[] wordList : WORD_LISTS ) {
+            switch ( this.engine ) {
+                case "HASHED":
+                    manager.create( wordList[0], wordList[0], reader( wordList[1] ), false );
+                    break;
+                case "SHARED":
+                    manager.createShared( wordList[0], wordList[0], reader( wordList[1] ), false );
+                    break;
+                default:
+                    File compiled = File.createTempFile( wordList[0], ".mdsc" );
+                    compiled.deleteOnExit();
+                    DictionaryCompiler.compile( 
+                            new HashedSpellingDictionary( reader( wordList[1] ), false ), 
+                            compiled );
+                    manager.load( wordList[0], wordList[0], compiled );
+            }
+        }
+        this.dictionaries = manager.dictionarySet().getDictionaryList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for ( Dictionary dictionary : this.dictionaries ) {
+            if ( dictionary.filterStatistics() != null ) {
+                System.out.printf( "%n%s %s", dictionary.name(), dictionary.filterStatistics() );
+            }
+        }
+        System.out.println();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( 36 )
+    public int isCorrect() {
+        int correct = 0;
+        for ( String token : TOKENS ) {
+            for ( Dictionary dictionary : this.dictionaries ) {
+                if ( dictionary.isCorrect( token ) ) {
+                    correct++;
+                }
+            }
+        }
+        return correct;
+    }
+
+    private Reader reader( String resource ) {
+        return new InputStreamReader( getClass().getResourceAsStream( resource ) );
+    }
+}
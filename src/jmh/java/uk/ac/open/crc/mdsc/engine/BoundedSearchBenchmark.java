@@ -0,0 +1,169 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the latency of finding suggested spellings for misspellings 
+ * that share no phonetic code, or similar code, with a word within the 
+ * spell threshold, with and without the bounded search of all the words 
+ * in the dictionary, using the SCOWL en_US word list. Without the search 
+ * the dictionary falls back to the closest words with the same phonetic 
+ * code. The recall of each setting, i.e. how often the intended word is 
+ * the first suggestion or among the first five, is printed when the 
+ * benchmark is set up.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class BoundedSearchBenchmark {
+
+    private static final String WORD_LIST = "/wordlists/scowl/en_US";
+    private static final int MISSPELLINGS = 200;
+    private static final int SPELL_THRESHOLD = 200;
+
+    @Param( {"false", "true"} )
+    public boolean isBoundedSearch;
+
+    private SpellingDictionary dictionary;
+    private String[] misspellings;
+
+    @Setup
+    public void setUp() throws IOException {
+        Configuration configuration = Configuration.getConfiguration();
+        configuration.setInteger( Configuration.SPELL_THRESHOLD, SPELL_THRESHOLD );
+        HashedSpellingDictionary phonetic = 
+                new HashedSpellingDictionary( wordList(), false, configuration );
+        phonetic.freeze();
+        configuration.setBoolean( Configuration.SPELL_BOUNDED_SEARCH, this.isBoundedSearch );
+        HashedSpellingDictionary hashed = 
+                new HashedSpellingDictionary( wordList(), false, configuration );
+        hashed.freeze();
+        this.dictionary = hashed;
+
+        List<String> words = new ArrayList<>();
+        try ( BufferedReader in = new BufferedReader( wordList() ) ) {
+            String line;
+            while ( (line = in.readLine()) != null ) {
+                if ( line.length() >= 4 && line.chars().allMatch( Character::isLowerCase ) ) {
+                    words.add( line );
+                }
+            }
+        }
+
+        // keep the misspellings for which the phonetic codes find nothing 
+        // within the threshold
+        Random random = new Random( 7 );
+        this.misspellings = new String[MISSPELLINGS];
+        String[] intended = new String[MISSPELLINGS];
+        int count = 0;
+        while ( count < MISSPELLINGS ) {
+            String word = words.get( random.nextInt( words.size() ) );
+            String misspelling = misspell( misspell( word, random ), random );
+            if ( phonetic.isCorrect( misspelling ) ) {
+                continue;
+            }
+            List<Word> suggestions = phonetic.getSuggestions( misspelling, SPELL_THRESHOLD );
+            if ( suggestions.isEmpty() || suggestions.get( 0 ).getCost() >= SPELL_THRESHOLD ) {
+                this.misspellings[count] = misspelling;
+                intended[count] = word;
+                count++;
+            }
+        }
+
+        int first = 0;
+        int topFive = 0;
+        for ( int i = 0; i < MISSPELLINGS; i++ ) {
+            List<Word> suggestions = this.dictionary.getSuggestions( this.misspellings[i], SPELL_THRESHOLD );
+            for ( int rank = 0; rank < suggestions.size() && rank < 5; rank++ ) {
+                if ( suggestions.get( rank ).getText().equals( intended[i] ) ) {
+                    first += rank == 0 ? 1 : 0;
+                    topFive++;
+                    break;
+                }
+            }
+        }
+        System.out.printf( "%nBounded search %s recall: first %.1f%%, top five %.1f%%%n", 
+                this.isBoundedSearch, 
+                first * 100.0 / MISSPELLINGS, 
+                topFive * 100.0 / MISSPELLINGS );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( MISSPELLINGS )
+    public void suggest( Blackhole blackhole ) {
+        for ( String misspelling : this.misspellings ) {
+            blackhole.consume( this.dictionary.getSuggestions( misspelling, SPELL_THRESHOLD ) );
+        }
+    }
+
+    private Reader wordList() {
+        return new InputStreamReader( getClass().getResourceAsStream( WORD_LIST ) );
+    }
+
+    private static String misspell( String word, Random random ) {
+        StringBuilder misspelling = new StringBuilder( word );
+        int position = random.nextInt( misspelling.length() );
+        char letter = (char) ( 'a' + random.nextInt( 26 ) );
+        switch ( random.nextInt( 4 ) ) {
+            case 0:
+                if ( misspelling.length() > 1 ) {
+                    misspelling.deleteCharAt( position );
+                }
+                break;
+            case 1:
+                misspelling.insert( position, letter );
+                break;
+            case 2:
+                misspelling.setCharAt( position, letter );
+                break;
+            default:
+                if ( position < misspelling.length() - 1 ) {
+                    misspelling.setCharAt( position, word.charAt( position + 1 ) );
+                    misspelling.setCharAt( position + 1, word.charAt( position ) );
+                }
+        }
+        return misspelling.toString();
+    }
+}
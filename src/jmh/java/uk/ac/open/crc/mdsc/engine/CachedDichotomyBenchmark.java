@@ -0,0 +1,148 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the retrieval of the words with a phonetic code from a 
+ * "code*word" file of the SCOWL en_US word list by 
+ * {@code DichotomyDiskSpellingDictionary} with 
+ * {@code CachedDichotomyDiskSpellingDictionary}, whose cache holds the words 
+ * of 2000 codes. The codes sought follow a Zipfian distribution, as the 
+ * tokens of identifier names do, and one code in five is sought once, as 
+ * the near-miss codes of misspellings are. The statistics of the cache are 
+ * printed when the benchmark is torn down.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class CachedDichotomyBenchmark {
+
+    private static final String WORD_LIST = "/wordlists/scowl/en_US";
+    private static final int CODES = 10_000;
+    private static final int CAPACITY = 2000;
+
+    private DichotomyDiskSpellingDictionary dichotomy;
+    private CachedDichotomyDiskSpellingDictionary cached;
+    private String[] codes;
+
+    @Setup
+    public void setUp() throws IOException {
+        DoubleMetaphoneTransformator transformator = new DoubleMetaphoneTransformator();
+        TreeMap<String,List<String>> buckets = new TreeMap<>();
+        try ( BufferedReader in = new BufferedReader( new InputStreamReader( 
+                getClass().getResourceAsStream( WORD_LIST ), StandardCharsets.ISO_8859_1 ) ) ) {
+            String line;
+            while ( (line = in.readLine()) != null ) {
+                if ( !line.isEmpty() ) {
+                    buckets.computeIfAbsent( transformator.transform( line ), 
+                            code -> new ArrayList<>() ).add( line );
+                }
+            }
+        }
+
+        File codeFile = File.createTempFile( "en_US", ".dic" );
+        codeFile.deleteOnExit();
+        try ( PrintWriter out = new PrintWriter( codeFile, "ISO-8859-1" ) ) {
+            for ( Map.Entry<String,List<String>> bucket : buckets.entrySet() ) {
+                for ( String word : bucket.getValue() ) {
+                    out.print( bucket.getKey() + "*" + word + "\n" );
+                }
+            }
+        }
+        this.dichotomy = new DichotomyDiskSpellingDictionary( codeFile );
+        this.cached = new CachedDichotomyDiskSpellingDictionary( codeFile, CAPACITY );
+
+        // the codes in a random order of popularity
+        List<String> allCodes = new ArrayList<>( buckets.keySet() );
+        Random random = new Random( 3 );
+        Collections.shuffle( allCodes, random );
+        double[] cumulative = new double[allCodes.size()];
+        double total = 0;
+        for ( int rank = 0; rank < cumulative.length; rank++ ) {
+            total += 1.0 / ( rank + 1 );
+            cumulative[rank] = total;
+        }
+        this.codes = new String[CODES];
+        for ( int i = 0; i < CODES; i++ ) {
+            if ( random.nextInt( 5 ) == 0 ) {
+                this.codes[i] = allCodes.get( random.nextInt( allCodes.size() ) );
+            }
+            else {
+                int rank = Arrays.binarySearch( cumulative, random.nextDouble() * total );
+                this.codes[i] = allCodes.get( rank < 0 ? -rank - 1 : rank );
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf( "%n%s%n", this.cached.cacheStatistics() );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( CODES )
+    public int dichotomy() {
+        int total = 0;
+        for ( String code : this.codes ) {
+            total += this.dichotomy.getWords( code ).size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( CODES )
+    public int cached() {
+        int total = 0;
+        for ( String code : this.codes ) {
+            total += this.cached.getWords( code ).size();
+        }
+        return total;
+    }
+}
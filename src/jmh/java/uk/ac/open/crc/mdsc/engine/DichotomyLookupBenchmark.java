@@ -0,0 +1,122 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the retrieval of the words with a phonetic code from a 
+ * "code*word" file of the SCOWL en_US word list by 
+ * {@code DichotomyDiskSpellingDictionary}, which seeks and reads the file, 
+ * with {@code MappedDichotomyDiskSpellingDictionary}, which searches the 
+ * mapped file.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class DichotomyLookupBenchmark {
+
+    private static final String WORD_LIST = "/wordlists/scowl/en_US";
+    private static final int CODES = 1000;
+
+    private DichotomyDiskSpellingDictionary dichotomy;
+    private MappedDichotomyDiskSpellingDictionary mapped;
+    private String[] codes;
+
+    @Setup
+    public void setUp() throws IOException {
+        DoubleMetaphoneTransformator transformator = new DoubleMetaphoneTransformator();
+        TreeMap<String,List<String>> buckets = new TreeMap<>();
+        try ( BufferedReader in = new BufferedReader( new InputStreamReader( 
+                getClass().getResourceAsStream( WORD_LIST ), StandardCharsets.ISO_8859_1 ) ) ) {
+            String line;
+            while ( (line = in.readLine()) != null ) {
+                if ( !line.isEmpty() ) {
+                    buckets.computeIfAbsent( transformator.transform( line ), 
+                            code -> new ArrayList<>() ).add( line );
+                }
+            }
+        }
+
+        File codeFile = File.createTempFile( "en_US", ".dic" );
+        codeFile.deleteOnExit();
+        try ( PrintWriter out = new PrintWriter( codeFile, "ISO-8859-1" ) ) {
+            for ( Map.Entry<String,List<String>> bucket : buckets.entrySet() ) {
+                for ( String word : bucket.getValue() ) {
+                    out.print( bucket.getKey() + "*" + word + "\n" );
+                }
+            }
+        }
+        this.dichotomy = new DichotomyDiskSpellingDictionary( codeFile );
+        this.mapped = new MappedDichotomyDiskSpellingDictionary( codeFile );
+
+        List<String> allCodes = new ArrayList<>( buckets.keySet() );
+        Random random = new Random( 7 );
+        this.codes = new String[CODES];
+        for ( int i = 0; i < CODES; i++ ) {
+            this.codes[i] = allCodes.get( random.nextInt( allCodes.size() ) );
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( CODES )
+    public int dichotomy() {
+        int total = 0;
+        for ( String code : this.codes ) {
+            total += this.dichotomy.getWords( code ).size();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( CODES )
+    public int mapped() {
+        int total = 0;
+        for ( String code : this.codes ) {
+            total += this.mapped.getWords( code ).size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of calculating the double metaphone code of a mixture
+ * of words and identifier tokens. Run with {@code -prof gc} to see the
+ * allocation per operation.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class DoubleMetaphoneBenchmark {
+
+    private static final String[] WORDS = {
+        "get", "value", "iterator", "listener", "handler", "receive",
+        "parameter", "length", "character", "schedule", "thumb", "Knight",
+        "Xavier", "architecture", "orchestra", "Jose", "ghost", "laugh",
+        "tough", "Czerny", "Wiecz", "bacchus", "accident", "Sugar",
+        "buffer", "colour", "Thomas", "mcclellan", "zhao", "Michael"
+    };
+
+    private final DoubleMetaphoneTransformator transformator =
+            new DoubleMetaphoneTransformator();
+
+    @Benchmark
+    public void transform( Blackhole blackhole ) {
+        for ( String word : WORDS ) {
+            blackhole.consume( this.transformator.transform( word ) );
+        }
+    }
+}
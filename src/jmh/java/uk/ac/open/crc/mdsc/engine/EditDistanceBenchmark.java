@@ -0,0 +1,140 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@code EditDistance.getDistance} over a fixed set
+ * of word pairs using the default costs, the default {@code EditCostModel}
+ * and a model with different costs, and compares the full calculation 
+ * with the calculation bounded by a maximum cost for long identifier 
+ * tokens.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class EditDistanceBenchmark {
+
+    /**
+     * Misspellings paired with candidate spellings of the kind found in
+     * a phonetic bucket.
+     */
+    private static final String[][] PAIRS = {
+        {"recieve", "receive"}, {"paramter", "parameter"}, {"lenght", "length"},
+        {"colr", "colour"}, {"iteratr", "iterator"}, {"Hashmap", "hashmap"},
+        {"listenr", "listener"}, {"bufer", "buffer"}, {"seperate", "separate"},
+        {"accomodate", "accommodate"}, {"definately", "definitely"},
+        {"tokenizer", "tokeniser"}, {"adress", "address"}, {"teh", "the"}
+    };
+
+    /**
+     * Long identifier tokens paired with candidates of the kind found in 
+     * the phonetic buckets and near-miss codes, most of which are further 
+     * than the threshold.
+     */
+    private static final String[][] LONG_PAIRS = {
+        {"abstractsingletonproxyfactorybean", "abstractsingletonproxyfactorybeen"},
+        {"internationalisation", "internationalization"},
+        {"characteristically", "characterisation"},
+        {"incomprehensibilities", "incompressibility"},
+        {"transactionmanager", "transactionmanagement"},
+        {"counterrevolutionaries", "counterrevolutionary"},
+        {"serialisationexception", "serializationexceptions"},
+        {"deinstitutionalization", "institutionalisation"},
+        {"electroencephalographs", "electrocardiographs"},
+        {"straightforwardness", "straightforwardly"},
+        {"uncharacteristically", "characteristically"},
+        {"interdenominational", "interdepartmental"}
+    };
+
+    private static final int SPELL_THRESHOLD = 200;
+
+    private final EditCostModel cheapDeletions = new EditCostModel( 50, 50, 100, 90, 10 );
+
+    @Benchmark
+    public int defaultCosts() {
+        int total = 0;
+        for ( String[] pair : PAIRS ) {
+            total += EditDistance.getDistance( pair[0], pair[1], null );
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int defaultModel() {
+        int total = 0;
+        for ( String[] pair : PAIRS ) {
+            total += EditDistance.getDistance( pair[0], pair[1], null, EditDistance.DEFAULT_COSTS );
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int customModel() {
+        int total = 0;
+        for ( String[] pair : PAIRS ) {
+            total += EditDistance.getDistance( pair[0], pair[1], null, this.cheapDeletions );
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int longTokens() {
+        int total = 0;
+        for ( String[] pair : LONG_PAIRS ) {
+            int distance = EditDistance.getDistance( pair[0], pair[1], null, EditDistance.DEFAULT_COSTS );
+            total += distance < SPELL_THRESHOLD ? distance : 0;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int longTokensBounded() {
+        int total = 0;
+        for ( String[] pair : LONG_PAIRS ) {
+            int distance = EditDistance.getDistance( pair[0], pair[1], EditDistance.DEFAULT_COSTS, SPELL_THRESHOLD );
+            total += distance < SPELL_THRESHOLD ? distance : 0;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int shortWordsBounded() {
+        int total = 0;
+        for ( String[] pair : PAIRS ) {
+            int distance = EditDistance.getDistance( pair[0], pair[1], EditDistance.DEFAULT_COSTS, SPELL_THRESHOLD );
+            total += distance < SPELL_THRESHOLD ? distance : 0;
+        }
+        return total;
+    }
+}
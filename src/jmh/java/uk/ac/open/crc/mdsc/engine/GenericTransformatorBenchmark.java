@@ -0,0 +1,101 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of transforming a mixture of words and identifier
+ * tokens with a {@code GenericTransformator} reading a set of rules in the
+ * style of the aspell English phonetic file.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Thread )
+public class GenericTransformatorBenchmark {
+
+    private static final String[] RULES = {
+        "AH(AEIOUY)-^ *H", "AR(AEIOUY)-^ *R", "A(HR)^ *", "A^ *",
+        "AH(AEIOUY)- H", "AR(AEIOUY)- R", "A(HR) _", "BB- _",
+        "B B", "CQ- _", "CIA X", "CH X",
+        "C(EIY)- S", "CK K", "COUGH^ KF", "CC< C",
+        "C K", "DG(EIY) K", "DD- _", "D T",
+        "EH(AEIOUY)-^ *H", "ER(AEIOUY)-^ *R", "E(HR)^ *", "ENOUGH^$ *NF",
+        "E^ *", "EH(AEIOUY)- H", "ER(AEIOUY)- R", "E(HR) _",
+        "FF- _", "F F", "GN^ N", "GN$ N",
+        "GNS$ NS", "GNED$ N", "GH(AEIOUY)- K", "GH _",
+        "GG9 K", "G K", "H H", "IH(AEIOUY)-^ *H",
+        "IR(AEIOUY)-^ *R", "I(HR)^ *", "I^ *", "ING6 N",
+        "IH(AEIOUY)- H", "IR(AEIOUY)- R", "I(HR) _", "J K",
+        "KN^ N", "KK- _", "K K", "LAUGH^ LF",
+        "LL- _", "L L", "MB$ M", "MM M",
+        "M M", "NN- _", "N N", "OH(AEIOUY)-^ *H",
+        "OR(AEIOUY)-^ *R", "O(HR)^ *", "O^ *", "OH(AEIOUY)- H",
+        "OR(AEIOUY)- R", "O(HR) _", "PH F", "PN^ N",
+        "PP- _", "P P", "Q K", "RH^ R",
+        "ROUGH^ RF", "RR- _", "R R", "SCH(EOU)- SK",
+        "SC(IEY)- S", "SH X", "SI(AO)- X", "SS- _",
+        "S S", "TI(AO)- X", "TH @", "TCH-- _",
+        "TOUGH^ TF", "TT- _", "T T", "UH(AEIOUY)-^ *H",
+        "UR(AEIOUY)-^ *R", "U(HR)^ *", "U^ *", "UH(AEIOUY)- H",
+        "UR(AEIOUY)- R", "U(HR) _", "V^ W", "V F",
+        "WR^ R", "WH^ W", "W(AEIOU)- W", "X^ S",
+        "X KS", "Y(AEIOU)- Y", "ZZ- _", "Z S"
+    };
+
+    private static final String[] WORDS = {
+        "get", "value", "iterator", "listener", "handler", "receive",
+        "parameter", "length", "character", "schedule", "thumb", "Knight",
+        "Xavier", "architecture", "orchestra", "Jose", "ghost", "laugh",
+        "tough", "Czerny", "enough", "bacchus", "accident", "Sugar",
+        "buffer", "colour", "Thomas", "mcclellan", "zhao", "Michael"
+    };
+
+    private GenericTransformator transformator;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.transformator = new GenericTransformator( 
+                new StringReader( String.join( "\n", RULES ) ) );
+    }
+
+    @Benchmark
+    public void transform( Blackhole blackhole ) {
+        for ( String word : WORDS ) {
+            blackhole.consume( this.transformator.transform( word ) );
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@code isCorrect} on a hashed dictionary of the SCOWL en_US 
+ * word list, which probes a hash table of the words, with the lookup by 
+ * phonetic code that it replaced. The words tested are a mixture of words 
+ * in the list, capitalised words and misspellings, as found in identifier 
+ * names.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+@State( Scope.Benchmark )
+public class IsCorrectBenchmark {
+
+    private static final String WORD_LIST = "/wordlists/scowl/en_US";
+    private static final int WORDS = 1000;
+
+    @Param( {"true", "false"} )
+    public boolean frozen;
+
+    private HashedSpellingDictionary dictionary;
+    private String[] words;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.dictionary = new HashedSpellingDictionary( wordList(), false );
+        if ( this.frozen ) {
+            this.dictionary.freeze();
+        }
+
+        List<String> list = new ArrayList<>();
+        try ( BufferedReader in = new BufferedReader( wordList() ) ) {
+            String line;
+            while ( (line = in.readLine()) != null ) {
+                if ( line.length() >= 2 ) {
+                    list.add( line );
+                }
+            }
+        }
+
+        Random random = new Random( 11 );
+        this.words = new String[WORDS];
+        for ( int i = 0; i < WORDS; i++ ) {
+            String word = list.get( random.nextInt( list.size() ) );
+            switch ( i % 3 ) {
+                case 0:
+                    this.words[i] = word;
+                    break;
+                case 1:
+                    this.words[i] = Character.toUpperCase( word.charAt( 0 ) ) + word.substring( 1 );
+                    break;
+                default:
+                    this.words[i] = word + (char) ( 'a' + random.nextInt( 26 ) );
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( WORDS )
+    public int hashedMembership() {
+        int correct = 0;
+        for ( String word : this.words ) {
+            if ( this.dictionary.isCorrect( word ) ) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation( WORDS )
+    public int phoneticCodeLookup() {
+        int correct = 0;
+        for ( String word : this.words ) {
+            List<String> possibles = this.dictionary.getWords( this.dictionary.getPhoneticCode( word ) );
+            if ( possibles.contains( word ) || possibles.contains( word.toLowerCase() ) ) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private Reader wordList() {
+        return new InputStreamReader( getClass().getResourceAsStream( WORD_LIST ) );
+    }
+}
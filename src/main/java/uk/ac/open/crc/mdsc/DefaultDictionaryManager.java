@@ -30,6 +30,8 @@ import org.slf4j.LoggerFactory;
  * 80, separated by language, the SCOWL 'hacker' dictionary of technical terms
  * and a dictionary of technical terms derived from identifier names. These
  * dictionaries contain words only; no initialisms or abbreviations.
+ * The word lists overlap considerably, so the dictionaries share a single 
+ * index in which each distinct word is stored once.
  */
 public class DefaultDictionaryManager extends DictionaryManager {
     private static final boolean IS_NORMALISED = false;
@@ -38,32 +40,32 @@ public class DefaultDictionaryManager extends DictionaryManager {
         super();
         // now create the dictionaries
         try {
-            create( "en_GB", 
+            createShared( "en_GB", 
                     "en_GB dictionary from the SCOWL package", 
                     new InputStreamReader( this.getClass().getResourceAsStream( 
                             "/wordlists/scowl/en_GB" ) ) , 
                     IS_NORMALISED );
-            create( "en_US", 
+            createShared( "en_US", 
                     "en_US dictionary from the SCOWL package", 
                     new InputStreamReader( this.getClass().getResourceAsStream( 
                             "/wordlists/scowl/en_US" ) ) , 
                     IS_NORMALISED );
-            create( "en_CA", 
+            createShared( "en_CA", 
                     "en_CA dictionary from the SCOWL package", 
                     new InputStreamReader( this.getClass().getResourceAsStream( 
                             "/wordlists/scowl/en_CA" ) ) , 
                     IS_NORMALISED );
-            create( "proper-nouns", 
+            createShared( "proper-nouns", 
                     "proper nouns dictionary from the SCOWL package", 
                     new InputStreamReader( this.getClass().getResourceAsStream( 
                             "/wordlists/scowl/proper-nouns" ) ) , 
                     IS_NORMALISED );
-            create( "hacker", 
+            createShared( "hacker", 
                     "hacker dictionary from the SCOWL package", 
                     new InputStreamReader( this.getClass().getResourceAsStream( 
                             "/wordlists/scowl/hacker" ) ) , 
                     IS_NORMALISED );
-            create( "technical", 
+            createShared( "technical", 
                     "mdsc technical dictionary", 
                     new InputStreamReader( this.getClass().getResourceAsStream( 
                             "/wordlists/technical" ) ) , 
@@ -21,7 +21,6 @@ The full text of the licence can be found in the file LICENCE.txt
 package uk.ac.open.crc.mdsc;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 import uk.ac.open.crc.mdsc.engine.SpellingDictionary;
@@ -47,6 +46,24 @@ import uk.ac.open.crc.mdsc.engine.Word;
  * strings regardless of case, either in the dictionary or the string 
  * being tested.
  * </p>
+ * <p>
+ * Where the underlying {@code SpellingDictionary} is read-only, as are all 
+ * dictionaries created by {@linkplain DictionaryManager}, spelling checks run 
+ * without locking and may be made concurrently from any number of threads. 
+ * Checks against a mutable {@code SpellingDictionary} are serialised.
+ * </p>
+ * <p>
+ * A dictionary may hold a bounded cache of results (see 
+ * {@linkplain DictionaryManager#setCacheCapacity(int)}). Each caller 
+ * receives its own copy of a cached {@code Result}, so the list of 
+ * suggestions may be modified without affecting later checks.
+ * </p>
+ * <p>
+ * A dictionary may also hold a Bloom filter of its words (see 
+ * {@linkplain DictionaryManager#setFilterFalsePositiveRate(double)}), 
+ * which is consulted before the spelling dictionary so that words that 
+ * are definitely not in the dictionary are rejected without searching it.
+ * </p>
  */
 public class Dictionary {
 
@@ -56,6 +73,8 @@ public class Dictionary {
     private final int maximumSuggestions;
     private final int maximumCost;
     private final ReentrantLock lock;
+    private final ResultCache cache;
+    private final WordFilter filter;
     
     /**
      * Creates a dictionary.
@@ -73,12 +92,73 @@ public class Dictionary {
             SpellingDictionary spellingDictionary, 
             int maximumSuggestions, 
             int maximumCost ) {
+        this( name, 
+                description, 
+                spellingDictionary, 
+                maximumSuggestions, 
+                maximumCost, 
+                null );
+    } 
+    
+    /**
+     * Creates a dictionary with a cache of results.
+     * @param name a unique name for the dictionary
+     * @param description a brief human readable description
+     * @param spellingDictionary an instance of {@code SpellingDictionary} 
+     * containing the dictionary itself
+     * @param maximumSuggestions the maximum number of suggestions returned 
+     * for a misspelt word
+     * @param maximumCost the maximum cost of the transformation to a 
+     * suggested alternative spelling
+     * @param cache a cache of results, or {@code null} if results are not
+     * to be cached
+     */
+    Dictionary( String name, 
+            String description, 
+            SpellingDictionary spellingDictionary, 
+            int maximumSuggestions, 
+            int maximumCost,
+            ResultCache cache ) {
+        this( name, 
+                description, 
+                spellingDictionary, 
+                maximumSuggestions, 
+                maximumCost, 
+                cache, 
+                null );
+    } 
+    
+    /**
+     * Creates a dictionary with a cache of results and a filter of its 
+     * words.
+     * @param name a unique name for the dictionary
+     * @param description a brief human readable description
+     * @param spellingDictionary an instance of {@code SpellingDictionary} 
+     * containing the dictionary itself
+     * @param maximumSuggestions the maximum number of suggestions returned 
+     * for a misspelt word
+     * @param maximumCost the maximum cost of the transformation to a 
+     * suggested alternative spelling
+     * @param cache a cache of results, or {@code null} if results are not
+     * to be cached
+     * @param filter a filter containing every word in the spelling 
+     * dictionary, or {@code null} if words are not to be filtered
+     */
+    Dictionary( String name, 
+            String description, 
+            SpellingDictionary spellingDictionary, 
+            int maximumSuggestions, 
+            int maximumCost,
+            ResultCache cache,
+            WordFilter filter ) {
         this.name = name;
         this.description = description;
         this.spellingDictionary = spellingDictionary;
         this.maximumSuggestions = maximumSuggestions;
         this.maximumCost = maximumCost;
         this.lock = new ReentrantLock( true );
+        this.cache = cache;
+        this.filter = filter;
     } 
     
     
@@ -102,6 +182,11 @@ public class Dictionary {
     }
     
     
+    // package private so that dictionary sets can query shared indexes
+    final SpellingDictionary spellingDictionary() {
+        return this.spellingDictionary;
+    }
+    
     // keep this package private. The user can set the threshold in the 
     // DictionaryManager.
     final int costThreshold() {
@@ -132,27 +217,36 @@ public class Dictionary {
      * including a list of any alternative spellings.
      */
     public Result checkSpelling( String word, int costThreshold ) {
+        if ( this.cache == null ) {
+            return lockAndCheck( word, costThreshold );
+        }
+        
+        // the cache keeps its own instance, and callers get copies they are 
+        // free to modify
+        Result result = this.cache.get( word, costThreshold );
+        if ( result == null ) {
+            result = lockAndCheck( word, costThreshold );
+            this.cache.put( word, costThreshold, result );
+        }
+        return result.copy();
+    }
+    
+    /**
+     * Tests whether a word is found in this dictionary without searching 
+     * for alternative spellings. The test is much cheaper than 
+     * {@linkplain #checkSpelling(java.lang.String)} for words that are not 
+     * in the dictionary.
+     * @param word a word to be tested
+     * @return {@code true} if the word is found in the dictionary
+     */
+    public boolean isCorrect( String word ) {
+        if ( this.spellingDictionary.isReadOnly() ) {
+            return contains( word );
+        }
+        
         this.lock.lock();
         try {
-            if ( this.spellingDictionary.isCorrect( word ) ) {
-                return new Result( word, this.name );
-            }
-            else {
-                List<Word> alternativeSpellings = 
-                        this.spellingDictionary.getSuggestions( word, costThreshold );
-                ArrayList<SuggestedSpelling> suggestions = new ArrayList<>();
-                alternativeSpellings.stream().forEach( (Word alternative) -> {
-                    suggestions.add( new SuggestedSpelling( alternative, this.name ) );
-                } );
-
-                // sort and trim suggestions list before returning
-                Collections.sort( suggestions );
-                if ( suggestions.size() > this.maximumSuggestions ) {
-                    suggestions.subList( this.maximumSuggestions, suggestions.size() - 1 ).clear();
-                }
-
-                return new Result( word, this.name, suggestions );
-            }
+            return contains( word );
         }
         finally {
             this.lock.unlock();
@@ -170,4 +264,78 @@ public class Dictionary {
         return this.checkSpelling( word, this.maximumCost );
     }
     
+    /**
+     * Retrieves the statistics for the dictionary's cache of results.
+     * @return a snapshot of the cache statistics, or {@code null} if 
+     * the dictionary does not cache results
+     */
+    public CacheStatistics cacheStatistics() {
+        return this.cache == null ? null : this.cache.statistics();
+    }
+    
+    /**
+     * Retrieves the statistics for the dictionary's filter of words, 
+     * including its size and how many words it has rejected.
+     * @return a snapshot of the filter statistics, or {@code null} if 
+     * the dictionary does not filter words
+     */
+    public FilterStatistics filterStatistics() {
+        return this.filter == null ? null : this.filter.statistics();
+    }
+    
+    private Result lockAndCheck( String word, int costThreshold ) {
+        if ( this.spellingDictionary.isReadOnly() ) {
+            return check( word, costThreshold );
+        }
+        
+        this.lock.lock();
+        try {
+            return check( word, costThreshold );
+        }
+        finally {
+            this.lock.unlock();
+        }
+    }
+    
+    /**
+     * Tests the spelling dictionary for a word, unless the filter shows 
+     * the word is not present. The caller holds the lock if it is needed.
+     */
+    private boolean contains( String word ) {
+        if ( this.filter == null ) {
+            return this.spellingDictionary.isCorrect( word );
+        }
+        
+        if ( !this.filter.admits( word ) ) {
+            return false;
+        }
+        boolean isCorrect = this.spellingDictionary.isCorrect( word );
+        if ( !isCorrect ) {
+            this.filter.recordFalsePositive();
+        }
+        return isCorrect;
+    }
+    
+    private Result check( String word, int costThreshold ) {
+        if ( contains( word ) ) {
+            return new Result( word, this.name );
+        }
+        else {
+            // the spelling dictionary keeps only the best suggestions as 
+            // it scores them, in the order of SuggestedSpelling
+            List<Word> alternativeSpellings = 
+                    this.spellingDictionary.getSuggestions( 
+                            word, 
+                            costThreshold, 
+                            this.maximumSuggestions );
+            ArrayList<SuggestedSpelling> suggestions = 
+                    new ArrayList<>( alternativeSpellings.size() );
+            alternativeSpellings.stream().forEach( (Word alternative) -> {
+                suggestions.add( new SuggestedSpelling( alternative, this.name ) );
+            } );
+
+            return new Result( word, this.name, suggestions );
+        }
+    }
+    
 }
@@ -23,11 +23,18 @@ package uk.ac.open.crc.mdsc;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.concurrent.Executor;
 import uk.ac.open.crc.mdsc.engine.Configuration;
+import uk.ac.open.crc.mdsc.engine.EditCostModel;
 import uk.ac.open.crc.mdsc.engine.HashedSpellingDictionary;
+import uk.ac.open.crc.mdsc.engine.MappedSpellingDictionary;
+import uk.ac.open.crc.mdsc.engine.SharedSpellingDictionary;
+import uk.ac.open.crc.mdsc.engine.SharedWordIndex;
 import uk.ac.open.crc.mdsc.engine.SpellingDictionary;
+import uk.ac.open.crc.mdsc.engine.SymmetricDeleteSpellingDictionary;
 
 /**
  * A class used to populate and configure a group of dictionaries.
@@ -38,6 +45,11 @@ import uk.ac.open.crc.mdsc.engine.SpellingDictionary;
  * The subclasses of {@code DictionaryManager} are all convenience classes
  * with particular word lists loaded.
  * </p>
+ * <p>
+ * The dictionaries created by the manager are read-only once loaded, so a 
+ * {@code DictionarySet} may be shared between threads and used to spell 
+ * check concurrently.
+ * </p>
  */
 public class DictionaryManager {
 
@@ -50,6 +62,11 @@ public class DictionaryManager {
     private int maximumSuggestions;
     private final Configuration configuration;
     private DictionarySet dictionarySet;
+    private Executor executor;
+    private int cacheCapacity;
+    private double filterFalsePositiveRate;
+    private SharedWordIndex sharedIndex;
+    private SpellingEngine spellingEngine;
     
     /**
      * Creates a {@code DictionaryManager} with an empty set of dictionaries. 
@@ -60,6 +77,7 @@ public class DictionaryManager {
         this.configuration = Configuration.getConfiguration();
         this.configuration.setInteger( Configuration.SPELL_THRESHOLD, this.maximumCost );
         this.maximumSuggestions = DEFAULT_MAXIMUM_SUGESTIONS;
+        this.spellingEngine = SpellingEngine.PHONETIC;
         
         this.dictionarySet = new DictionarySet();
     }
@@ -82,15 +100,19 @@ public class DictionaryManager {
             throws FileNotFoundException, IOException {
         
         // create the spelling dictionary
-        SpellingDictionary spellingDictionary = 
-                new HashedSpellingDictionary( wordListFile );
+        Reader wordListReader = new FileReader( wordListFile );
+        WordListRecorder recorder = newRecorder( wordListReader, false );
+        SpellingDictionary spellingDictionary = newSpellingDictionary( 
+                recorder == null ? wordListReader : recorder, false );
         // create the wrapper
         Dictionary dictionary = new Dictionary( 
                 name, 
                 description, 
                 spellingDictionary , 
                 this.maximumSuggestions, 
-                this.maximumCost );
+                this.maximumCost, 
+                newResultCache(), 
+                newWordFilter( recorder ) );
         // register it
         this.dictionarySet.register( dictionary );
         
@@ -120,15 +142,19 @@ public class DictionaryManager {
             throws FileNotFoundException, IOException {
         
         // create the spelling dictionary
-        SpellingDictionary spellingDictionary = 
-                new HashedSpellingDictionary( wordListFile, isNormalised );
+        Reader wordListReader = new FileReader( wordListFile );
+        WordListRecorder recorder = newRecorder( wordListReader, isNormalised );
+        SpellingDictionary spellingDictionary = newSpellingDictionary( 
+                recorder == null ? wordListReader : recorder, isNormalised );
         // create the wrapper
         Dictionary dictionary = new Dictionary( 
                 name, 
                 description, 
                 spellingDictionary , 
                 this.maximumSuggestions, 
-                this.maximumCost );
+                this.maximumCost, 
+                newResultCache(), 
+                newWordFilter( recorder ) );
         // register it
         this.dictionarySet.register( dictionary );
         
@@ -159,15 +185,127 @@ public class DictionaryManager {
             throws FileNotFoundException, IOException {
         
         // create the spelling dictionary
-        SpellingDictionary spellingDictionary = 
-                new HashedSpellingDictionary( wordListReader, isNormalised );
+        WordListRecorder recorder = newRecorder( wordListReader, isNormalised );
+        SpellingDictionary spellingDictionary = newSpellingDictionary( 
+                recorder == null ? wordListReader : recorder, isNormalised );
+        // create the wrapper
+        Dictionary dictionary = new Dictionary( 
+                name, 
+                description, 
+                spellingDictionary , 
+                this.maximumSuggestions, 
+                this.maximumCost, 
+                newResultCache(), 
+                newWordFilter( recorder ) );
+        // register it
+        this.dictionarySet.register( dictionary );
+        
+        return dictionary;
+    } 
+    
+    /**
+     * Creates a {@code Dictionary} using the supplied word list and stores 
+     * its words in an index shared with the other dictionaries created by 
+     * this method. Each distinct word is stored once however many of the 
+     * shared dictionaries contain it, which greatly reduces the memory used
+     * and the time taken to load word lists that overlap, such as the 
+     * British, American and Canadian English word lists. The dictionary
+     * is registered with the current {@code DictionarySet}.
+     * <p>
+     * The shared index is made read-only when a dictionary set is retrieved
+     * or any of the shared dictionaries is used. Dictionaries created with 
+     * this method after that point share a new index.
+     * </p>
+     * <p>
+     * Only the phonetic engine supports shared indexes. If the symmetric 
+     * delete engine is selected the dictionary is created with its own 
+     * index, as by {@linkplain #create(String, String, Reader, boolean)}.
+     * </p>
+     * 
+     * @param name an unique name for the dictionary.
+     * @param description a brief description of the dictionary
+     * @param wordListReader a {@code Reader} pointing to a word list
+     * @param isNormalised indicates whether the word list should be normalised to lower case.
+     * @return an instance of {@code Dictionary}
+     * @throws java.io.IOException if a problem is encountered reading the word list
+     * @see DictionarySet#dictionariesContaining(java.lang.String)
+     */
+    public final Dictionary createShared( 
+            String name, 
+            String description, 
+            Reader wordListReader, 
+            boolean isNormalised ) 
+            throws IOException {
+        
+        if ( this.spellingEngine == SpellingEngine.SYMMETRIC_DELETE ) {
+            return create( name, description, wordListReader, isNormalised );
+        }
+        
+        if ( this.sharedIndex == null 
+                || this.sharedIndex.isReadOnly() 
+                || this.sharedIndex.dictionaryCount() == SharedWordIndex.MAXIMUM_DICTIONARIES ) {
+            this.sharedIndex = new SharedWordIndex( this.configuration );
+        }
+        
+        // create the spelling dictionary
+        WordListRecorder recorder = newRecorder( wordListReader, isNormalised );
+        SharedSpellingDictionary spellingDictionary = 
+                this.sharedIndex.addWordList( 
+                        recorder == null ? wordListReader : recorder, 
+                        isNormalised );
+        // create the wrapper
+        Dictionary dictionary = new Dictionary( 
+                name, 
+                description, 
+                spellingDictionary , 
+                this.maximumSuggestions, 
+                this.maximumCost, 
+                newResultCache(), 
+                newWordFilter( recorder ) );
+        // register it
+        this.dictionarySet.register( dictionary );
+        
+        return dictionary;
+    } 
+    
+    /**
+     * Creates a {@code Dictionary} from a compiled dictionary file. The file 
+     * is memory-mapped rather than loaded, so the dictionary is available 
+     * almost immediately and occupies very little heap. Compiled dictionary 
+     * files are created from word lists with 
+     * {@linkplain uk.ac.open.crc.mdsc.engine.DictionaryCompiler}. The 
+     * dictionary is registered with the current {@code DictionarySet}.
+     * 
+     * @param name an unique name for the dictionary.
+     * @param description a brief description of the dictionary
+     * @param compiledDictionaryFile a compiled dictionary file
+     * @return an instance of {@code Dictionary}
+     * @throws java.io.IOException if the file cannot be read or is not a 
+     * compiled dictionary
+     */
+    public final Dictionary load( 
+            String name, 
+            String description, 
+            File compiledDictionaryFile ) 
+            throws IOException {
+        
+        // create the spelling dictionary
+        MappedSpellingDictionary spellingDictionary = 
+                new MappedSpellingDictionary( compiledDictionaryFile, this.configuration );
+        WordFilter filter = null;
+        if ( this.filterFalsePositiveRate > 0.0 ) {
+            filter = new WordFilter( spellingDictionary.size(), this.filterFalsePositiveRate );
+            spellingDictionary.forEachWord( filter::add );
+        }
         // create the wrapper
         Dictionary dictionary = new Dictionary( 
                 name, 
                 description, 
                 spellingDictionary , 
                 this.maximumSuggestions, 
-                this.maximumCost );
+                this.maximumCost, 
+                newResultCache(), 
+                filter );
         // register it
         this.dictionarySet.register( dictionary );
         
@@ -179,16 +317,79 @@ public class DictionaryManager {
      * a dictionary. Transformations have the following costs: 
      * deletion 95, swap 90, substitution 100, and a change of case 10.
      * The default maximum cost is 200.
+     * <p>
+     * The new threshold only applies to dictionaries created 
+     * by the manager after it has been set.
+     * </p>
      * 
      * @param maximumCost the maximum cost of a transformation to an 
      * alternative spelling.
      */
     public void setCostThreshold( int maximumCost ) {
         this.maximumCost = maximumCost;
+        this.configuration.setInteger( Configuration.SPELL_THRESHOLD, maximumCost );
+    }
+    
+    /**
+     * Sets the costs of the edit operations used to rank suggested 
+     * spellings. For example, a manager of abbreviation dictionaries might 
+     * make deletions cheaper, since abbreviations are mostly formed by 
+     * removing letters from words. By default the costs are read from 
+     * the configuration properties (see {@linkplain #setCostThreshold(int)}).
+     * <p>
+     * The new costs only apply to dictionaries created 
+     * by the manager after they have been set.
+     * </p>
+     * @param costModel the costs of the edit operations
+     */
+    public void setEditCostModel( EditCostModel costModel ) {
+        costModel.applyTo( this.configuration );
+    }
+    
+    /**
+     * Sets the method used by dictionaries to find suggested spellings. 
+     * The phonetic engine, the default, indexes words by their double 
+     * metaphone code. The symmetric delete engine indexes the strings made 
+     * by deleting characters from each word and finds suggestions several 
+     * times faster, at the cost of a larger index and a longer time to 
+     * create each dictionary. Dictionaries loaded from compiled dictionary 
+     * files always use the phonetic engine.
+     * <p>
+     * The engine only applies to dictionaries created by the manager after
+     * it has been set.
+     * </p>
+     * @param spellingEngine the method used to find suggested spellings
+     */
+    public void setSpellingEngine( SpellingEngine spellingEngine ) {
+        if ( spellingEngine == null ) {
+            throw new IllegalArgumentException( 
+                    "The spelling engine cannot be null." );
+        }
+        this.spellingEngine = spellingEngine;
     }
     
     /**
-     * Sets the maximum number of suggested spellings returned by 
+     * Sets whether dictionaries using the phonetic engine search all their
+     * words when no suggestions share a phonetic code, or a similar
+     * phonetic code, with a misspelling. Without the search, the words
+     * closest to the misspelling with the same phonetic code are suggested,
+     * however distant they are. The search finds every word within the cost
+     * threshold, using a trie of the dictionary's words, which uses more
+     * memory and takes a little time to build. By default the search is
+     * not enabled.
+     * <p>
+     * The setting only applies to dictionaries created by the manager
+     * after it has been set.
+     * </p>
+     * @param isBoundedSearch {@code true} to search all the words in a
+     * dictionary when no suggestions share a phonetic code with a misspelling
+     */
+    public void setBoundedSearch( boolean isBoundedSearch ) {
+        this.configuration.setBoolean( Configuration.SPELL_BOUNDED_SEARCH, isBoundedSearch );
+    }
+
+    /**
+     * Sets the maximum number of suggested spellings returned by
      * a dictionary.
      * <p>
      * The new threshold only applies to dictionaries created 
@@ -196,11 +397,94 @@ public class DictionaryManager {
      * </p>
      * @param maximumSuggestions the maximum number of suggested alternative 
      * spellings to be returned by a dictionary.
+     * @throws IllegalArgumentException if {@code maximumSuggestions} is 
+     * negative
      */
     public void setMaximumSuggestions( int maximumSuggestions ) {
+        if ( maximumSuggestions < 0 ) {
+            throw new IllegalArgumentException( 
+                    "Maximum number of suggestions cannot be negative." );
+        }
         this.maximumSuggestions = maximumSuggestions;
     }
     
+    /**
+     * Sets the number of results each dictionary caches. Identifier names 
+     * are highly repetitive, so caching the results of spell checks avoids 
+     * repeatedly searching for suggested spellings of the same word. Each 
+     * dictionary holds its own cache, keyed on the word and cost threshold, 
+     * and discards the least recently used result when the cache is full.
+     * Cache statistics are available from 
+     * {@linkplain Dictionary#cacheStatistics()}.
+     * <p>
+     * The capacity only applies to dictionaries created by the manager 
+     * after it has been set. By default results are not cached. Cached 
+     * results are copied before they are returned, so callers may modify 
+     * the suggestions they receive.
+     * </p>
+     * @param cacheCapacity the maximum number of results cached by each 
+     * dictionary, or 0 to disable caching
+     */
+    public void setCacheCapacity( int cacheCapacity ) {
+        if ( cacheCapacity < 0 ) {
+            throw new IllegalArgumentException( 
+                    "Cache capacity cannot be negative." );
+        }
+        this.cacheCapacity = cacheCapacity;
+    }
+    
+    /**
+     * Sets the false positive rate of the Bloom filter each dictionary 
+     * keeps of its words. Most of the words checked in identifier names 
+     * are absent from most dictionaries, and the filter rejects most of 
+     * those words without searching the dictionary. A lower rate rejects 
+     * more absent words but uses more memory: about 10 bits per word for 
+     * a rate of 0.01, and 14 bits per word for 0.001. The filters' sizes 
+     * and the number of words rejected are available from 
+     * {@linkplain Dictionary#filterStatistics()}.
+     * <p>
+     * The filter is most useful for dictionaries loaded from compiled 
+     * dictionary files, which are searched in the mapped file. The words 
+     * of dictionaries created from word lists are already found in a hash 
+     * table, and the filter adds to the cost of checking them.
+     * </p>
+     * <p>
+     * The rate only applies to dictionaries created by the manager after 
+     * it has been set. The filter of a dictionary loaded from a compiled 
+     * dictionary file is built by reading every word in the file. By 
+     * default words are not filtered.
+     * </p>
+     * @param falsePositiveRate the proportion of absent words the filter 
+     * may fail to reject, between 0 and 1, or 0 to disable filtering
+     * @throws IllegalArgumentException if the rate is negative or not less 
+     * than 1
+     */
+    public void setFilterFalsePositiveRate( double falsePositiveRate ) {
+        if ( !( falsePositiveRate >= 0.0 && falsePositiveRate < 1.0 ) ) {
+            throw new IllegalArgumentException( 
+                    "False positive rate must be at least 0 and less than 1." );
+        }
+        this.filterFalsePositiveRate = falsePositiveRate;
+    }
+    
+    /**
+     * Sets the executor used by dictionary sets to check a word in all 
+     * their dictionaries in parallel. Any {@code Executor} may be used, for 
+     * example {@code ForkJoinPool.commonPool()} or, on Java 21 or later, 
+     * an executor that starts a virtual thread per task. The results are 
+     * collected in the order in which the dictionaries were created.
+     * <p>
+     * The executor only applies to dictionary sets retrieved after it has 
+     * been set. By default no executor is set and dictionaries are checked 
+     * sequentially in the calling thread.
+     * </p>
+     * @param executor an executor, or {@code null} to check dictionaries 
+     * sequentially
+     */
+    public void setExecutor( Executor executor ) {
+        this.executor = executor;
+    }
+    
     /**
      * Retrieves the current dictionary set.
      * <p>
@@ -213,7 +497,39 @@ public class DictionaryManager {
      * @return A dictionary set
      */
     public DictionarySet dictionarySet() {
-        return new DictionarySet( this.dictionarySet );
+        if ( this.sharedIndex != null ) {
+            this.sharedIndex.freeze();
+        }
+        return new DictionarySet( this.dictionarySet, this.executor );
+    }
+    
+    private SpellingDictionary newSpellingDictionary( 
+            Reader wordListReader, 
+            boolean isNormalised ) 
+            throws IOException {
+        if ( this.spellingEngine == SpellingEngine.SYMMETRIC_DELETE ) {
+            return new SymmetricDeleteSpellingDictionary( 
+                    wordListReader, isNormalised, this.configuration );
+        }
+        
+        HashedSpellingDictionary spellingDictionary = 
+                new HashedSpellingDictionary( wordListReader, isNormalised, this.configuration );
+        spellingDictionary.freeze();
+        return spellingDictionary;
+    }
+    
+    private ResultCache newResultCache() {
+        return this.cacheCapacity == 0 ? null : new ResultCache( this.cacheCapacity );
+    }
+    
+    private WordListRecorder newRecorder( Reader wordListReader, boolean isNormalised ) {
+        return this.filterFalsePositiveRate == 0.0 
+                ? null 
+                : new WordListRecorder( wordListReader, isNormalised );
+    }
+    
+    private WordFilter newWordFilter( WordListRecorder recorder ) {
+        return recorder == null ? null : recorder.toFilter( this.filterFalsePositiveRate );
     }
     
     /**
@@ -222,5 +538,6 @@ public class DictionaryManager {
      */
     public void reset() {
         this.dictionarySet = new DictionarySet();
+        this.sharedIndex = null;
     }
 }
@@ -22,17 +22,40 @@ The full text of the licence can be found in the file LICENCE.txt
 package uk.ac.open.crc.mdsc;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import uk.ac.open.crc.mdsc.engine.SharedSpellingDictionary;
+import uk.ac.open.crc.mdsc.engine.SharedWordIndex;
 
 /**
  * {@code DictionarySet} provides the spell checking functionality in 
  * mdsc. The dictionaries used are created from lists of words using the 
  * {@linkplain DictionaryManager} class. A DictionarySet is then obtained from 
  * the manager and used to spell check. 
+ * <p>
+ * If an {@code Executor} has been supplied to the manager with 
+ * {@linkplain DictionaryManager#setExecutor(java.util.concurrent.Executor)}, 
+ * each word is checked in all the dictionaries in parallel. The results are 
+ * always returned in the order in which the dictionaries were registered.
+ * </p>
  */
 public class DictionarySet {
 
+    private static final Pattern WORD = Pattern.compile( "\\w+" );
+    
     private final List<Dictionary> dictionaries;
+    private final Executor executor;
     
     /**
      * Creates an empty set of dictionaries. {@code DictionarySet} is 
@@ -41,10 +64,12 @@ public class DictionarySet {
      */
     DictionarySet() {
         this.dictionaries = new ArrayList<>();
+        this.executor = null;
     }
     
-    private DictionarySet( List<Dictionary> dictionaries ) {
+    private DictionarySet( List<Dictionary> dictionaries, Executor executor ) {
         this.dictionaries = dictionaries;
+        this.executor = executor;
     }
     
     
@@ -56,7 +81,20 @@ public class DictionarySet {
      * to be copied
      */
     DictionarySet( DictionarySet existingDictionarySet ) {
-        this( existingDictionarySet.getDictionaryList() );
+        this( existingDictionarySet.getDictionaryList(), 
+                existingDictionarySet.executor );
+    }
+    
+    /**
+     * Copy constructor that specifies the executor used to check the 
+     * dictionaries in parallel. 
+     * @param existingDictionarySet an instance of {@code DictionarySet} 
+     * to be copied
+     * @param executor the executor used to query the dictionaries 
+     * concurrently, or {@code null} to query them sequentially
+     */
+    DictionarySet( DictionarySet existingDictionarySet, Executor executor ) {
+        this( existingDictionarySet.getDictionaryList(), executor );
     }
 
     /**
@@ -85,12 +123,84 @@ public class DictionarySet {
      * for each dictionary
      */
     public List<Result> spellCheck( String word ) {
-        if ( word == null || word.isEmpty() || containsNonWordCharacters( word ) ) {
-            throw new IllegalArgumentException( 
-                    "Only single words accepted for spell checking." );
-        }
+        validate( word );
 
-        ArrayList<Result> results = new ArrayList<>();
+        if ( this.executor != null && this.dictionaries.size() > 1 ) {
+            return parallelSpellCheck( word );
+        }
+        
+        return sequentialSpellCheck( word );
+    }
+    
+    /**
+     * Checks the spelling of a collection of words. Each distinct word is 
+     * checked once, however many times it occurs in the collection, and the 
+     * words are distributed across the available processors, or submitted 
+     * to the executor if one was supplied to the {@code DictionaryManager}.
+     * 
+     * @param words a collection of words to be spell checked
+     * @return a map from each distinct word to the list of {@code Result}s 
+     * for that word, one per dictionary. The map iterates in the order 
+     * in which the words first occur in the collection.
+     * @throws IllegalArgumentException if any of the words is not a 
+     * single word
+     * @see #spellCheck(java.lang.String)
+     */
+    public Map<String,List<Result>> spellCheck( Collection<String> words ) {
+        return spellCheck( words.stream() );
+    }
+    
+    /**
+     * Checks the spelling of a stream of words. Each distinct word is 
+     * checked once, however many times it occurs in the stream, and the 
+     * words are distributed across the available processors, or submitted 
+     * to the executor if one was supplied to the {@code DictionaryManager}.
+     * <p>
+     * All the words are validated before any spell checking is done, so 
+     * an invalid word results in an exception without any work being 
+     * wasted.
+     * </p>
+     * 
+     * @param words a stream of words to be spell checked
+     * @return a map from each distinct word to the list of {@code Result}s 
+     * for that word, one per dictionary. The map iterates in the order 
+     * in which the words first occur in the stream.
+     * @throws IllegalArgumentException if any of the words is not a 
+     * single word
+     * @see #spellCheck(java.lang.String)
+     */
+    public Map<String,List<Result>> spellCheck( Stream<String> words ) {
+        LinkedHashSet<String> distinctWords = 
+                words.collect( Collectors.toCollection( LinkedHashSet::new ) );
+        distinctWords.stream().forEach( (word) -> validate( word ) );
+        
+        if ( this.executor != null ) {
+            LinkedHashMap<String,CompletableFuture<List<Result>>> futures = 
+                    new LinkedHashMap<>( distinctWords.size() * 4 / 3 + 1 );
+            distinctWords.stream().forEach( (word) -> {
+                futures.put( word, CompletableFuture.supplyAsync( 
+                        () -> sequentialSpellCheck( word ), 
+                        this.executor ) );
+            } );
+            
+            LinkedHashMap<String,List<Result>> results = 
+                    new LinkedHashMap<>( futures.size() * 4 / 3 + 1 );
+            futures.entrySet().stream().forEach( (entry) -> {
+                results.put( entry.getKey(), join( entry.getValue() ) );
+            } );
+            return results;
+        }
+        
+        // the collector preserves encounter order when merging
+        return distinctWords.parallelStream().collect( Collectors.toMap( 
+                Function.<String>identity(), 
+                this::sequentialSpellCheck, 
+                (first, second) -> first, 
+                LinkedHashMap::new ) );
+    }
+    
+    private List<Result> sequentialSpellCheck( String word ) {
+        ArrayList<Result> results = new ArrayList<>( this.dictionaries.size() );
         
         this.dictionaries.stream().forEach( (dictionary) -> {
             results.add( dictionary.checkSpelling( word ) );
@@ -99,6 +209,124 @@ public class DictionarySet {
         return results;
     }
     
+    /**
+     * Submits all but the first dictionary to the executor and checks the 
+     * first in the calling thread, which would otherwise sit idle.
+     */
+    private List<Result> parallelSpellCheck( String word ) {
+        List<CompletableFuture<Result>> futures = 
+                new ArrayList<>( this.dictionaries.size() - 1 );
+        for ( Dictionary dictionary : 
+                this.dictionaries.subList( 1, this.dictionaries.size() ) ) {
+            futures.add( CompletableFuture.supplyAsync( 
+                    () -> dictionary.checkSpelling( word ), 
+                    this.executor ) );
+        }
+        
+        ArrayList<Result> results = new ArrayList<>( this.dictionaries.size() );
+        results.add( this.dictionaries.get( 0 ).checkSpelling( word ) );
+        futures.stream().forEach( (future) -> {
+            results.add( join( future ) );
+        } );
+        
+        return results;
+    }
+    
+    /**
+     * Waits for a result and reports any failure as if the task had been 
+     * run in the calling thread.
+     */
+    private static <T> T join( CompletableFuture<T> future ) {
+        try {
+            return future.join();
+        }
+        catch ( CompletionException e ) {
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error ) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Tests whether a word is found in any of the dictionaries. The 
+     * dictionaries are tested in the order they were registered and the 
+     * test stops at the first dictionary that contains the word. No 
+     * suggested spellings are generated, so this is the cheapest way to 
+     * determine whether a word is known.
+     * 
+     * @param word a word to be tested
+     * @return {@code true} if at least one dictionary contains the word
+     */
+    public boolean isKnown( String word ) {
+        return firstMatch( word ) != null;
+    }
+    
+    /**
+     * Finds the first dictionary, in registration order, that contains 
+     * the given word. Only the presence of the word is tested; suggested 
+     * spellings are not generated. Where no dictionary contains the word,
+     * suggestions can be obtained on demand from 
+     * {@linkplain #spellCheck(java.lang.String)}.
+     * 
+     * @param word a word to be tested
+     * @return a {@code Result} from the first dictionary that contains the 
+     * word, or {@code null} if the word is not found in any dictionary
+     */
+    public Result firstMatch( String word ) {
+        validate( word );
+        
+        for ( Dictionary dictionary : this.dictionaries ) {
+            if ( dictionary.isCorrect( word ) ) {
+                return new Result( word, dictionary.name() );
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Finds all the dictionaries that contain the given word. Only the 
+     * presence of the word is tested; suggested spellings are not 
+     * generated. Dictionaries created with 
+     * {@linkplain DictionaryManager#createShared(java.lang.String, java.lang.String, java.io.Reader, boolean)}
+     * share a single index, and a single lookup in that index answers 
+     * for all of them.
+     * 
+     * @param word a word to be tested
+     * @return the names of the dictionaries that contain the word, in the 
+     * order in which the dictionaries were registered
+     */
+    public List<String> dictionariesContaining( String word ) {
+        validate( word );
+        
+        String lowerCase = word.toLowerCase();
+        IdentityHashMap<SharedWordIndex,Long> memberships = new IdentityHashMap<>();
+        ArrayList<String> names = new ArrayList<>();
+        for ( Dictionary dictionary : this.dictionaries ) {
+            boolean isCorrect;
+            if ( dictionary.spellingDictionary() instanceof SharedSpellingDictionary ) {
+                SharedSpellingDictionary shared = 
+                        (SharedSpellingDictionary) dictionary.spellingDictionary();
+                long members = memberships.computeIfAbsent( shared.index(), 
+                        (index) -> index.membership( word ) | index.membership( lowerCase ) );
+                isCorrect = ( members & shared.membershipMask() ) != 0;
+            }
+            else {
+                isCorrect = dictionary.isCorrect( word );
+            }
+            
+            if ( isCorrect ) {
+                names.add( dictionary.name() );
+            }
+        }
+        
+        return names;
+    }
+    
     /**
      * Recovers a list of the dictionaries in this set.
      * @return a list of dictionaries.
@@ -107,8 +335,15 @@ public class DictionarySet {
         return this.dictionaries;
     }
     
+    private void validate( String word ) {
+        if ( word == null || word.isEmpty() || containsNonWordCharacters( word ) ) {
+            throw new IllegalArgumentException( 
+                    "Only single words accepted for spell checking." );
+        }
+    }
+    
     private boolean containsNonWordCharacters( String testString ) {
-        return !testString.matches( "\\w+" );
+        return !WORD.matcher( testString ).matches();
     }
     
 }
@@ -0,0 +1,155 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc;
+
+/**
+ * A snapshot of the statistics of a dictionary's membership filter.
+ *
+ * @see DictionaryManager#setFilterFalsePositiveRate(double)
+ */
+public final class FilterStatistics {
+
+    private final int wordCount;
+    private final long bitCount;
+    private final int hashCount;
+    private final double falsePositiveRate;
+    private final double expectedFalsePositiveRate;
+    private final long checkCount;
+    private final long rejectionCount;
+    private final long falsePositiveCount;
+
+    FilterStatistics(
+            int wordCount,
+            long bitCount,
+            int hashCount,
+            double falsePositiveRate,
+            double expectedFalsePositiveRate,
+            long checkCount,
+            long rejectionCount,
+            long falsePositiveCount ) {
+        this.wordCount = wordCount;
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.falsePositiveRate = falsePositiveRate;
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        this.checkCount = checkCount;
+        this.rejectionCount = rejectionCount;
+        this.falsePositiveCount = falsePositiveCount;
+    }
+
+    /**
+     * The number of words added to the filter.
+     * @return the number of words
+     */
+    public int wordCount() {
+        return this.wordCount;
+    }
+
+    /**
+     * The number of bits in the filter.
+     * @return the size of the filter in bits
+     */
+    public long bitCount() {
+        return this.bitCount;
+    }
+
+    /**
+     * The memory occupied by the filter's bits.
+     * @return the size of the filter in bytes
+     */
+    public long memoryBytes() {
+        return this.bitCount / 8;
+    }
+
+    /**
+     * The number of bits set for each word.
+     * @return the number of hash functions
+     */
+    public int hashCount() {
+        return this.hashCount;
+    }
+
+    /**
+     * The false positive rate the filter was sized for.
+     * @return the configured false positive rate
+     */
+    public double falsePositiveRate() {
+        return this.falsePositiveRate;
+    }
+
+    /**
+     * The false positive rate expected from the size of the filter and the 
+     * number of words added.
+     * @return the expected proportion of absent words admitted by the filter
+     */
+    public double expectedFalsePositiveRate() {
+        return this.expectedFalsePositiveRate;
+    }
+
+    /**
+     * The number of words tested with the filter.
+     * @return the number of checks
+     */
+    public long checkCount() {
+        return this.checkCount;
+    }
+
+    /**
+     * The number of words the filter showed were not in the dictionary, 
+     * so the dictionary was not searched.
+     * @return the number of definite misses
+     */
+    public long rejectionCount() {
+        return this.rejectionCount;
+    }
+
+    /**
+     * The number of words admitted by the filter that were not found in 
+     * the dictionary.
+     * @return the number of false positives
+     */
+    public long falsePositiveCount() {
+        return this.falsePositiveCount;
+    }
+
+    /**
+     * The proportion of the words not in the dictionary that were admitted 
+     * by the filter.
+     * @return a value between 0 and 1, or 0 if no absent words have been 
+     * tested
+     */
+    public double observedFalsePositiveRate() {
+        long absent = this.rejectionCount + this.falsePositiveCount;
+        return absent == 0 ? 0.0 : (double) this.falsePositiveCount / absent;
+    }
+
+    @Override
+    public String toString() {
+        return "words: " + this.wordCount
+                + " bits: " + this.bitCount
+                + " hashes: " + this.hashCount
+                + " checks: " + this.checkCount
+                + " rejections: " + this.rejectionCount
+                + " false positives: " + this.falsePositiveCount
+                + String.format( " rate: %.4f (expected %.4f)", 
+                        observedFalsePositiveRate(), 
+                        this.expectedFalsePositiveRate );
+    }
+}
@@ -117,4 +117,18 @@ public class Result {
         return this.suggestions;
     }
     
+    /**
+     * Creates a copy of this result with its own list of suggestions, so 
+     * that a cached result can be handed to a caller who may modify the 
+     * list.
+     * @return a copy of this result
+     */
+    Result copy() {
+        return new Result( 
+                this.word, 
+                this.dictionaryName, 
+                this.suggestions == null ? null : new ArrayList<>( this.suggestions ), 
+                this.isCorrect );
+    }
+    
 }
@@ -0,0 +1,186 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread safe cache of spell checking results keyed on the word
+ * tested and the cost threshold used. The cache is divided into segments,
+ * each guarded by its own lock, so that threads checking different words
+ * rarely contend. Each segment evicts its least recently used entry when
+ * it is full.
+ */
+class ResultCache {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final Segment[] segments;
+    private final int capacity;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Creates a cache.
+     * @param capacity the maximum number of results held. The capacity is
+     * divided evenly between the segments.
+     */
+    ResultCache( int capacity ) {
+        if ( capacity < 1 ) {
+            throw new IllegalArgumentException(
+                    "Cache capacity must be a positive integer." );
+        }
+
+        this.capacity = capacity;
+        int segmentCount = Math.min( SEGMENT_COUNT, capacity );
+        this.segments = new Segment[segmentCount];
+        for ( int i = 0; i < segmentCount; i++ ) {
+            // share out any remainder so the segments sum to the capacity
+            int segmentCapacity =
+                    capacity / segmentCount + ( i < capacity % segmentCount ? 1 : 0 );
+            this.segments[i] = new Segment( segmentCapacity );
+        }
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Retrieves a cached result.
+     * @param word the word tested
+     * @param costThreshold the cost threshold used
+     * @return the cached result or {@code null} if there is none
+     */
+    Result get( String word, int costThreshold ) {
+        Key key = new Key( word, costThreshold );
+        Result result = segmentFor( key ).get( key );
+        if ( result == null ) {
+            this.misses.increment();
+        }
+        else {
+            this.hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Stores a result, evicting the least recently used result in the
+     * segment if necessary.
+     * @param word the word tested
+     * @param costThreshold the cost threshold used
+     * @param result the result of the test
+     */
+    void put( String word, int costThreshold, Result result ) {
+        Key key = new Key( word, costThreshold );
+        segmentFor( key ).put( key, result );
+    }
+
+    /**
+     * Takes a snapshot of the cache's statistics.
+     * @return the current statistics
+     */
+    CacheStatistics statistics() {
+        int size = 0;
+        for ( Segment segment : this.segments ) {
+            size += segment.size();
+        }
+        return new CacheStatistics(
+                this.hits.sum(),
+                this.misses.sum(),
+                this.evictions.sum(),
+                size,
+                this.capacity );
+    }
+
+    private Segment segmentFor( Key key ) {
+        // spread the hash so that the low bits select the segment well
+        int hash = key.hashCode();
+        hash ^= ( hash >>> 16 );
+        return this.segments[( hash & 0x7fffffff ) % this.segments.length];
+    }
+
+    /**
+     * A least recently used map guarded by its own lock.
+     */
+    private final class Segment {
+        private final LinkedHashMap<Key,Result> map;
+
+        private Segment( int segmentCapacity ) {
+            this.map = new LinkedHashMap<Key,Result>(
+                    segmentCapacity * 4 / 3 + 1, 0.75f, true ) {
+                @Override
+                protected boolean removeEldestEntry( Map.Entry<Key,Result> eldest ) {
+                    if ( size() > segmentCapacity ) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized Result get( Key key ) {
+            return this.map.get( key );
+        }
+
+        synchronized void put( Key key, Result result ) {
+            this.map.put( key, result );
+        }
+
+        synchronized int size() {
+            return this.map.size();
+        }
+    }
+
+    private static final class Key {
+        private final String word;
+        private final int costThreshold;
+
+        private Key( String word, int costThreshold ) {
+            this.word = word;
+            this.costThreshold = costThreshold;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !(o instanceof Key) ) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+
+            return this.costThreshold == key.costThreshold
+                    && this.word.equals( key.word );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.word.hashCode() + this.costThreshold;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc;
+
+/**
+ * The methods a dictionary may use to find suggested spellings.
+ *
+ * @see DictionaryManager#setSpellingEngine(SpellingEngine)
+ */
+public enum SpellingEngine {
+    /**
+     * Words are indexed by their double metaphone code, and suggestions 
+     * are found by calculating the phonetic codes of variants of the 
+     * misspelt word. See 
+     * {@linkplain uk.ac.open.crc.mdsc.engine.HashedSpellingDictionary}.
+     */
+    PHONETIC,
+    
+    /**
+     * Words are indexed by the strings made by deleting one or two 
+     * characters from them, and suggestions are found by looking up the 
+     * same deletions of the misspelt word. Suggestions are found much 
+     * faster, but the index is larger. See 
+     * {@linkplain uk.ac.open.crc.mdsc.engine.SymmetricDeleteSpellingDictionary}.
+     */
+    SYMMETRIC_DELETE
+}
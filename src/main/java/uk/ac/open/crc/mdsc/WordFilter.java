@@ -0,0 +1,181 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Bloom filter of the words in a dictionary, consulted before the 
+ * dictionary itself so that words that are definitely absent are rejected 
+ * without calculating a phonetic code or searching the dictionary. A word 
+ * is admitted if it, or the word normalised to lower case, may be in the 
+ * filter, which matches the way dictionaries test words.
+ * <p>
+ * The filter is sized for the expected number of words and the required 
+ * false positive rate. Each word sets {@code k} bits chosen by double 
+ * hashing of a 64 bit hash of its characters. The filter is populated 
+ * before it is shared and is thread safe once populated; the counters 
+ * are updated concurrently.
+ * </p>
+ */
+class WordFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final double falsePositiveRate;
+    private int wordCount;
+
+    private final LongAdder checks;
+    private final LongAdder rejections;
+    private final LongAdder falsePositives;
+
+    /**
+     * Creates an empty filter.
+     * @param expectedWords the number of words that will be added
+     * @param falsePositiveRate the proportion of absent words that may be 
+     * admitted when the expected number of words have been added
+     * @throws IllegalArgumentException if the rate is not between 0 and 1
+     */
+    WordFilter( int expectedWords, double falsePositiveRate ) {
+        if ( !( falsePositiveRate > 0.0 && falsePositiveRate < 1.0 ) ) {
+            throw new IllegalArgumentException(
+                    "False positive rate must be between 0 and 1." );
+        }
+
+        int words = Math.max( 1, expectedWords );
+        double ln2 = Math.log( 2 );
+        long optimalBits = (long) Math.ceil( 
+                -words * Math.log( falsePositiveRate ) / ( ln2 * ln2 ) );
+        // a whole number of longs
+        this.bits = new long[(int) Math.max( 1, ( optimalBits + 63 ) >>> 6 )];
+        this.bitCount = this.bits.length * 64L;
+        this.hashCount = (int) Math.max( 1, 
+                Math.round( (double) this.bitCount / words * ln2 ) );
+        this.falsePositiveRate = falsePositiveRate;
+        this.wordCount = 0;
+
+        this.checks = new LongAdder();
+        this.rejections = new LongAdder();
+        this.falsePositives = new LongAdder();
+    }
+
+    /**
+     * Adds a word to the filter.
+     * @param word a word in the dictionary
+     */
+    void add( String word ) {
+        long hash = hash( word );
+        int first = (int) hash;
+        int second = (int) ( hash >>> 32 );
+        for ( int i = 0; i < this.hashCount; i++ ) {
+            long bit = index( first + i * second );
+            this.bits[(int) ( bit >>> 6 )] |= 1L << bit;
+        }
+        this.wordCount++;
+    }
+
+    /**
+     * Tests whether a word, or the word normalised to lower case, may be 
+     * in the dictionary. A word that is rejected is definitely not in the 
+     * dictionary.
+     * @param word a word to be tested
+     * @return {@code false} if the word is definitely not in the dictionary
+     */
+    boolean admits( String word ) {
+        this.checks.increment();
+        if ( mightContain( word ) ) {
+            return true;
+        }
+        String lowerCase = word.toLowerCase();
+        if ( !lowerCase.equals( word ) && mightContain( lowerCase ) ) {
+            return true;
+        }
+        this.rejections.increment();
+        return false;
+    }
+
+    /**
+     * Records that an admitted word was not found in the dictionary.
+     */
+    void recordFalsePositive() {
+        this.falsePositives.increment();
+    }
+
+    /**
+     * Takes a snapshot of the filter's statistics.
+     * @return the current statistics
+     */
+    FilterStatistics statistics() {
+        return new FilterStatistics(
+                this.wordCount,
+                this.bitCount,
+                this.hashCount,
+                this.falsePositiveRate,
+                expectedFalsePositiveRate(),
+                this.checks.sum(),
+                this.rejections.sum(),
+                this.falsePositives.sum() );
+    }
+
+    private boolean mightContain( String word ) {
+        long hash = hash( word );
+        int first = (int) hash;
+        int second = (int) ( hash >>> 32 );
+        for ( int i = 0; i < this.hashCount; i++ ) {
+            long bit = index( first + i * second );
+            if ( ( this.bits[(int) ( bit >>> 6 )] & ( 1L << bit ) ) == 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The false positive rate expected from the number of words added.
+     */
+    private double expectedFalsePositiveRate() {
+        return Math.pow( 
+                1.0 - Math.exp( -(double) this.hashCount * this.wordCount / this.bitCount ), 
+                this.hashCount );
+    }
+
+    private long index( int combinedHash ) {
+        return ( combinedHash & 0xffffffffL ) % this.bitCount;
+    }
+
+    /**
+     * A 64 bit FNV-1a hash of the characters, finished with the MurmurHash3 
+     * mixing function so that both halves are well distributed.
+     */
+    private static long hash( String word ) {
+        long hash = 0xcbf29ce484222325L;
+        for ( int i = 0; i < word.length(); i++ ) {
+            hash ^= word.charAt( i );
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
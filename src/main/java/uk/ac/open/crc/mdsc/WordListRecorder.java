@@ -0,0 +1,127 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the words in a word list as a spelling dictionary reads it, so 
+ * that a {@linkplain WordFilter} can be built without reading the list 
+ * again. Lines are separated as {@code BufferedReader.readLine()} 
+ * separates them, and empty lines are ignored, as they are by the 
+ * spelling dictionaries.
+ */
+class WordListRecorder extends FilterReader {
+
+    private final boolean isNormalised;
+    private final List<String> words;
+    private final StringBuilder line;
+
+    /**
+     * Wraps a word list.
+     * @param wordList a reader for a word list with one word per line
+     * @param isNormalised indicates whether the words are normalised to 
+     * lower case by the dictionary, and so should be recorded in lower case
+     */
+    WordListRecorder( Reader wordList, boolean isNormalised ) {
+        super( wordList );
+        this.isNormalised = isNormalised;
+        this.words = new ArrayList<>();
+        this.line = new StringBuilder();
+    }
+
+    @Override
+    public int read() throws IOException {
+        int character = super.read();
+        if ( character < 0 ) {
+            endLine();
+        }
+        else {
+            record( (char) character );
+        }
+        return character;
+    }
+
+    @Override
+    public int read( char[] buffer, int offset, int length ) throws IOException {
+        int count = super.read( buffer, offset, length );
+        if ( count < 0 ) {
+            endLine();
+        }
+        for ( int i = offset; i < offset + count; i++ ) {
+            record( buffer[i] );
+        }
+        return count;
+    }
+
+    @Override
+    public long skip( long n ) throws IOException {
+        throw new IOException( "Words cannot be skipped while they are recorded" );
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark( int readAheadLimit ) throws IOException {
+        throw new IOException( "mark() not supported" );
+    }
+
+    @Override
+    public void close() throws IOException {
+        endLine();
+        super.close();
+    }
+
+    /**
+     * Builds a filter of the words read.
+     * @param falsePositiveRate the false positive rate of the filter
+     * @return a filter containing every word read
+     */
+    WordFilter toFilter( double falsePositiveRate ) {
+        endLine();
+        WordFilter filter = new WordFilter( this.words.size(), falsePositiveRate );
+        this.words.forEach( filter::add );
+        return filter;
+    }
+
+    private void record( char character ) {
+        if ( character == '\n' || character == '\r' ) {
+            endLine();
+        }
+        else {
+            this.line.append( character );
+        }
+    }
+
+    private void endLine() {
+        if ( this.line.length() > 0 ) {
+            String word = this.line.toString();
+            this.words.add( this.isNormalised ? word.toLowerCase() : word );
+            this.line.setLength( 0 );
+        }
+    }
+}
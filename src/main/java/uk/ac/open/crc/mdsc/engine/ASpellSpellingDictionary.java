@@ -26,9 +26,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import org.slf4j.Logger;
@@ -75,6 +74,25 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
      */
     protected Transformator transformator;
 
+    /**
+     * The maximum cost of a suggested spelling, resolved from the 
+     * configuration when the dictionary is constructed.
+     */
+    private final int spellThreshold;
+
+    /**
+     * The costs used to calculate the edit distance to suggested spellings, 
+     * resolved from the configuration when the dictionary is constructed.
+     */
+    private final EditCostModel costModel;
+
+    /**
+     * Indicates whether all the words in the dictionary are searched when 
+     * no suggestions share a phonetic code with the misspelling, resolved 
+     * from the configuration when the dictionary is constructed.
+     */
+    private final boolean isBoundedSearch;
+
     /**
      * Constructs a new SpellDictionaryASpell
      *
@@ -85,12 +103,33 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
      * information
      */
     public ASpellSpellingDictionary( File phonetic ) throws IOException {
+        this( phonetic, Configuration.getConfiguration() );
+    }
+
+    /**
+     * Constructs a new ASpellSpellingDictionary using the settings in the 
+     * given configuration. The spell threshold and edit costs are read once, 
+     * when the dictionary is constructed, so later changes to the configuration do not affect 
+     * the dictionary.
+     *
+     * @param phonetic The file to use for phonetic transformation of the words
+     * list. If <code>phonetic</code> is null, the the transformation uses
+     * {@link DoubleMetaphoneTransformator} transformation.
+     * @param configuration the configuration of the spelling engine
+     * @throws java.io.IOException indicates problems reading the phonetic
+     * information
+     */
+    public ASpellSpellingDictionary( File phonetic, Configuration configuration ) 
+            throws IOException {
         if ( phonetic == null ) {
             this.transformator = new DoubleMetaphoneTransformator();
         }
         else {
             this.transformator = new GenericTransformator( phonetic );
         }
+        this.spellThreshold = configuration.getInteger( Configuration.SPELL_THRESHOLD );
+        this.costModel = EditCostModel.fromConfiguration( configuration );
+        this.isBoundedSearch = configuration.getBoolean( Configuration.SPELL_BOUNDED_SEARCH );
     }
 
     /**
@@ -111,6 +150,10 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
         else {
             this.transformator = new GenericTransformator( phonetic, encoding );
         }
+        Configuration configuration = Configuration.getConfiguration();
+        this.spellThreshold = configuration.getInteger( Configuration.SPELL_THRESHOLD );
+        this.costModel = EditCostModel.fromConfiguration( configuration );
+        this.isBoundedSearch = configuration.getBoolean( Configuration.SPELL_BOUNDED_SEARCH );
     }
 
     /**
@@ -123,12 +166,32 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
      * information
      */
     public ASpellSpellingDictionary( Reader phonetic ) throws IOException {
+        this( phonetic, Configuration.getConfiguration() );
+    }
+
+    /**
+     * Constructs a new ASpellSpellingDictionary using the settings in the 
+     * given configuration. The settings are read once, when the dictionary 
+     * is constructed.
+     *
+     * @param phonetic The Reader to use for phonetic transformation of the
+     * words list. If <code>phonetic</code> is null, the the transformation uses
+     * {@link DoubleMetaphoneTransformator} transformation.
+     * @param configuration the configuration of the spelling engine
+     * @throws java.io.IOException indicates problems reading the phonetic
+     * information
+     */
+    public ASpellSpellingDictionary( Reader phonetic, Configuration configuration ) 
+            throws IOException {
         if ( phonetic == null ) {
             transformator = new DoubleMetaphoneTransformator();
         }
         else {
             transformator = new GenericTransformator( phonetic );
         }
+        this.spellThreshold = configuration.getInteger( Configuration.SPELL_THRESHOLD );
+        this.costModel = EditCostModel.fromConfiguration( configuration );
+        this.isBoundedSearch = configuration.getBoolean( Configuration.SPELL_BOUNDED_SEARCH );
     }
 
     /**
@@ -158,9 +221,8 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
      * <p>
      * @param word suggestions for given misspelt word
      * @param threshold The lower boundary of similarity to misspelt word
-     * @param matrix Two dimensional int array used to calculate edit distance.
-     * Allocating this memory outside of the function will greatly improve
-     * efficiency.
+     * @param matrix not used, the edit distances are calculated in a 
+     * scratch buffer kept by each thread
      * @return Vector a List of suggested alternative spellings
      */
     @Override
@@ -168,35 +230,110 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
             String word, 
             int threshold, 
             int[][] matrix ) {
+        SuggestionHeap phoneticMatches = new SuggestionHeap( Integer.MAX_VALUE );
+        SuggestionHeap nearMisses = new SuggestionHeap( Integer.MAX_VALUE );
+        collectSuggestions( word, phoneticMatches, nearMisses );
+
+        //always sort phonetic matches along the top
+        //the non-phonetic matches can be listed below
+        List<Word> suggestions = phoneticMatches.toList();
+        suggestions.addAll( nearMisses.toList() );
+        return suggestions;
+    }
 
-        int i;
-        int j;
-
-        if ( matrix == null ) {
-            matrix = new int[0][0];
+    /**
+     * Returns the best suggestions for an incorrect word. The suggestions 
+     * are found in the same way as {@link #getSuggestions(String, int, int[][])}, 
+     * but are scored into a heap of at most {@code maximumSuggestions} 
+     * words. Once the heap is full the edit distance of each candidate is 
+     * only calculated up to the cost of the worst suggestion kept.
+     *
+     * @param word suggestions for given misspelt word
+     * @param threshold not used; the spell threshold resolved when the 
+     * dictionary was constructed is used
+     * @param maximumSuggestions the maximum number of suggestions returned
+     * @return the best suggestions, ordered by cost and then alphabetically
+     */
+    @Override
+    public List<Word> getSuggestions( 
+            String word, 
+            int threshold, 
+            int maximumSuggestions ) {
+        SuggestionHeap suggestions = new SuggestionHeap( maximumSuggestions );
+        if ( maximumSuggestions > 0 ) {
+            collectSuggestions( word, suggestions, suggestions );
         }
+        return suggestions.toList();
+    }
 
-        HashMap<String,String> nearMissCodes = new HashMap<>();
+    /**
+     * Scores the words with the same phonetic code as the misspelt word 
+     * into one heap and the words whose codes are those of near misses 
+     * into the other, which may be the same heap. If neither finds a 
+     * suggestion, the best guesses are added to the first heap.
+     */
+    private void collectSuggestions( 
+            String word, 
+            SuggestionHeap phoneticMatches, 
+            SuggestionHeap nearMisses ) {
         String code = getPhoneticCode( word );
 
         // add all words that have the same phonetics
-        nearMissCodes.put( code, code );
-        List<Word> phoneticList = getWordsFromCode( word, nearMissCodes );
+        addWordsFromCode( word, getWords( code ), phoneticMatches );
 
-        // do some transformations to pick up more results
-        //interchange
-        nearMissCodes = new HashMap<>();
-        char[] charArray = word.toCharArray();
+        PhoneticCodeSet nearMissCodes = getNearMissCodes( word, code );
+
+        // The deletion pass inherited from Jazzy transformed the whole word 
+        // on every iteration, rather than the word with a character deleted, 
+        // so it only ever added the word's own code, which was then removed. 
+        // It has been dropped; generating real deletions would change the 
+        // suggestions returned.
+        word = word.trim();
+
+        nearMissCodes.remove( code ); //already accounted for in phoneticMatches
+
+        addWordsFromCode( word, getWords( nearMissCodes ), nearMisses );
+
+        if ( phoneticMatches.isEmpty() && nearMisses.isEmpty() ) {
+            List<Word> guesses = this.isBoundedSearch 
+                    ? getWordsWithinThreshold( word ) 
+                    : Collections.emptyList();
+            if ( guesses.isEmpty() ) {
+                guesses = new ArrayList<>();
+                addBestGuess( word, guesses );
+            }
+            for ( Word guess : guesses ) {
+                phoneticMatches.offer( guess );
+            }
+        }
+    }
+
+    /**
+     * Makes the codes of the variants of a word produced by swapping 
+     * adjacent characters, replacing a character and adding a character, 
+     * to pick up more results. The variants are made in a single array and 
+     * their codes are collected in a set, which starts with the word's own 
+     * code so that it is not transformed again.
+     */
+    private PhoneticCodeSet getNearMissCodes( String word, String code ) {
+        int i;
+        int j;
+
+        PhoneticCodeSet nearMissCodes = new PhoneticCodeSet();
+        nearMissCodes.add( code );
+        int length = word.length();
+        char[] charArray = new char[length + 1];
+        word.getChars( 0, length, charArray, 0 );
         char a;
         char b;
 
-        for ( i = 0; i < word.length() - 1; i++ ) {
+        //interchange
+        for ( i = 0; i < length - 1; i++ ) {
             a = charArray[i];
             b = charArray[i + 1];
             charArray[i] = b;
             charArray[i + 1] = a;
-            String s = getPhoneticCode( new String( charArray ) );
-            nearMissCodes.put( s, s );
+            nearMissCodes.add( this.transformator.transform( charArray, length ) );
             charArray[i] = a;
             charArray[i + 1] = b;
         }
@@ -204,26 +341,22 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
         char[] replacelist = transformator.getReplaceList();
 
         //change
-        charArray = word.toCharArray();
         char original;
-        for ( i = 0; i < word.length(); i++ ) {
+        for ( i = 0; i < length; i++ ) {
             original = charArray[i];
             for ( j = 0; j < replacelist.length; j++ ) {
                 charArray[i] = replacelist[j];
-                String s = getPhoneticCode( new String( charArray ) );
-                nearMissCodes.put( s, s );
+                nearMissCodes.add( this.transformator.transform( charArray, length ) );
             }
             charArray[i] = original;
         }
 
         //add
-        charArray = (word += " ").toCharArray();
-        int iy = charArray.length - 1;
+        int iy = length;
         while ( true ) {
             for ( j = 0; j < replacelist.length; j++ ) {
                 charArray[iy] = replacelist[j];
-                String s = getPhoneticCode( new String( charArray ) );
-                nearMissCodes.put( s, s );
+                nearMissCodes.add( this.transformator.transform( charArray, length + 1 ) );
             }
             if ( iy == 0 ) {
                 break;
@@ -232,42 +365,9 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
             --iy;
         }
 
-        //delete
-        word = word.trim();
-        charArray = word.toCharArray();
-        char[] charArray2 = Arrays.copyOf( charArray, charArray.length - 1 ); 
-
-        a = charArray[charArray.length - 1];
-        int ii = charArray2.length;
-        while ( true ) {
-            String s = getPhoneticCode( new String( charArray ) );
-            nearMissCodes.put( s, s );
-            if ( ii == 0 ) {
-                break;
-            }
-            b = a;
-            a = charArray2[ii - 1];
-            charArray2[ii - 1] = b;
-            --ii;
-        }
-
-        nearMissCodes.remove( code ); //already accounted for in phoneticList
-
-        List<Word> wordlist = getWordsFromCode( word, nearMissCodes );
-
-        if ( wordlist.isEmpty() && phoneticList.isEmpty() ) {
-            addBestGuess( word, phoneticList, matrix );
-        }
-
-        // Sort the lists before returning
-        Collections.sort( phoneticList, new Word() ); //always sort phonetic matches along the top
-        Collections.sort( wordlist, new Word() ); //the non-phonetic matches can be listed below
-
-        phoneticList.addAll( wordlist );
-        return phoneticList;
+        return nearMissCodes;
     }
 
-   
     // SB: why does this method not create the list and return it?
     // Why insist on an empty list being passed in?
     // Review & revise? But look at the caller first (method above only).
@@ -277,18 +377,11 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
      * words that have the same phonetic code.
      *
      * @param word - the word we are trying spell correct
-     * @param matrix two dimensional array of int used to calculate edit distance.
-     * Allocating this memory outside of the function will greatly improve
-     * efficiency.
      * @param wordList - the linked list that will get the best guess
      */
     private void addBestGuess( 
             String word, 
-            List<Word> wordList, 
-            int[][] matrix ) {
-        if ( matrix == null ) {
-            matrix = new int[0][0];
-        }
+            List<Word> wordList ) {
 
         int bestScore = Integer.MAX_VALUE;
 
@@ -298,7 +391,7 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
         LinkedList<Word> candidates = new LinkedList<>();
 
         for ( String similarWord : similarWordsList ) {
-            int distance = EditDistance.getDistance( word, similarWord, matrix );
+            int distance = EditDistance.getDistance( word, similarWord, null, this.costModel );
             if ( distance <= bestScore ) {
                 bestScore = distance;
                 candidates.add( new Word( similarWord, distance ) );
@@ -314,26 +407,69 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
 
     }
 
+    /**
+     * Finds all the words in the dictionary whose edit distance from the 
+     * misspelt word is less than the spell threshold, whatever their 
+     * phonetic code. The search is only made when the configuration 
+     * enables {@linkplain Configuration#SPELL_BOUNDED_SEARCH} and no 
+     * suggestions were found among words with the same or similar 
+     * phonetic codes.
+     * <p>
+     * By default no words are returned. Dictionaries that can search their 
+     * words efficiently override this method.
+     * </p>
+     * @param word the misspelt word
+     * @return the words within the spell threshold, in no particular order
+     */
+    protected List<Word> getWordsWithinThreshold( String word ) {
+        return Collections.emptyList();
+    }
     
-    private List<Word> getWordsFromCode( 
+    /**
+     * Scores the similar words, offering those whose edit distance from the 
+     * word is less than the spell threshold to the heap. The distance is 
+     * only calculated up to the heap's cutoff.
+     */
+    private void addWordsFromCode( 
             String word, 
-            HashMap<String,String> codes ) {
-        Configuration config = Configuration.getConfiguration();
-        ArrayList<Word> result = new ArrayList<>();
-        int[][] matrix = new int[0][0];
-        final int configDistance = config.getInteger( Configuration.SPELL_THRESHOLD );
-
-        codes.keySet().stream()
-                .map( (code) -> getWords( code ) ).forEach( (similarWordList) -> {
-            similarWordList.stream().forEach( (similarWord) -> {
-                int distance = EditDistance.getDistance( word, similarWord, matrix );
-                if ( distance < configDistance ) {
-                    result.add( new Word( similarWord, distance ) );
-                }
-            } );
-        } );
-
-        return result;
+            List<String> similarWords, 
+            SuggestionHeap suggestions ) {
+        final int configDistance = this.spellThreshold;
+
+        for ( String similarWord : similarWords ) {
+            int cutoff = suggestions.cutoff( configDistance );
+            int distance = EditDistance.getDistance( word, similarWord, this.costModel, cutoff );
+            if ( distance < cutoff ) {
+                suggestions.offer( similarWord, distance );
+            }
+        }
+    }
+
+    /**
+     * The maximum cost of the suggested spellings returned by this 
+     * dictionary.
+     * @return the spell threshold resolved when the dictionary was constructed
+     */
+    public int spellThreshold() {
+        return this.spellThreshold;
+    }
+
+    /**
+     * Indicates whether the dictionary searches all of its words when no 
+     * suggestions share a phonetic code with a misspelling.
+     * @return the setting resolved when the dictionary was constructed
+     */
+    public boolean isBoundedSearch() {
+        return this.isBoundedSearch;
+    }
+
+    /**
+     * The costs used to calculate the edit distance between a word and its 
+     * suggested spellings.
+     * @return the cost model resolved when the dictionary was constructed
+     */
+    public EditCostModel costModel() {
+        return this.costModel;
     }
 
     /**
@@ -354,18 +490,45 @@ public abstract class ASpellSpellingDictionary implements SpellingDictionary {
      */
     protected abstract List<String> getWords( String phoneticCode );
 
+    /**
+     * Returns a list of the words that have any of the given phonetic codes. 
+     * Each word has a single code, so no word is returned twice, but the 
+     * words are in no particular order.
+     * <p>
+     * By default the words for each code are retrieved with 
+     * {@linkplain #getWords(String)}. Dictionaries that can retrieve the 
+     * words for many codes more efficiently, e.g. in a single pass over a 
+     * file, override this method.
+     * </p>
+     *
+     * @param phoneticCodes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    protected List<String> getWords( Collection<String> phoneticCodes ) {
+        ArrayList<String> words = new ArrayList<>();
+        for ( String phoneticCode : phoneticCodes ) {
+            words.addAll( getWords( phoneticCode ) );
+        }
+        return words;
+    }
+
     // SB: NB this test behaves as a conventional spell checker with 
     // capitalisation, i.e. the test string 'sunday' would be seen as
     // incorrectly spelt if only 'Sunday' is in the dictionary.
     /**
      * Returns true if the word is correctly spelled against the current word
-     * list.
+     * list. The words with the same phonetic code are compared with the 
+     * word and the word normalised to lower case in a single pass.
      */
     @Override
     public boolean isCorrect( String word ) {
-        List<String> possibles = getWords( getPhoneticCode( word ) );
-        return ( possibles.contains( word ) 
-                || possibles.contains( word.toLowerCase() ));
+        String lowerCase = word.toLowerCase();
+        for ( String possible : getWords( getPhoneticCode( word ) ) ) {
+            if ( possible.equals( word ) || possible.equals( lowerCase ) ) {
+                return true;
+            }
+        }
+        return false;
         // note from Jazzy author:
         //JMH should we always try the lowercase version. If I don't then capitalised
         //words are always returned as incorrect.
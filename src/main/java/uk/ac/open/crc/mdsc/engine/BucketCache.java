@@ -0,0 +1,281 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A bounded, thread safe cache of the words with each phonetic code. The 
+ * cache is divided into segments, each guarded by its own lock, so that 
+ * threads seeking different codes rarely contend.
+ * <p>
+ * Each segment is a segmented least recently used cache. A bucket enters 
+ * the probationary part of the segment and is promoted to the protected 
+ * part when it is used again; a bucket demoted from the protected part 
+ * returns to the probationary part, and buckets are only evicted from the 
+ * probationary part. The tokens of identifier names follow a Zipfian 
+ * distribution, and most of the near-miss codes sought for a misspelling 
+ * are sought once, so the probationary part keeps those codes from 
+ * evicting the buckets of the common tokens, as they would from a simple 
+ * least recently used cache.
+ * </p>
+ */
+final class BucketCache {
+
+    private static final int SEGMENT_COUNT = 16;
+    // the smallest segment worth dividing the cache for
+    private static final int MINIMUM_SEGMENT_CAPACITY = 64;
+    // the proportion of each segment that is protected, in percent
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final Segment[] segments;
+    private final int capacity;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Creates a cache.
+     * @param capacity the maximum number of buckets held. The capacity is
+     * divided evenly between the segments.
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    BucketCache( int capacity ) {
+        if ( capacity < 1 ) {
+            throw new IllegalArgumentException(
+                    "Cache capacity must be a positive integer." );
+        }
+
+        this.capacity = capacity;
+        int segmentCount = Math.max( 1, 
+                Math.min( SEGMENT_COUNT, capacity / MINIMUM_SEGMENT_CAPACITY ) );
+        this.segments = new Segment[segmentCount];
+        for ( int i = 0; i < segmentCount; i++ ) {
+            // share out any remainder so the segments sum to the capacity
+            int segmentCapacity =
+                    capacity / segmentCount + ( i < capacity % segmentCount ? 1 : 0 );
+            this.segments[i] = new Segment( segmentCapacity );
+        }
+
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Retrieves the cached words with a code.
+     * @param code a phonetic code
+     * @return the cached words, or {@code null} if they are not cached
+     */
+    List<String> get( String code ) {
+        List<String> words = segmentFor( code ).get( code );
+        if ( words == null ) {
+            this.misses.increment();
+        }
+        else {
+            this.hits.increment();
+        }
+        return words;
+    }
+
+    /**
+     * Stores the words with a code on probation, evicting the least 
+     * recently used bucket on probation in the segment if necessary.
+     * @param code a phonetic code
+     * @param words the words with the code, which must not be modified
+     */
+    void put( String code, List<String> words ) {
+        segmentFor( code ).put( code, words );
+    }
+
+    /**
+     * Stores the words with a code on probation if there is room for them 
+     * in the segment, without evicting a bucket. Used to restore a saved 
+     * cache, so the statistics are not changed.
+     * @param code a phonetic code
+     * @param words the words with the code, which must not be modified
+     * @return {@code true} if the words were stored
+     */
+    boolean preload( String code, List<String> words ) {
+        return segmentFor( code ).preload( code, words );
+    }
+
+    /**
+     * The maximum number of buckets held.
+     * @return the capacity of the cache
+     */
+    int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Removes every bucket from the cache. The statistics are retained.
+     */
+    void clear() {
+        for ( Segment segment : this.segments ) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Passes each cached bucket to an action, the least recently used in 
+     * each segment first.
+     * @param action the action to be performed for each code and its words
+     */
+    void forEach( BiConsumer<String,List<String>> action ) {
+        for ( Segment segment : this.segments ) {
+            segment.forEach( action );
+        }
+    }
+
+    /**
+     * Takes a snapshot of the cache's statistics.
+     * @return the current statistics
+     */
+    BucketCacheStatistics statistics() {
+        int size = 0;
+        for ( Segment segment : this.segments ) {
+            size += segment.size();
+        }
+        return new BucketCacheStatistics(
+                this.hits.sum(),
+                this.misses.sum(),
+                this.evictions.sum(),
+                size,
+                this.capacity );
+    }
+
+    private Segment segmentFor( String code ) {
+        // spread the hash so that the low bits select the segment well
+        int hash = code.hashCode();
+        hash ^= ( hash >>> 16 );
+        return this.segments[( hash & 0x7fffffff ) % this.segments.length];
+    }
+
+    /**
+     * A segmented least recently used map guarded by its own lock.
+     */
+    private final class Segment {
+        private final int capacity;
+        private final int protectedCapacity;
+        // both maps are in access order, least recently used first
+        private final LinkedHashMap<String,List<String>> probation;
+        private final LinkedHashMap<String,List<String>> protectedBuckets;
+
+        private Segment( int segmentCapacity ) {
+            this.capacity = segmentCapacity;
+            this.protectedCapacity = segmentCapacity * PROTECTED_PERCENTAGE / 100;
+            this.probation = new LinkedHashMap<>( 
+                    segmentCapacity * 4 / 3 + 1, 0.75f, true );
+            this.protectedBuckets = new LinkedHashMap<>( 
+                    this.protectedCapacity * 4 / 3 + 1, 0.75f, true );
+        }
+
+        synchronized List<String> get( String code ) {
+            List<String> words = this.protectedBuckets.get( code );
+            if ( words == null ) {
+                words = this.probation.remove( code );
+                if ( words != null ) {
+                    promote( code, words );
+                }
+            }
+            return words;
+        }
+
+        synchronized void put( String code, List<String> words ) {
+            if ( this.protectedBuckets.containsKey( code ) 
+                    || this.probation.containsKey( code ) ) {
+                return;
+            }
+            this.probation.put( code, words );
+            trimProbation();
+        }
+
+        synchronized boolean preload( String code, List<String> words ) {
+            if ( size() >= this.capacity
+                    || this.protectedBuckets.containsKey( code ) 
+                    || this.probation.containsKey( code ) ) {
+                return false;
+            }
+            this.probation.put( code, words );
+            return true;
+        }
+
+        synchronized void clear() {
+            this.probation.clear();
+            this.protectedBuckets.clear();
+        }
+
+        synchronized int size() {
+            return this.probation.size() + this.protectedBuckets.size();
+        }
+
+        void forEach( BiConsumer<String,List<String>> action ) {
+            List<Map.Entry<String,List<String>>> entries;
+            synchronized ( this ) {
+                entries = new ArrayList<>( this.probation.entrySet() );
+                entries.addAll( this.protectedBuckets.entrySet() );
+            }
+            for ( Map.Entry<String,List<String>> entry : entries ) {
+                action.accept( entry.getKey(), entry.getValue() );
+            }
+        }
+
+        /**
+         * Moves a bucket used on probation to the protected part, demoting 
+         * the least recently used protected bucket if necessary.
+         */
+        private void promote( String code, List<String> words ) {
+            this.protectedBuckets.put( code, words );
+            if ( this.protectedBuckets.size() > this.protectedCapacity ) {
+                Map.Entry<String,List<String>> demoted = removeEldest( this.protectedBuckets );
+                this.probation.put( demoted.getKey(), demoted.getValue() );
+                trimProbation();
+            }
+        }
+
+        /**
+         * Evicts the least recently used buckets on probation while the 
+         * segment is over capacity. The probationary part may use whatever 
+         * capacity the protected part does not.
+         */
+        private void trimProbation() {
+            while ( this.probation.size() + this.protectedBuckets.size() > this.capacity ) {
+                removeEldest( this.probation );
+                evictions.increment();
+            }
+        }
+
+        private Map.Entry<String,List<String>> removeEldest( 
+                LinkedHashMap<String,List<String>> map ) {
+            Iterator<Map.Entry<String,List<String>>> iterator = map.entrySet().iterator();
+            Map.Entry<String,List<String>> eldest = iterator.next();
+            iterator.remove();
+            return eldest;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+/**
+ * A snapshot of the statistics of the cache of the words with each 
+ * phonetic code kept by a dictionary.
+ *
+ * @see CachedDichotomyDiskSpellingDictionary#cacheStatistics()
+ */
+public final class BucketCacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final int capacity;
+
+    BucketCacheStatistics(
+            long hitCount,
+            long missCount,
+            long evictionCount,
+            int size,
+            int capacity ) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.capacity = capacity;
+    }
+
+    /**
+     * The number of codes whose words were found in the cache.
+     * @return the number of cache hits
+     */
+    public long hitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * The number of codes whose words were not found in the cache.
+     * @return the number of cache misses
+     */
+    public long missCount() {
+        return this.missCount;
+    }
+
+    /**
+     * The proportion of codes whose words were found in the cache.
+     * @return a value between 0 and 1, or 0 if the cache has not been used
+     */
+    public double hitRate() {
+        long requests = this.hitCount + this.missCount;
+        return requests == 0 ? 0.0 : (double) this.hitCount / requests;
+    }
+
+    /**
+     * The number of buckets removed from the cache to make room for others.
+     * @return the number of evictions
+     */
+    public long evictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * The number of buckets held in the cache.
+     * @return the number of cached buckets
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * The maximum number of buckets the cache can hold.
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "hits: " + this.hitCount
+                + " misses: " + this.missCount
+                + " evictions: " + this.evictionCount
+                + " size: " + this.size + "/" + this.capacity;
+    }
+}
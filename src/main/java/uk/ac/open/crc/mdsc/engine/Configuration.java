@@ -86,6 +86,15 @@ public abstract class Configuration {
      */
     public static final String SPELL_THRESHOLD = "SPELL_THRESHOLD";
 
+    /**
+     * When no suggestions are found among the words with the same or 
+     * similar phonetic codes, search all the words in the dictionary for 
+     * those within the spell threshold. The search uses a trie of the 
+     * words, which is built when a dictionary is made read-only.
+     * (boolean)
+     */
+    public static final String SPELL_BOUNDED_SEARCH = "SPELL_BOUNDED_SEARCH";
+
     /**
      * words that are all upper case are not spell checked, example: "CIA".
      * (boolean)
@@ -21,13 +21,18 @@
 */
 package uk.ac.open.crc.mdsc.engine;
 
-import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +46,12 @@ import org.slf4j.LoggerFactory;
  * This implementation requires a special dictionary file, with "code*word"
  * lines sorted by code. It's using a dichotomy algorithm to search for words in
  * the dictionary
+ * <p>
+ * The file is read with positional reads, which do not move a shared file 
+ * pointer, so many threads may search the same dictionary at once. 
+ * {@linkplain MappedDichotomyDiskSpellingDictionary} searches the same 
+ * file format in a memory mapping of the file, and is much faster.
+ * </p>
  *
  * @author Damien Guillaume
  * @version 0.1
@@ -49,15 +60,22 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
 
     private static final Logger LOGGER = 
             LoggerFactory.getLogger( DichotomyDiskSpellingDictionary.class );
+    /**
+     * The length of the buffer in which a line is first read, which is 
+     * longer than most lines.
+     */
+    private static final int LINE_BUFFER_LENGTH = 256;
+
     /**
      * Holds the dictionary file for reading
      */
-    private RandomAccessFile dictionaryFile = null;
+    private final PositionalFile dictionaryFile;
 
     /**
-     * dictionary and phonetic file encoding
+     * dictionary file encoding; each byte is read as a character if no 
+     * encoding is specified
      */
-    private String encoding = null;
+    private final Charset charset;
 
     /**
      * Dictionary convenience Constructor.
@@ -71,14 +89,16 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
     public DichotomyDiskSpellingDictionary( File wordListFile )
             throws FileNotFoundException, IOException {
         super( (File) null );
-        this.dictionaryFile = new RandomAccessFile( wordListFile, "r" );
+        this.charset = StandardCharsets.ISO_8859_1;
+        this.dictionaryFile = new PositionalFile( wordListFile );
     }
 
     /**
      * Dictionary convenience Constructor.
      *
      * @param wordListFile The file containing the words list for the dictionary
-     * @param encoding Uses the character set encoding specified
+     * @param encoding Uses the character set encoding specified, or, if 
+     * {@code null}, reads each byte of the file as a character
      * @throws java.io.FileNotFoundException indicates problems locating the
      * words list file on the system
      * @throws java.io.IOException indicates problems reading the words list
@@ -89,8 +109,10 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
             String encoding )
             throws FileNotFoundException, IOException {
         super( (File) null );
-        this.encoding = encoding;
-        this.dictionaryFile = new RandomAccessFile( wordListFile, "r" );
+        this.charset = encoding == null 
+                ? StandardCharsets.ISO_8859_1 
+                : Charset.forName( encoding );
+        this.dictionaryFile = new PositionalFile( wordListFile );
     }
 
     /**
@@ -110,7 +132,8 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
             File phoneticFile )
             throws FileNotFoundException, IOException {
         super( phoneticFile );
-        this.dictionaryFile = new RandomAccessFile( wordListFile, "r" );
+        this.charset = StandardCharsets.ISO_8859_1;
+        this.dictionaryFile = new PositionalFile( wordListFile );
     }
 
     /**
@@ -120,7 +143,8 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
      * @param wordListFile The file containing the words list for the dictionary
      * @param phoneticFile The file to use for phonetic transformation of the
      * wordlist.
-     * @param encoding Uses the character set encoding specified
+     * @param encoding Uses the character set encoding specified, or, if 
+     * {@code null}, reads each byte of the file as a character
      * @throws java.io.FileNotFoundException indicates problems locating the
      * file on the system
      * @throws java.io.IOException indicates problems reading the words list
@@ -132,8 +156,10 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
             String encoding )
             throws FileNotFoundException, IOException {
         super( phoneticFile, encoding );
-        this.encoding = encoding;
-        this.dictionaryFile = new RandomAccessFile( wordListFile, "r" );
+        this.charset = encoding == null 
+                ? StandardCharsets.ISO_8859_1 
+                : Charset.forName( encoding );
+        this.dictionaryFile = new PositionalFile( wordListFile );
     }
 
     /**
@@ -159,33 +185,20 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
             long position1, 
             long position2 ) 
             throws IOException {
-        //System.out.println("dichoFind("+code+","+p1+","+p2+")");
         long positionMarker = (position1 + position2) / 2;
-        this.dictionaryFile.seek( positionMarker );
-        String line;
-        // SB: why is a line read and discarded?
-        if ( encoding == null ) {
-            line = this.dictionaryFile.readLine();
-        }
-        else {
-            line = dictionaryReadLine();
-        }
-        positionMarker = this.dictionaryFile.getFilePointer();
-        if ( this.encoding == null ) {
-            line = this.dictionaryFile.readLine();
-        }
-        else {
-            line = dictionaryReadLine();
-        }
-        long positionMarker2 = this.dictionaryFile.getFilePointer();
+        // the middle position is usually part way through a line, so the 
+        // rest of that line is skipped and the following line is compared
+        positionMarker = readLine( positionMarker ).next();
+        Line line = readLine( positionMarker );
+        long positionMarker2 = line.next();
         if ( positionMarker2 >= position2 ) {
             return (sequentialFind( code, position1, position2 ));
         }
-        int starDelimiterIndex = line.indexOf( '*' );
+        int starDelimiterIndex = line.text().indexOf( '*' );
         if ( starDelimiterIndex == -1 ) {
             throw new IOException( "bad format: no * !" );
         }
-        String testcode = line.substring( 0, starDelimiterIndex );
+        String testcode = line.text().substring( 0, starDelimiterIndex );
         int comparisonResult = code.compareTo( testcode );
         if ( comparisonResult < 0 ) {
             return (dichotomyFind( code, position1, positionMarker - 1 ));
@@ -196,11 +209,11 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
         else {
             List<String> wordList = 
                     dichotomyFind( code, position1, positionMarker - 1 );
-            List<String> l2 = 
-                    dichotomyFind( code, positionMarker2, position2 ); // SB: rename l2
-            String word = line.substring( starDelimiterIndex + 1 );
+            List<String> followingWords = 
+                    dichotomyFind( code, positionMarker2, position2 );
+            String word = line.text().substring( starDelimiterIndex + 1 );
             wordList.add( word );
-            wordList.addAll( l2 );
+            wordList.addAll( followingWords );
             return (wordList);
         }
     }
@@ -210,56 +223,81 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
             long position1, 
             long position2 ) 
             throws IOException {
-        //System.out.println("seqFind("+code+","+p1+","+p2+")");
         ArrayList<String> wordList = new ArrayList<>();
-        this.dictionaryFile.seek( position1 );
-        while ( this.dictionaryFile.getFilePointer() < position2 ) {
-            String line;
-            if ( encoding == null ) {
-                line = this.dictionaryFile.readLine();
+        long position = position1;
+        while ( position < position2 ) {
+            Line line = readLine( position );
+            if ( line.text() == null ) {
+                break;
             }
-            else {
-                line = dictionaryReadLine();
-            }
-            int starDelimiterIndex = line.indexOf( '*' );
+            position = line.next();
+            int starDelimiterIndex = line.text().indexOf( '*' );
             if ( starDelimiterIndex == -1 ) {
                 throw new IOException( "bad format: no * !" );
             }
-            if ( code.equals( line.substring( 0, starDelimiterIndex ) ) ) {
-                wordList.add( line.substring( starDelimiterIndex + 1 ) );
+            if ( code.equals( line.text().substring( 0, starDelimiterIndex ) ) ) {
+                wordList.add( line.text().substring( starDelimiterIndex + 1 ) );
             }
         }
         return wordList;
     }
 
-    // SB: surely there are better ways of specifying that a line
-    // should be read using a specific encoding?
     /**
-     * Read a line of dictFile with a specific encoding
+     * Reads the line starting at a position of the dictionary file. A line 
+     * is ended by "\n", "\r" or "\r\n", as {@code RandomAccessFile.readLine} 
+     * ends lines. The bytes are read with a positional read of the file, so 
+     * a line is usually read with a single system call, and concurrent 
+     * searches do not disturb one another.
      */
-    private String dictionaryReadLine() throws IOException {
-        final int maximumLineLength = 255;
-        byte b = 0;
-        byte[] buffer = new byte[maximumLineLength];
-        int bytesRead = 0;
-        try {
-            for ( ; b != '\n' && b != '\r' && bytesRead < maximumLineLength - 1; bytesRead++ ) {
-                b = this.dictionaryFile.readByte();
-                buffer[bytesRead] = b;
+    private Line readLine( long position ) throws IOException {
+        byte[] bytes = new byte[LINE_BUFFER_LENGTH];
+        int available = 0;
+        int length = 0;
+        while ( true ) {
+            if ( length == available ) {
+                if ( available == bytes.length ) {
+                    bytes = Arrays.copyOf( bytes, bytes.length * 2 );
+                }
+                int count = this.dictionaryFile.read( 
+                        ByteBuffer.wrap( bytes, available, bytes.length - available ), 
+                        position + available );
+                if ( count == 0 ) {
+                    // the end of the file
+                    String text = length == 0 
+                            ? null 
+                            : new String( bytes, 0, length, this.charset );
+                    return new Line( text, position + length );
+                }
+                available += count;
             }
+            byte b = bytes[length];
+            if ( b == '\n' || b == '\r' ) {
+                long next = position + length + 1;
+                if ( b == '\r' && isLineFeed( bytes, length + 1, available, next ) ) {
+                    next++;
+                }
+                return new Line( new String( bytes, 0, length, this.charset ), next );
+            }
+            length++;
         }
-        catch ( EOFException ex ) {
-            // SB: This happens if EOF is encountered before the buffer is filled.
-            // SB: and the exception simply does not need to be reported.
-            // SB: A neater solution would be better.
-        }
-        
-        if ( bytesRead == 0 ) {
-            return ("");
-        }
-        else {
-            return new String( buffer, 0, bytesRead - 1, encoding );
+    }
+
+    /**
+     * Indicates whether the byte following a carriage return is a line 
+     * feed, reading it from the file if it has not been read.
+     */
+    private boolean isLineFeed( 
+            byte[] bytes, 
+            int index, 
+            int available, 
+            long position ) 
+            throws IOException {
+        if ( index < available ) {
+            return bytes[index] == '\n';
         }
+        ByteBuffer next = ByteBuffer.allocate( 1 );
+        return this.dictionaryFile.read( next, position ) == 1 
+                && next.get( 0 ) == '\n';
     }
 
     /**
@@ -272,7 +310,7 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
     public List<String> getWords( String code ) {
         List<String> list;
         try {
-            list = dichotomyFind( code, 0, dictionaryFile.length() - 1 );
+            list = dichotomyFind( code, 0, this.dictionaryFile.size() - 1 );
         }
         catch ( IOException e ) {
             LOGGER.error( "Unable to read from file: {}", e.getMessage());
@@ -281,4 +319,139 @@ public class DichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
         return list;
     }
 
+    /**
+     * Returns a list of the words that have any of the given phonetic codes.
+     * The codes are sought in the order of the file, and each search starts 
+     * from the end of the lines matched by the previous code, so the codes 
+     * are found in a single pass over the file.
+     *
+     * @param codes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    @Override
+    protected List<String> getWords( Collection<String> codes ) {
+        ArrayList<String> words = new ArrayList<>();
+        try {
+            readWords( new ArrayList<>( new TreeSet<>( codes ) ), 
+                    ( code, bucket ) -> words.addAll( bucket ) );
+        }
+        catch ( IOException e ) {
+            LOGGER.error( "Unable to read from file: {}", e.getMessage());
+        }
+        return words;
+    }
+
+    /**
+     * Reads the words with each of a list of phonetic codes from the file 
+     * in a single pass, and passes the words of each code to an action as 
+     * they are found. Codes without words are passed an empty list.
+     *
+     * @param sortedCodes distinct phonetic codes in ascending order
+     * @param action the action to be performed for each code and its words
+     * @throws java.io.IOException if the file cannot be read
+     */
+    protected void readWords( 
+            List<String> sortedCodes, 
+            BiConsumer<String,List<String>> action ) 
+            throws IOException {
+        long end = this.dictionaryFile.size();
+        long position = 0;
+        for ( String code : sortedCodes ) {
+            List<String> words = new ArrayList<>();
+            position = addWords( code, position, end, words );
+            action.accept( code, words );
+        }
+    }
+
+    /**
+     * Adds the words of the lines with a code to a list, searching from 
+     * the line starting at {@code position1}. Every line before that 
+     * position must have a lesser code.
+     * @return the position of the first line with a greater code
+     */
+    private long addWords( 
+            String code, 
+            long position1, 
+            long position2, 
+            List<String> words ) 
+            throws IOException {
+        long position = lowerBound( code, position1, position2 );
+        while ( position < position2 ) {
+            Line line = readLine( position );
+            if ( line.text() == null ) {
+                break;
+            }
+            int starDelimiterIndex = starDelimiterIndex( line );
+            int comparisonResult = 
+                    code.compareTo( line.text().substring( 0, starDelimiterIndex ) );
+            if ( comparisonResult < 0 ) {
+                break;
+            }
+            if ( comparisonResult == 0 ) {
+                words.add( line.text().substring( starDelimiterIndex + 1 ) );
+            }
+            position = line.next();
+        }
+        return position;
+    }
+
+    /**
+     * Binary search between the line starting at {@code position1} and 
+     * {@code position2} for a line close to, and not after, the first line 
+     * whose code is not less than the given code. 
+     * @return the position of the start of a line
+     */
+    private long lowerBound( String code, long position1, long position2 ) 
+            throws IOException {
+        while ( true ) {
+            long positionMarker = 
+                    readLine( (position1 + position2) / 2 ).next();
+            if ( positionMarker >= position2 ) {
+                // only a line or two remain, and are read in sequence
+                return position1;
+            }
+            Line line = readLine( positionMarker );
+            String testcode = 
+                    line.text().substring( 0, starDelimiterIndex( line ) );
+            if ( code.compareTo( testcode ) > 0 ) {
+                position1 = line.next();
+            }
+            else {
+                position2 = positionMarker;
+            }
+        }
+    }
+
+    private static int starDelimiterIndex( Line line ) throws IOException {
+        int starDelimiterIndex = line.text().indexOf( '*' );
+        if ( starDelimiterIndex == -1 ) {
+            throw new IOException( "bad format: no * !" );
+        }
+        return starDelimiterIndex;
+    }
+
+    /**
+     * A line of the dictionary file and the position of the line that 
+     * follows it.
+     */
+    private static final class Line {
+        private final String text;
+        private final long next;
+
+        private Line( String text, long next ) {
+            this.text = text;
+            this.next = next;
+        }
+
+        /**
+         * The text of the line, or {@code null} at the end of the file.
+         */
+        String text() {
+            return this.text;
+        }
+
+        long next() {
+            return this.next;
+        }
+    }
 }
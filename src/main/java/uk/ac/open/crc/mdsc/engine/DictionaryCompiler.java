@@ -0,0 +1,174 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the phonetic index of a {@linkplain HashedSpellingDictionary}
+ * into the binary file format read by {@linkplain MappedSpellingDictionary}.
+ * The compiler is intended to be run when a project is built, so that
+ * applications can open the compiled dictionary instead of loading a word
+ * list each time they start:
+ * <pre>
+ * java uk.ac.open.crc.mdsc.engine.DictionaryCompiler [-n] wordlist output
+ * </pre>
+ * where {@code -n} normalises the words to lower case.
+ */
+public final class DictionaryCompiler {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger( DictionaryCompiler.class );
+
+    private DictionaryCompiler() {
+        // static methods only
+    }
+
+    /**
+     * Writes the phonetic index of a dictionary to a compiled dictionary file.
+     *
+     * @param dictionary a dictionary
+     * @param output the file to be written
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if a word or code is too long to
+     * be stored
+     */
+    public static void compile( HashedSpellingDictionary dictionary, File output )
+            throws IOException {
+        Map<String,? extends List<String>> index = dictionary.phoneticIndex();
+
+        // encode everything first so the record offsets can be calculated
+        List<EncodedCode> codes = new ArrayList<>( index.size() );
+        index.keySet().stream().forEach( (code) -> {
+            codes.add( new EncodedCode( code ) );
+        } );
+        codes.sort( (a, b) -> compareUnsigned( a.bytes, b.bytes ) );
+
+        List<byte[][]> buckets = new ArrayList<>( codes.size() );
+        int[] offsets = new int[codes.size()];
+        long position = MappedSpellingDictionary.HEADER_LENGTH + 4L * codes.size();
+        int wordCount = 0;
+        for ( int i = 0; i < codes.size(); i++ ) {
+            EncodedCode code = codes.get( i );
+            List<String> words = index.get( code.text );
+            byte[][] bucket = new byte[words.size()][];
+            offsets[i] = (int) position;
+            position += 2 + code.bytes.length + 4;
+            for ( int j = 0; j < bucket.length; j++ ) {
+                bucket[j] = encode( words.get( j ) );
+                position += 2 + bucket[j].length;
+            }
+            if ( position > Integer.MAX_VALUE ) {
+                throw new IllegalArgumentException(
+                        "Dictionary is too large to be compiled" );
+            }
+            wordCount += bucket.length;
+            buckets.add( bucket );
+        }
+
+        try ( DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream( new FileOutputStream( output ) ) ) ) {
+            out.writeInt( MappedSpellingDictionary.MAGIC );
+            out.writeInt( MappedSpellingDictionary.VERSION );
+            out.writeInt( codes.size() );
+            out.writeInt( wordCount );
+            for ( int offset : offsets ) {
+                out.writeInt( offset );
+            }
+            for ( int i = 0; i < codes.size(); i++ ) {
+                out.writeShort( codes.get( i ).bytes.length );
+                out.write( codes.get( i ).bytes );
+                out.writeInt( buckets.get( i ).length );
+                for ( byte[] word : buckets.get( i ) ) {
+                    out.writeShort( word.length );
+                    out.write( word );
+                }
+            }
+        }
+
+        LOGGER.debug( "Compiled {} words with {} phonetic codes to {}",
+                wordCount, codes.size(), output );
+    }
+
+    /**
+     * Compiles a word list from the command line.
+     *
+     * @param args {@code [-n] wordlist output}
+     * @throws IOException if the word list cannot be read or the output
+     * cannot be written
+     */
+    public static void main( String[] args ) throws IOException {
+        boolean isNormalised = args.length == 3 && "-n".equals( args[0] );
+        if ( args.length != ( isNormalised ? 3 : 2 ) ) {
+            System.err.println( "usage: DictionaryCompiler [-n] wordlist output" );
+            System.exit( 1 );
+        }
+        int first = isNormalised ? 1 : 0;
+
+        HashedSpellingDictionary dictionary;
+        try ( InputStreamReader reader = new InputStreamReader(
+                new FileInputStream( args[first] ), StandardCharsets.UTF_8 ) ) {
+            dictionary = new HashedSpellingDictionary( reader, isNormalised );
+        }
+        compile( dictionary, new File( args[first + 1] ) );
+    }
+
+    private static byte[] encode( String text ) {
+        byte[] bytes = text.getBytes( StandardCharsets.UTF_8 );
+        if ( bytes.length > Short.MAX_VALUE ) {
+            throw new IllegalArgumentException(
+                    "Too long to be compiled: " + text.substring( 0, 20 ) + "..." );
+        }
+        return bytes;
+    }
+
+    private static int compareUnsigned( byte[] a, byte[] b ) {
+        int length = Math.min( a.length, b.length );
+        for ( int i = 0; i < length; i++ ) {
+            int difference = ( a[i] & 0xff ) - ( b[i] & 0xff );
+            if ( difference != 0 ) {
+                return difference;
+            }
+        }
+        return a.length - b.length;
+    }
+
+    private static final class EncodedCode {
+        private final String text;
+        private final byte[] bytes;
+
+        private EncodedCode( String text ) {
+            this.text = text;
+            this.bytes = encode( text );
+        }
+    }
+}
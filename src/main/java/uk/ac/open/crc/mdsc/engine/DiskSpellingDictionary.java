@@ -25,6 +25,9 @@ package uk.ac.open.crc.mdsc.engine;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -32,12 +35,20 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,9 +59,10 @@ import org.slf4j.LoggerFactory;
  * A future version of this class that implements some caching strategies might
  * be a good idea in the future, if there's any demand for it.
  * <p>
- * This class makes use of the "classic" Java IO library (java.io). However, it
- * could probably benefit from the new IO APIs (java.nio), or those introduced
- * in Java 8.
+ * The database file is read with positional reads, which do not move a 
+ * shared file pointer, so many threads may query the same dictionary at 
+ * once. The files are built with the "classic" Java IO library (java.io).
+ * </p>
  *
  * @author Ben Galbraith (ben@galbraiths.org)
  * @version 0.1
@@ -67,13 +79,25 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
     private final static String FILE_DB = "words.db";
     private final static String FILE_INDEX = "words.idx";
 
+    /* identifies a binary index file: the ASCII characters 'MDSI' */
+    private final static int INDEX_MAGIC = 0x4D445349;
+    private final static int INDEX_VERSION = 1;
+    private final static int INDEX_HEADER_LENGTH = 16;
+
     /* maximum number of words an index entry can represent */
     private final static int MAXIMUM_INDEX_SIZE = 200;
 
+    /* the number of words sorted in memory for each run of the build */
+    private final static int DEFAULT_RUN_SIZE = 100_000;
+
     private final File baseDirectory;
     private final File wordListFile;
     private final File databaseDirectory;
-    private Map<String,Integer[]> index;
+    /* the entries of the index file, sorted by code */
+    private ByteBuffer index;
+    private int indexEntryCount;
+    private int indexCodeWidth;
+    private final PositionalFile database;
     /**
      * A flag indicating if the initial preparation or loading of the on disk
      * dictionary is complete.
@@ -82,11 +106,7 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
      */
     protected boolean ready;
 
-    /**
-     * Used at time of creation of index to speed up determining the number of
-     * words per index entry.
-     */
-    private List<String> indexCodeCache = null;
+    private final int runSize;
 
     /**
      * Construct a spell dictionary on disk. The spell dictionary is created
@@ -99,7 +119,7 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
      * <li><code>contents</code> list the words files used for spelling.</li>
      * <li><code>words.db</code> the content of words files organized as a
      * <em>database</em> of words.</li>
-     * <li><code>words.idx</code> an index file to the <code>words.db</code>
+     * <li><code>words.idx</code> a binary index file to the <code>words.db</code>
      * file content.</li>
      * </ul>
      * The <code>contents</code> file has a list of <code>filename, size</code>
@@ -113,6 +133,16 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
      * and <code>words.idx</code> files.
      * </p>
      * <p>
+     * The <code>words.idx</code> file is a sorted array of fixed width 
+     * entries, each the UTF-8 bytes of an index code padded with zeros to 
+     * the width of the longest code, followed by the position and length 
+     * of the code's block of <code>words.db</code>. The entries are 
+     * preceded by a header of four big-endian integers: the magic number 
+     * 'MDSI', the format version, the number of entries and the width of 
+     * the codes. A database with an index in any other format, such as the 
+     * text format of earlier versions, is rebuilt.
+     * </p>
+     * <p>
      * NB: the constructor may take a long time to run while it constructs or loads
      * the dictionaries. The caller should run this constructor in a separate
      * thread to avoid the calling thread being blocked.
@@ -132,8 +162,18 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
      */
     public DiskSpellingDictionary( File baseDirectory, File phoneticFile ) 
             throws FileNotFoundException, IOException {
+        this( baseDirectory, phoneticFile, DEFAULT_RUN_SIZE );
+    }
+
+    /**
+     * Construct a spell dictionary on disk, sorting runs of the given 
+     * number of words in memory if the database is built.
+     */
+    DiskSpellingDictionary( File baseDirectory, File phoneticFile, int runSize ) 
+            throws FileNotFoundException, IOException {
         super( phoneticFile );
         this.ready = false;
+        this.runSize = runSize;
 
         this.baseDirectory = baseDirectory;
         this.wordListFile = new File( baseDirectory, DIRECTORY_WORDS );
@@ -156,31 +196,55 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
         if ( newDictionaryFiles() ) {
             buildNewDictionaryDatabase();
             loadIndex();
-            ready = true;
         }
         else {
             loadIndex();
-            ready = true;
         }
+        this.database = new PositionalFile( new File( databaseDirectory, FILE_DB ) );
+        ready = true;
     }
 
     /**
      * Builds the file words database file and the contents file for the on disk
      * dictionary.
+     * <p>
+     * The words are sorted by phonetic code with an external merge sort: 
+     * runs of words are sorted in memory and written to temporary files, 
+     * which are merged as the database is written. The words are then 
+     * assigned to the blocks of the index in the same pass, so the memory 
+     * used depends on the length of the runs, not the number of words. 
+     * The rate at which words were indexed is logged.
+     * </p>
      *
      * @throws java.io.FileNotFoundException if the files cannot be located
      */
     protected final void buildNewDictionaryDatabase() 
             throws FileNotFoundException, IOException {
-        /* combine all dictionary files into one sorted file */
-        File sortedFile = buildSortedFile();
+        long start = System.nanoTime();
+
+        /* sort runs of the words in the dictionary files by code */
+        List<File> runs = buildSortedRuns();
 
-        /* create the db for the sorted file */
-        buildCodeDatabase( sortedFile );
-        sortedFile.delete();
+        /* create the db by merging the runs */
+        int wordCount;
+        try {
+            wordCount = buildCodeDatabase( runs );
+        }
+        finally {
+            for ( File run : runs ) {
+                run.delete();
+            }
+        }
 
         /* build contents file */
         buildContentsFile();
+
+        long milliseconds = Math.max( 1, ( System.nanoTime() - start ) / 1_000_000 );
+        LOGGER.info( "Indexed {} words from {} runs in {} ms ({} words/s)", 
+                wordCount, 
+                runs.size(), 
+                milliseconds, 
+                wordCount * 1000L / milliseconds );
     }
 
     /**
@@ -206,20 +270,13 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
 
         Location location = getLocationFor( code );
         if ( location != null ) {
-            try (InputStream input = 
-                    new FileInputStream( new File( databaseDirectory, FILE_DB ) )) {
-                input.skip( location.startIndex() );
+            try {
                 byte[] bytes = new byte[location.length()];
-                input.read( bytes, 0, location.length() );
-
-                String data = new String( bytes );
-                String[] lines = data.split( "\\R" );  // SB: any linebreak sequence
-                for ( String line : lines ) { 
-                    String[] s = line.split( "," );
-                    if ( s[0].equals( code ) ) {
-                        words.add( s[1] );
-                    }
-                }
+                this.database.readFully( bytes, location.startIndex() );
+                addWords( 
+                        bytes, 
+                        Collections.singletonList( code.getBytes( StandardCharsets.UTF_8 ) ), 
+                        words );
             }
             catch ( IOException e ) {
                 LOGGER.error( 
@@ -233,6 +290,50 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
         return words;
     }
 
+    /**
+     * Returns a list of the words that have any of the given phonetic codes.
+     * The codes are grouped by the block of the database file that holds 
+     * their words, and each block is read once, in the order of the file.
+     *
+     * @param codes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    @Override
+    protected List<String> getWords( Collection<String> codes ) {
+        ArrayList<String> words = new ArrayList<>();
+
+        TreeMap<Integer,CodeBlock> blocks = new TreeMap<>();
+        for ( String code : codes ) {
+            Location location = getLocationFor( code );
+            if ( location != null ) {
+                blocks.computeIfAbsent( 
+                        location.startIndex(), 
+                        (start) -> new CodeBlock( location ) ).add( code );
+            }
+        }
+        if ( blocks.isEmpty() ) {
+            return words;
+        }
+
+        try {
+            for ( CodeBlock block : blocks.values() ) {
+                Location location = block.location();
+                byte[] bytes = new byte[location.length()];
+                this.database.readFully( bytes, location.startIndex() );
+                addWords( bytes, block.codes(), words );
+            }
+        }
+        catch ( IOException e ) {
+            LOGGER.error( 
+                    "Unable to access file at : {}" + FILE_DB + "{}{}", 
+                    this.databaseDirectory, 
+                    System.lineSeparator(), 
+                    e.getMessage());
+        }
+
+        return words;
+    }
+
     /**
      * Indicates if the initial preparation or loading of the on disk dictionary
      * is complete.
@@ -243,7 +344,66 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
         return ready;
     }
 
+    /**
+     * Adds the words of the lines of a block of the database file that 
+     * have any of the given codes to a list. The lines are compared in 
+     * place, and only the words of matching lines are decoded.
+     *
+     * @param block the bytes of a block of "code,word" lines
+     * @param codes the UTF-8 bytes of the codes sought
+     * @param words the list to which the words are added
+     */
+    private static void addWords( 
+            byte[] block, 
+            Collection<byte[]> codes, 
+            List<String> words ) {
+        int start = 0;
+        while ( start < block.length ) {
+            int end = start;
+            int comma = -1;
+            while ( end < block.length && block[end] != '\n' && block[end] != '\r' ) {
+                if ( comma < 0 && block[end] == ',' ) {
+                    comma = end;
+                }
+                end++;
+            }
+            if ( comma >= 0 && matchesAny( block, start, comma, codes ) ) {
+                words.add( new String( 
+                        block, 
+                        comma + 1, 
+                        end - comma - 1, 
+                        StandardCharsets.UTF_8 ) );
+            }
+            start = end + 1;
+        }
+    }
+
+    private static boolean matchesAny( 
+            byte[] block, 
+            int start, 
+            int end, 
+            Collection<byte[]> codes ) {
+        for ( byte[] code : codes ) {
+            if ( code.length == end - start ) {
+                int i = 0;
+                while ( i < code.length && code[i] == block[start + i] ) {
+                    i++;
+                }
+                if ( i == code.length ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private boolean newDictionaryFiles() throws FileNotFoundException, IOException {
+        if ( !hasCurrentIndex() ) {
+            LOGGER.info( "Rebuilding the dictionary database in {}", 
+                    this.databaseDirectory );
+            return true;
+        }
+
         /* load in contents file, which indicates the files and sizes of the last db build */
         List<FileSize> contents = new ArrayList<>();
         File contentsFile = new File( databaseDirectory, FILE_CONTENTS );
@@ -292,118 +452,165 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
         return changed;
     }
 
-    // SB: notes made by original developers date from 2005 at the latest.
-    // SB: Most users in 2014 have a large amount of RAM and TB+ drives, so the 
-    // SB: possibility of running out of RAM or disk space are less likely.
-    // SB: FIXME : tidy up exception handling & add logging
-    private File buildSortedFile() throws FileNotFoundException, IOException {
-        List<String> wordList = new ArrayList<>();
+    /**
+     * Indicates whether the index file exists and is in the current binary 
+     * format.
+     */
+    private boolean hasCurrentIndex() throws IOException {
+        File indexFile = new File( this.databaseDirectory, FILE_INDEX );
+        if ( !indexFile.exists() || indexFile.length() < INDEX_HEADER_LENGTH ) {
+            return false;
+        }
+        try ( DataInputStream in = 
+                new DataInputStream( new FileInputStream( indexFile ) ) ) {
+            return in.readInt() == INDEX_MAGIC && in.readInt() == INDEX_VERSION;
+        }
+    }
 
-        /*
-         * read every single word into the list. eeek. if this causes problems,
-         * we may wish to explore disk-based sorting or more efficient memory-based storage
-         */
-        File[] wordFiles = wordListFile.listFiles();
-        for ( File wordFile : wordFiles ) { 
-            try (BufferedReader br = 
-                    new BufferedReader( new FileReader( wordFile ) ) ) {
-                String word;
-                while ( (word = br.readLine()) != null ) {
-                    if ( !word.equals( "" ) ) {
-                        wordList.add( word.trim() );
+    /**
+     * Reads the words in the word list files, and writes runs of words 
+     * sorted by code to temporary files.
+     *
+     * @return the files of the runs
+     */
+    private List<File> buildSortedRuns() throws FileNotFoundException, IOException {
+        List<File> runs = new ArrayList<>();
+        List<CodeWord> run = new ArrayList<>();
+        try {
+            File[] wordFiles = wordListFile.listFiles();
+            for ( File wordFile : wordFiles ) { 
+                try (BufferedReader br = 
+                        new BufferedReader( new FileReader( wordFile ) ) ) {
+                    String word;
+                    while ( (word = br.readLine()) != null ) {
+                        word = word.trim();
+                        if ( !word.isEmpty() ) {
+                            run.add( new CodeWord( this.getPhoneticCode( word ), word ) );
+                            if ( run.size() == this.runSize ) {
+                                runs.add( writeRun( run ) );
+                                run.clear();
+                            }
+                        }
                     }
                 }
             }
+            if ( !run.isEmpty() || runs.isEmpty() ) {
+                runs.add( writeRun( run ) );
+            }
         }
-
-        Collections.sort( wordList );
-
-        // FIXME - error handling for running out of disk space would be nice.
-        File file;
-        try {
-            file = File.createTempFile( "mdsc", "sorted" );
-        } 
         catch ( IOException e ) {
-            // log
             LOGGER.error( e.getMessage() );
-            // rethrow
+            for ( File file : runs ) {
+                file.delete();
+            }
             throw ( e );
         }
-        
-        try ( BufferedWriter writer = 
-                new BufferedWriter( new FileWriter( file ) ) ) {
-            String previousWord = null;
-            for ( String word : wordList ) { 
-                if ( previousWord == null || !previousWord.equals( word ) ) {
-                    writer.write( word );
-                    writer.newLine();
-                }
-                previousWord = word;
+        return runs;
+    }
+
+    /**
+     * Sorts a run of words and writes it to a temporary file as 
+     * "code,word" lines.
+     */
+    private static File writeRun( List<CodeWord> run ) throws IOException {
+        Collections.sort( run );
+        File file = File.createTempFile( "mdsc", ".run" );
+        try ( BufferedWriter writer = new BufferedWriter( new OutputStreamWriter( 
+                new FileOutputStream( file ), StandardCharsets.UTF_8 ) ) ) {
+            for ( CodeWord codeWord : run ) {
+                writer.write( codeWord.getCode() );
+                writer.write( ',' );
+                writer.write( codeWord.getWord() );
+                writer.write( '\n' );
             }
         }
-
+        catch ( IOException e ) {
+            file.delete();
+            throw ( e );
+        }
         return file;
     }
 
-    private void buildCodeDatabase( File sortedWords ) 
+    /**
+     * Merges the sorted runs into the database file, writing each word 
+     * once, and writes the index of the database's blocks.
+     *
+     * @return the number of words in the database
+     */
+    private int buildCodeDatabase( List<File> runs ) 
             throws FileNotFoundException, IOException {
-        List<CodeWord> codeWordList = new ArrayList<>();
-
-        try ( BufferedReader reader = 
-                new BufferedReader( new FileReader( sortedWords ) ) ) {
-            String word;
-            while ( (word = reader.readLine()) != null ) {
-                codeWordList.add( new CodeWord( this.getPhoneticCode( word ), word ) );
-            }
-        }
-
-        Collections.sort( codeWordList );
-
         List<IndexedCode> codeIndex = new ArrayList<>();
+        int wordCount = 0;
 
-        try ( BufferedOutputStream out = 
-                new BufferedOutputStream( new FileOutputStream( new File( databaseDirectory, FILE_DB ) ) ) ) {
+        try ( MergedRuns merged = new MergedRuns( runs );
+                BufferedOutputStream out = 
+                        new BufferedOutputStream( new FileOutputStream( new File( databaseDirectory, FILE_DB ) ) ) ) {
+            IndexCodes indexCodes = new IndexCodes( merged );
             String currentCode = null;
-            int currentPosition = 0;
+            long currentPosition = 0;
             int currentLength = 0;
-            for ( CodeWord codeWord : codeWordList ) {
-                String thisCode = codeWord.getCode();
-    //            if (thisCode.length() > 3) thisCode = thisCode.substring(0, 3);
-                thisCode = getIndexCode( thisCode, codeWordList );
+            CodeWord codeWord;
+            while ( (codeWord = indexCodes.next()) != null ) {
+                String thisCode = indexCodes.indexCode();
                 String toWrite = codeWord.getCode() + "," + codeWord.getWord() + "\n";
-                byte[] bytes = toWrite.getBytes();
+                byte[] bytes = toWrite.getBytes( StandardCharsets.UTF_8 );
 
-                if ( currentCode == null ) {
-                    currentCode = thisCode;
-                }
-                if ( !currentCode.equals( thisCode ) ) {
-                    codeIndex.add( new IndexedCode( currentCode, currentPosition, currentLength) );
+                if ( currentCode != null && !currentCode.equals( thisCode ) ) {
+                    codeIndex.add( new IndexedCode( currentCode, (int) currentPosition, currentLength ) );
                     currentPosition += currentLength;
-                    currentLength = bytes.length;
-                    currentCode = thisCode;
+                    currentLength = 0;
                 }
-                else {
-                    currentLength += bytes.length;
+                currentCode = thisCode;
+                currentLength += bytes.length;
+                if ( currentPosition + currentLength > Integer.MAX_VALUE ) {
+                    throw new IOException( "The dictionary database is larger than 2GB" );
                 }
                 out.write( bytes );
+                wordCount++;
             }
             
             // Output the last iteration
-            if ( currentCode != null && currentPosition != 0 && currentLength != 0 ) {
-                codeIndex.add( new IndexedCode( currentCode, currentPosition, currentLength ) );
+            if ( currentCode != null ) {
+                codeIndex.add( new IndexedCode( currentCode, (int) currentPosition, currentLength ) );
             }
         }
 
+        writeIndex( codeIndex );
+        return wordCount;
+    }
 
-        try ( BufferedWriter writer = 
-                new BufferedWriter( new FileWriter( new File( this.databaseDirectory, FILE_INDEX ) ) ) ) {
-            for ( IndexedCode indexedCode : codeIndex ) {
-                writer.write( indexedCode.code() );
-                writer.write( "," );
-                writer.write( indexedCode.position() );
-                writer.write( "," );
-                writer.write( indexedCode.length() );
-                writer.newLine();
+    /**
+     * Writes the index file, with the entries sorted by the unsigned values 
+     * of the bytes of their codes.
+     */
+    private void writeIndex( List<IndexedCode> codeIndex ) throws IOException {
+        List<byte[]> codes = new ArrayList<>( codeIndex.size() );
+        int width = 0;
+        for ( IndexedCode indexedCode : codeIndex ) {
+            byte[] code = indexedCode.code().getBytes( StandardCharsets.UTF_8 );
+            codes.add( code );
+            width = Math.max( width, code.length );
+        }
+        Integer[] order = new Integer[codeIndex.size()];
+        for ( int i = 0; i < order.length; i++ ) {
+            order[i] = i;
+        }
+        Arrays.sort( order, 
+                (a, b) -> compareUnsigned( codes.get( a ), codes.get( a ).length, codes.get( b ) ) );
+
+        try ( DataOutputStream out = new DataOutputStream( 
+                new BufferedOutputStream( 
+                        new FileOutputStream( new File( this.databaseDirectory, FILE_INDEX ) ) ) ) ) {
+            out.writeInt( INDEX_MAGIC );
+            out.writeInt( INDEX_VERSION );
+            out.writeInt( codeIndex.size() );
+            out.writeInt( width );
+            for ( int i : order ) {
+                byte[] code = codes.get( i );
+                out.write( code );
+                out.write( new byte[width - code.length] );
+                out.writeInt( codeIndex.get( i ).position() );
+                out.writeInt( codeIndex.get( i ).length() );
             }
         }
     }
@@ -437,18 +644,17 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
      * @throws java.io.IOException if a problem is encountered reading the index file.
      */
     protected final void loadIndex() throws IOException {
-        this.index = new HashMap<>();
         File indexFile = new File( databaseDirectory, FILE_INDEX );
-        try ( BufferedReader reader = 
-                new BufferedReader( new FileReader( indexFile ) ) ) {
-            String line;
-            while ( (line = reader.readLine()) != null ) {
-                String[] fields = line.split( "," );
-                this.index.put( 
-                        fields[0], 
-                        new Integer[]{Integer.parseInt( fields[1] ), 
-                            Integer.parseInt( fields[2] )} );
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes( indexFile.toPath() ) );
+            if ( buffer.limit() < INDEX_HEADER_LENGTH 
+                    || buffer.getInt( 0 ) != INDEX_MAGIC 
+                    || buffer.getInt( 4 ) != INDEX_VERSION ) {
+                throw new IOException( indexFile + " is not a binary index file" );
             }
+            this.indexEntryCount = buffer.getInt( 8 );
+            this.indexCodeWidth = buffer.getInt( 12 );
+            this.index = buffer;
         }
         catch ( IOException e ) {
             // log it
@@ -458,93 +664,111 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
         }
     }
 
+    /**
+     * Finds the block of the database file that holds the words with a 
+     * code, which is indexed by the longest prefix of the code in the index.
+     */
     private Location getLocationFor( String code ) {
-        while ( code.length() > 0 ) {
-            Integer[] positionAndLength = this.index.get( code );
-            if ( positionAndLength == null ) {
-                code = code.substring( 0, code.length() - 1 );
-            }
-            else {
-                return new Location( positionAndLength[0], positionAndLength[1] );
+        byte[] bytes = code.getBytes( StandardCharsets.UTF_8 );
+        for ( int length = Math.min( bytes.length, this.indexCodeWidth ); 
+                length > 0; 
+                length-- ) {
+            int entry = findIndexEntry( bytes, length );
+            if ( entry >= 0 ) {
+                int offset = entryOffset( entry ) + this.indexCodeWidth;
+                return new Location( 
+                        this.index.getInt( offset ), 
+                        this.index.getInt( offset + 4 ) );
             }
         }
         return null;
     }
 
-    
-    // SB: Specifying the generic type CodeWord for the list is incompatible 
-    // SB: with the call to Collections.binarySearch() according to NetBeans.
-    // SB: don't see it myself, but ...
-    // SB: see how this works in production (if this class is used in production).
-    private String getIndexCode( String code, List codeWords ) {
-        if ( this.indexCodeCache == null ) {
-            this.indexCodeCache = new ArrayList<>();
-        }
-
-        if ( code.length() <= 1 ) {
-            return code;
+    /**
+     * Binary search of the index for the entry whose code is the first 
+     * {@code length} bytes of a code.
+     * @return the index of the entry, or -1 if there is none
+     */
+    private int findIndexEntry( byte[] code, int length ) {
+        int low = 0;
+        int high = this.indexEntryCount - 1;
+        while ( low <= high ) {
+            int middle = ( low + high ) >>> 1;
+            int comparison = compareWithEntry( code, length, middle );
+            if ( comparison > 0 ) {
+                low = middle + 1;
+            }
+            else if ( comparison < 0 ) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
         }
-        
-        for ( String c : this.indexCodeCache ) {
-            if ( code.startsWith( c ) ) {
-                return c;
-            }
-        }
-
-        int foundSize = -1;
-        boolean cacheable = false;
-        for ( int z = 1; z < code.length(); z++ ) {
-            String thisCode = code.substring( 0, z );
-            int count = 0;
-            for ( int i = 0; i < codeWords.size(); ) {
-                if ( i == 0 ) {
-                    i = Collections.binarySearch( codeWords, new CodeWord( thisCode, "" ) );
-                    if ( i < 0 ) {
-                        i = 0;
-                    }
-                }
+        return -1;
+    }
 
-                CodeWord cw = (CodeWord)codeWords.get( i );
-                if ( cw.getCode().startsWith( thisCode ) ) {
-                    count++;
-                    if ( count > MAXIMUM_INDEX_SIZE ) {
-                        break;
-                    }
-                }
-                else if ( cw.getCode().compareTo( thisCode ) > 0 ) {
-                    break;
-                }
-                i++;
+    /**
+     * Compares the first {@code length} bytes of a code with the code of an 
+     * index entry, which ends at the first zero byte or at the code width.
+     */
+    private int compareWithEntry( byte[] code, int length, int entry ) {
+        int offset = entryOffset( entry );
+        for ( int i = 0; i < this.indexCodeWidth; i++ ) {
+            byte stored = this.index.get( offset + i );
+            if ( stored == 0 ) {
+                return i < length ? 1 : 0;
+            }
+            if ( i == length ) {
+                return -1;
             }
-            if ( count <= MAXIMUM_INDEX_SIZE ) {
-                cacheable = true;
-                foundSize = z;
-                break;
+            int difference = ( code[i] & 0xff ) - ( stored & 0xff );
+            if ( difference != 0 ) {
+                return difference;
             }
         }
+        return length - this.indexCodeWidth;
+    }
 
-        String newCode = (foundSize == -1) ? code : code.substring( 0, foundSize );
-        if ( cacheable ) {
-            this.indexCodeCache.add( newCode );
+    private int entryOffset( int entry ) {
+        return INDEX_HEADER_LENGTH + entry * ( this.indexCodeWidth + 8 );
+    }
+
+    /**
+     * Compares the first {@code length} bytes of a code with another code 
+     * using the unsigned values of the bytes.
+     */
+    private static int compareUnsigned( byte[] first, int length, byte[] second ) {
+        int common = Math.min( length, second.length );
+        for ( int i = 0; i < common; i++ ) {
+            int difference = ( first[i] & 0xff ) - ( second[i] & 0xff );
+            if ( difference != 0 ) {
+                return difference;
+            }
         }
-        return newCode;
+        return length - second.length;
     }
 
-    private class CodeWord implements Comparable {
+    
+    /**
+     * A word and its phonetic code, ordered by code and then by word, which
+     * is the order of the database file.
+     */
+    private static final class CodeWord implements Comparable<CodeWord> {
 
         private final String code;
         private final String word;
 
-        public CodeWord( String code, String word ) {
+        CodeWord( String code, String word ) {
             this.code = code;
             this.word = word;
         }
 
-        public String getCode() {
+        String getCode() {
             return this.code;
         }
 
-        public String getWord() {
+        String getWord() {
             return this.word;
         }
 
@@ -559,7 +783,8 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
 
             final CodeWord codeWord = (CodeWord) o;
 
-            return this.word.equals( codeWord.word );
+            return this.code.equals( codeWord.code ) 
+                    && this.word.equals( codeWord.word );
         }
 
         @Override
@@ -568,8 +793,214 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
         }
 
         @Override
-        public int compareTo( Object o ) {
-            return this.code.compareTo( ((CodeWord) o).getCode() );
+        public int compareTo( CodeWord o ) {
+            int comparison = this.code.compareTo( o.code );
+            return comparison != 0 ? comparison : this.word.compareTo( o.word );
+        }
+    }
+
+    /**
+     * A sorted run of words read from a temporary file.
+     */
+    private static final class RunReader implements Closeable {
+        private final BufferedReader reader;
+        private CodeWord head;
+
+        RunReader( File run ) throws IOException {
+            this.reader = new BufferedReader( new InputStreamReader( 
+                    new FileInputStream( run ), StandardCharsets.UTF_8 ) );
+            advance();
+        }
+
+        /**
+         * The next word of the run, or {@code null} at the end of the run.
+         */
+        CodeWord head() {
+            return this.head;
+        }
+
+        /**
+         * Reads the next word of the run.
+         * @return {@code true} unless the end of the run has been reached
+         */
+        boolean advance() throws IOException {
+            String line = this.reader.readLine();
+            if ( line == null ) {
+                this.head = null;
+                return false;
+            }
+            // codes do not contain commas, but words may
+            int comma = line.indexOf( ',' );
+            this.head = new CodeWord( line.substring( 0, comma ), line.substring( comma + 1 ) );
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.reader.close();
+        }
+    }
+
+    /**
+     * Merges sorted runs of words, returning each word once.
+     */
+    private static final class MergedRuns implements Closeable {
+        private final List<RunReader> readers;
+        private final PriorityQueue<RunReader> queue;
+        private CodeWord previous;
+
+        MergedRuns( List<File> runs ) throws IOException {
+            this.readers = new ArrayList<>( runs.size() );
+            this.queue = new PriorityQueue<>( 
+                    Math.max( 1, runs.size() ), 
+                    Comparator.comparing( RunReader::head ) );
+            try {
+                for ( File run : runs ) {
+                    RunReader reader = new RunReader( run );
+                    this.readers.add( reader );
+                    if ( reader.head() != null ) {
+                        this.queue.add( reader );
+                    }
+                }
+            }
+            catch ( IOException e ) {
+                close();
+                throw ( e );
+            }
+        }
+
+        /**
+         * The next word in code order, or {@code null} when every run has 
+         * been read.
+         */
+        CodeWord next() throws IOException {
+            while ( !this.queue.isEmpty() ) {
+                RunReader reader = this.queue.poll();
+                CodeWord head = reader.head();
+                if ( reader.advance() ) {
+                    this.queue.add( reader );
+                }
+                // a word in more than one list is written once
+                if ( !head.equals( this.previous ) ) {
+                    this.previous = head;
+                    return head;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for ( RunReader reader : this.readers ) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Assigns the words, in code order, to the blocks of the index. The 
+     * index code of a word is the shortest prefix of its code shared by no 
+     * more than {@code MAXIMUM_INDEX_SIZE} words, or its code if there is 
+     * none. The words sharing a prefix are adjacent, so whether a prefix 
+     * qualifies is decided from the codes of the preceding and following 
+     * {@code MAXIMUM_INDEX_SIZE} words alone, which are held in a window.
+     * The longest prefix of a code that is in the index is then always the 
+     * index code of the code's words.
+     */
+    private static final class IndexCodes {
+        private final MergedRuns source;
+        // the current word, followed by up to MAXIMUM_INDEX_SIZE words
+        private final ArrayDeque<CodeWord> ahead;
+        // the codes of the preceding words, in a ring
+        private final String[] behind;
+        private long consumed;
+        private CodeWord current;
+        private String indexCode;
+        // the prefix that is the index code of every code that starts with it
+        private String prefix;
+
+        IndexCodes( MergedRuns source ) {
+            this.source = source;
+            this.ahead = new ArrayDeque<>( MAXIMUM_INDEX_SIZE + 1 );
+            this.behind = new String[MAXIMUM_INDEX_SIZE];
+            this.consumed = 0;
+        }
+
+        /**
+         * Moves to the next word.
+         * @return the next word in code order, or {@code null} when every 
+         * word has been read
+         */
+        CodeWord next() throws IOException {
+            if ( this.current != null ) {
+                this.behind[(int) ( this.consumed % MAXIMUM_INDEX_SIZE )] = this.current.getCode();
+                this.consumed++;
+            }
+            CodeWord codeWord;
+            while ( this.ahead.size() <= MAXIMUM_INDEX_SIZE 
+                    && (codeWord = this.source.next()) != null ) {
+                this.ahead.addLast( codeWord );
+            }
+            String previousCode = this.current == null ? null : this.current.getCode();
+            this.current = this.ahead.pollFirst();
+            if ( this.current != null && !this.current.getCode().equals( previousCode ) ) {
+                this.indexCode = indexCodeFor( this.current.getCode() );
+            }
+            return this.current;
+        }
+
+        /**
+         * The index code of the current word.
+         */
+        String indexCode() {
+            return this.indexCode;
+        }
+
+        private String indexCodeFor( String code ) {
+            if ( code.length() <= 1 ) {
+                this.prefix = null;
+                return code;
+            }
+            // the shorter prefixes of the code are shared by more words
+            if ( this.prefix != null && code.startsWith( this.prefix ) ) {
+                return this.prefix;
+            }
+            this.prefix = null;
+            for ( int length = 1; length < code.length(); length++ ) {
+                String candidate = code.substring( 0, length );
+                if ( countSharing( candidate ) <= MAXIMUM_INDEX_SIZE ) {
+                    this.prefix = candidate;
+                    return candidate;
+                }
+            }
+            return code;
+        }
+
+        /**
+         * Counts the words whose codes start with a prefix of the current 
+         * word's code, up to one more than {@code MAXIMUM_INDEX_SIZE}.
+         */
+        private int countSharing( String codePrefix ) {
+            int count = 1;
+            long available = Math.min( this.consumed, MAXIMUM_INDEX_SIZE );
+            for ( long k = 1; k <= available; k++ ) {
+                if ( !this.behind[(int) ( ( this.consumed - k ) % MAXIMUM_INDEX_SIZE )]
+                        .startsWith( codePrefix ) ) {
+                    break;
+                }
+                if ( ++count > MAXIMUM_INDEX_SIZE ) {
+                    return count;
+                }
+            }
+            for ( CodeWord codeWord : this.ahead ) {
+                if ( !codeWord.getCode().startsWith( codePrefix ) ) {
+                    break;
+                }
+                if ( ++count > MAXIMUM_INDEX_SIZE ) {
+                    return count;
+                }
+            }
+            return count;
         }
     }
 
@@ -641,6 +1072,33 @@ public class DiskSpellingDictionary extends ASpellSpellingDictionary {
     }
     
     
+    /**
+     * A block of the database file and the UTF-8 bytes of the phonetic 
+     * codes whose words are sought in it.
+     */
+    private final class CodeBlock {
+        private final Location location;
+        private final List<byte[]> codes;
+        
+        private CodeBlock( Location location ) {
+            this.location = location;
+            this.codes = new ArrayList<>();
+        }
+        
+        Location location() {
+            return this.location;
+        }
+        
+        void add( String code ) {
+            this.codes.add( code.getBytes( StandardCharsets.UTF_8 ) );
+        }
+        
+        List<byte[]> codes() {
+            return this.codes;
+        }
+    }
+    
+    
     private final class IndexedCode {
         private final String code;
         private final int position;
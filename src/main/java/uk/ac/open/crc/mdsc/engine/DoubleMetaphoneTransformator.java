@@ -21,6 +21,9 @@
 */
 package uk.ac.open.crc.mdsc.engine;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 /**
  * A phonetic encoding algorithm that takes an English word and computes a
  * phonetic version of it. This allows for phonetic matches in a spell checker.
@@ -161,32 +164,30 @@ public class DoubleMetaphoneTransformator implements Transformator {
 //        "ZO", "ZI", "ZA", ""
 //    };
     /**
-     * Indicates whether SlavoGermanic transformations are loaded.
-     *
-     * @return {@code true} if SlavoGermanic codes are being used.
+     * The number of spaces appended to the word, so that the rules can 
+     * look ahead of the current character without testing the length.
      */
-    private static boolean SlavoGermanic( String in ) {
-        return ( in.contains( "W" )
-                || in.contains( "K" )
-                || in.contains( "CZ" )
-                || in.contains( "WITZ" ) );
-    }
+    private static final int PADDING = 5;
 
-    // SB: why are the following two methods used
     /**
-     * Appends a string to a string buffer
+     * Indicates whether SlavoGermanic transformations are loaded.
      *
-     * @param primary a string buffer
-     * @param main a string to be added to a string buffer
+     * @return {@code true} if SlavoGermanic codes are being used.
      */
-    private static void MetaphAdd( StringBuffer primary, String main ) {
-        if ( main != null ) {
-            primary.append( main );
-        }
+    private static boolean SlavoGermanic( char[] in ) {
+        return ( contains( in, "W" )
+                || contains( in, "K" )
+                || contains( in, "CZ" )
+                || contains( in, "WITZ" ) );
     }
 
-    private static void MetaphAdd( StringBuffer primary, char main ) {
-        primary.append( main );
+    private static boolean contains( char[] in, String target ) {
+        for ( int start = 0; start <= in.length - target.length(); start++ ) {
+            if ( regionMatches( in, start, target ) ) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -197,11 +198,11 @@ public class DoubleMetaphoneTransformator implements Transformator {
      * @param length the length of the string
      * @return {@true} iff the character is a member of the set {a, e, i, o, u, y}
      */
-    private static boolean isVowel( String input, int position, int length ) {
+    private static boolean isVowel( char[] input, int position, int length ) {
         if ( (position < 0) || (position >= length) ) {
             return false;
         }
-        char testChar = input.charAt( position );
+        char testChar = input[position];
         return (testChar == 'A'
                 || testChar == 'E'
                 || testChar == 'I'
@@ -210,23 +211,104 @@ public class DoubleMetaphoneTransformator implements Transformator {
                 || testChar == 'Y');
     }
 
+    /**
+     * Tests whether the characters starting at {@code start} match one of 
+     * the strings in the list. The characters are compared in place, so 
+     * no substrings are created.
+     */
     private static boolean stringAt( 
-            String string, 
+            char[] string, 
             int start, 
             int length, 
             String[] list ) {
-        if ( (start < 0) || (start >= string.length()) || list.length == 0 ) {
+        if ( (start < 0) || (start >= string.length) || list.length == 0 ) {
             return false;
         }
-        String substr = string.substring( start, start + length );
+        if ( start + length > string.length ) {
+            throw new StringIndexOutOfBoundsException( start + length );
+        }
         for ( String listMember : list ) {
-            if ( listMember.equals( substr ) ) {
+            if ( listMember.length() == length 
+                    && regionMatches( string, start, listMember ) ) {
                 return true;
             }
         }
         return false;
     }
 
+    private static boolean regionMatches( char[] string, int start, String target ) {
+        for ( int i = 0; i < target.length(); i++ ) {
+            if ( string[start + i] != target.charAt( i ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts the word to upper case and appends the padding. Words made 
+     * up of ASCII characters are converted in place; other words, and all 
+     * words in locales with special rules for ASCII letters, are converted 
+     * by {@code String.toUpperCase()}.
+     */
+    private static char[] toUpperCasePadded( String word ) {
+        int length = word.length();
+        char[] in = new char[length + PADDING];
+        if ( hasAsciiCaseRules( Locale.getDefault() ) ) {
+            int i = 0;
+            while ( i < length ) {
+                char c = word.charAt( i );
+                if ( c >= 0x80 ) {
+                    break;
+                }
+                in[i++] = ( c >= 'a' && c <= 'z' ) ? (char) ( c - ( 'a' - 'A' ) ) : c;
+            }
+            if ( i == length ) {
+                Arrays.fill( in, length, in.length, ' ' );
+                return in;
+            }
+        }
+
+        String upperCase = word.toUpperCase();
+        if ( upperCase.length() != length ) {
+            in = new char[upperCase.length() + PADDING];
+        }
+        upperCase.getChars( 0, upperCase.length(), in, 0 );
+        Arrays.fill( in, upperCase.length(), in.length, ' ' );
+        return in;
+    }
+
+    /**
+     * Converts the word held in the first {@code length} characters of an 
+     * array to upper case and pads it, as {@linkplain #toUpperCasePadded(String)}.
+     */
+    private static char[] toUpperCasePadded( char[] word, int length ) {
+        if ( hasAsciiCaseRules( Locale.getDefault() ) ) {
+            char[] in = new char[length + PADDING];
+            int i = 0;
+            while ( i < length ) {
+                char c = word[i];
+                if ( c >= 0x80 ) {
+                    break;
+                }
+                in[i++] = ( c >= 'a' && c <= 'z' ) ? (char) ( c - ( 'a' - 'A' ) ) : c;
+            }
+            if ( i == length ) {
+                Arrays.fill( in, length, in.length, ' ' );
+                return in;
+            }
+        }
+        return toUpperCasePadded( new String( word, 0, length ) );
+    }
+
+    /**
+     * The Turkic languages map 'i' to a dotted capital I.
+     */
+    private static boolean hasAsciiCaseRules( Locale locale ) {
+        String language = locale.getLanguage();
+        return !( "tr".equals( language ) || "az".equals( language ) );
+    }
+
     // SB: this method needs some *serious* refactoring when time is available.
     /**
      * Take the given word, and return the best phonetic hash for it. Vowels are
@@ -239,10 +321,31 @@ public class DoubleMetaphoneTransformator implements Transformator {
      */
     @Override
     public final String transform( String word ) {
-        StringBuffer primary = new StringBuffer( word.length() + 5 );
-        String in = word.toUpperCase() + "     ";
+        return encode( toUpperCasePadded( word ), word.length() );
+    }
+
+    /**
+     * Take the word held in the first {@code length} characters of an array, 
+     * and return the best phonetic hash for it, without copying the word 
+     * into a string.
+     *
+     * @param word an array holding the text to transform
+     * @param length the length of the text
+     * @return the result of the phonetic transformation
+     */
+    @Override
+    public final String transform( char[] word, int length ) {
+        return encode( toUpperCasePadded( word, length ), length );
+    }
+
+    /**
+     * Calculates the phonetic hash of a word that has been converted to 
+     * upper case and padded.
+     */
+    private String encode( char[] in, int wordLength ) {
+        StringBuilder primary = new StringBuilder( wordLength + PADDING );
         int current = 0;
-        int length = in.length();
+        int length = in.length;
         if ( length < 1 ) {
             return "";
         }
@@ -251,12 +354,12 @@ public class DoubleMetaphoneTransformator implements Transformator {
         if ( stringAt( in, 0, 2, myList ) ) {
             current += 1;
         }
-        if ( in.charAt( 0 ) == 'X' ) {
-            MetaphAdd( primary, 'S' );
+        if ( in[0] == 'X' ) {
+            primary.append( 'S' );
             current += 1;
         }
         while ( current < length ) {
-            switch ( in.charAt( current ) ) {
+            switch ( in[current] ) {
                 case 'A':
                 case 'E':
                 case 'I':
@@ -264,13 +367,13 @@ public class DoubleMetaphoneTransformator implements Transformator {
                 case 'U':
                 case 'Y':
                     if ( current == 0 ) {
-                        MetaphAdd( primary, 'A' );
+                        primary.append( 'A' );
                     }
                     current += 1;
                     break;
                 case 'B':
-                    MetaphAdd( primary, 'P' );
-                    if ( in.charAt( current + 1 ) == 'B' ) {
+                    primary.append( 'P' );
+                    if ( in[current + 1] == 'B' ) {
                         current += 2;
                     }
                     else {
@@ -278,94 +381,94 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     }
                     break;
                 case '\u00C7':
-                    MetaphAdd( primary, 'S' );
+                    primary.append( 'S' );
                     current += 1;
                     break;
                 case 'C':
-                    if ( (current > 1) && !isVowel( in, current - 2, length ) && stringAt( in, (current - 1), 3, list1 ) && (in.charAt( current + 2 ) != 'I') && (in.charAt( current + 2 ) != 'E') || stringAt( in, (current - 2), 6, list2 ) ) {
-                        MetaphAdd( primary, 'K' );
+                    if ( (current > 1) && !isVowel( in, current - 2, length ) && stringAt( in, (current - 1), 3, list1 ) && (in[current + 2] != 'I') && (in[current + 2] != 'E') || stringAt( in, (current - 2), 6, list2 ) ) {
+                        primary.append( 'K' );
                         current += 2;
                         break;
                     }
                     if ( (current == 0) && stringAt( in, current, 6, list3 ) ) {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                         current += 2;
                         break;
                     }
                     if ( stringAt( in, current, 4, list4 ) ) {
-                        MetaphAdd( primary, 'K' );
+                        primary.append( 'K' );
                         current += 2;
                         break;
                     }
                     if ( stringAt( in, current, 2, list5 ) ) {
                         if ( (current > 0) && stringAt( in, current, 4, list6 ) ) {
-                            MetaphAdd( primary, 'K' );
+                            primary.append( 'K' );
                             current += 2;
                             break;
                         }
                         if ( (current == 0) && stringAt( in, (current + 1), 5, list7 ) || stringAt( in, current + 1, 3, list8 ) && !stringAt( in, 0, 5, list9 ) ) {
-                            MetaphAdd( primary, 'K' );
+                            primary.append( 'K' );
                             current += 2;
                             break;
                         }
                         if ( stringAt( in, 0, 4, list10 ) || stringAt( in, 0, 3, list11 ) || stringAt( in, current - 2, 6, list12 ) || stringAt( in, current + 2, 1, list13 ) || (stringAt( in, current - 1, 1, list14 ) || (current == 0)) && stringAt( in, current + 2, 1, list15 ) ) {
-                            MetaphAdd( primary, 'K' );
+                            primary.append( 'K' );
                         }
                         else {
                             if ( current > 0 ) {
                                 if ( stringAt( in, 0, 2, list16 ) ) {
-                                    MetaphAdd( primary, 'K' );
+                                    primary.append( 'K' );
                                 }
                                 else {
-                                    MetaphAdd( primary, 'X' );
+                                    primary.append( 'X' );
                                 }
                             }
                             else {
-                                MetaphAdd( primary, 'X' );
+                                primary.append( 'X' );
                             }
                         }
                         current += 2;
                         break;
                     }
                     if ( stringAt( in, current, 2, list17 ) && !stringAt( in, current, 4, list18 ) ) {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                         current += 2;
                         break;
                     }
                     if ( stringAt( in, current, 2, list19 ) ) {
-                        MetaphAdd( primary, 'X' );
+                        primary.append( 'X' );
                         current += 2;
                         break;
                     }
-                    if ( stringAt( in, current, 2, list20 ) && !((current == 1) && in.charAt( 0 ) == 'M') ) {
+                    if ( stringAt( in, current, 2, list20 ) && !((current == 1) && in[0] == 'M') ) {
                         if ( stringAt( in, current + 2, 1, list21 ) && !stringAt( in, current + 2, 2, list22 ) ) {
-                            if ( ((current == 1) && (in.charAt( current - 1 ) == 'A')) || stringAt( in, (current - 1), 5, list23 ) ) {
-                                MetaphAdd( primary, "KS" );
+                            if ( ((current == 1) && (in[current - 1] == 'A')) || stringAt( in, (current - 1), 5, list23 ) ) {
+                                primary.append( "KS" );
                             }
                             else {
-                                MetaphAdd( primary, 'X' );
+                                primary.append( 'X' );
                             }
                             current += 3;
                             break;
                         }
                         else {
-                            MetaphAdd( primary, 'K' );
+                            primary.append( 'K' );
                             current += 2;
                             break;
                         }
                     }
                     if ( stringAt( in, current, 2, list24 ) ) {
-                        MetaphAdd( primary, 'K' );
+                        primary.append( 'K' );
                         current += 2;
                         break;
                     }
                     else if ( stringAt( in, current, 2, list25 ) ) {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                         current += 2;
                         break;
                     }
 
-                    MetaphAdd( primary, 'K' );
+                    primary.append( 'K' );
                     if ( stringAt( in, current + 1, 2, list27 ) ) {
                         current += 3;
                     }
@@ -379,17 +482,17 @@ public class DoubleMetaphoneTransformator implements Transformator {
                 case 'D':
                     if ( stringAt( in, current, 2, list30 ) ) {
                         if ( stringAt( in, current + 2, 1, list31 ) ) {
-                            MetaphAdd( primary, 'J' );
+                            primary.append( 'J' );
                             current += 3;
                             break;
                         }
                         else {
-                            MetaphAdd( primary, "TK" );
+                            primary.append( "TK" );
                             current += 2;
                             break;
                         }
                     }
-                    MetaphAdd( primary, 'T' );
+                    primary.append( 'T' );
                     if ( stringAt( in, current, 2, list32 ) ) {
                         current += 2;
                     }
@@ -398,28 +501,28 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     }
                     break;
                 case 'F':
-                    if ( in.charAt( current + 1 ) == 'F' ) {
+                    if ( in[current + 1] == 'F' ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'F' );
+                    primary.append( 'F' );
                     break;
                 case 'G':
-                    if ( in.charAt( current + 1 ) == 'H' ) {
+                    if ( in[current + 1] == 'H' ) {
                         if ( (current > 0) && !isVowel( in, current - 1, length ) ) {
-                            MetaphAdd( primary, 'K' );
+                            primary.append( 'K' );
                             current += 2;
                             break;
                         }
                         if ( current < 3 ) {
                             if ( current == 0 ) {
-                                if ( in.charAt( current + 2 ) == 'I' ) {
-                                    MetaphAdd( primary, 'J' );
+                                if ( in[current + 2] == 'I' ) {
+                                    primary.append( 'J' );
                                 }
                                 else {
-                                    MetaphAdd( primary, 'K' );
+                                    primary.append( 'K' );
                                 }
                                 current += 2;
                                 break;
@@ -430,51 +533,51 @@ public class DoubleMetaphoneTransformator implements Transformator {
                             break;
                         }
                         else {
-                            if ( (current > 2) && (in.charAt( current - 1 ) == 'U') && stringAt( in, current - 3, 1, list36 ) ) {
-                                MetaphAdd( primary, 'F' );
+                            if ( (current > 2) && (in[current - 1] == 'U') && stringAt( in, current - 3, 1, list36 ) ) {
+                                primary.append( 'F' );
                             }
                             else {
-                                if ( (current > 0) && (in.charAt( current - 1 ) != 'I') ) {
-                                    MetaphAdd( primary, 'K' );
+                                if ( (current > 0) && (in[current - 1] != 'I') ) {
+                                    primary.append( 'K' );
                                 }
                             }
                             current += 2;
                             break;
                         }
                     }
-                    if ( in.charAt( current + 1 ) == 'N' ) {
+                    if ( in[current + 1] == 'N' ) {
                         if ( (current == 1) && isVowel( in, 0, length ) && !isSlavoGermaic ) {
-                            MetaphAdd( primary, "KN" );
+                            primary.append( "KN" );
                         }
                         else {
-                            if ( !stringAt( in, current + 2, 2, list37 ) && (in.charAt( current + 1 ) != 'Y') && !isSlavoGermaic ) {
-                                MetaphAdd( primary, "N" );
+                            if ( !stringAt( in, current + 2, 2, list37 ) && (in[current + 1] != 'Y') && !isSlavoGermaic ) {
+                                primary.append( "N" );
                             }
                             else {
-                                MetaphAdd( primary, "KN" );
+                                primary.append( "KN" );
                             }
                         }
                         current += 2;
                         break;
                     }
                     if ( stringAt( in, current + 1, 2, list38 ) && !isSlavoGermaic ) {
-                        MetaphAdd( primary, "KL" );
+                        primary.append( "KL" );
                         current += 2;
                         break;
                     }
                     if ( (current == 0) 
-                            && ((in.charAt( current + 1 ) == 'Y') 
+                            && ((in[current + 1] == 'Y') 
                                 || stringAt( in, current + 1, 2, list39 )) ) {
-                        MetaphAdd( primary, 'K' );
+                        primary.append( 'K' );
                         current += 2;
                         break;
                     }
                     if ( (stringAt( in, current + 1, 2, list40 ) 
-                            || (in.charAt( current + 1 ) == 'Y')) 
+                            || (in[current + 1] == 'Y')) 
                             && !stringAt( in, 0, 6, list41 ) 
                             && !stringAt( in, current - 1, 1, list42 ) 
                             && !stringAt( in, current - 1, 3, list43 ) ) {
-                        MetaphAdd( primary, 'K' );
+                        primary.append( 'K' );
                         current += 2;
                         break;
                     }
@@ -483,26 +586,26 @@ public class DoubleMetaphoneTransformator implements Transformator {
                         if ( stringAt( in, 0, 4, list46 ) 
                                 || stringAt( in, 0, 3, list47 ) 
                                 || stringAt( in, current + 1, 2, list48 ) ) {
-                            MetaphAdd( primary, 'K' );
+                            primary.append( 'K' );
                         }
                         else {
-                            MetaphAdd( primary, 'J' );
+                            primary.append( 'J' );
                         }
                         current += 2;
                         break;
                     }
-                    if ( in.charAt( current + 1 ) == 'G' ) {
+                    if ( in[current + 1] == 'G' ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'K' );
+                    primary.append( 'K' );
                     break;
                 case 'H':
                     if ( ((current == 0) || isVowel( in, current - 1, length )) 
                             && isVowel( in, current + 1, length ) ) {
-                        MetaphAdd( primary, 'H' );
+                        primary.append( 'H' );
                         current += 2;
                     }
                     else {
@@ -512,39 +615,39 @@ public class DoubleMetaphoneTransformator implements Transformator {
                 case 'J':
                     if ( stringAt( in, current, 4, list50 ) 
                             || stringAt( in, 0, 4, list51 ) ) {
-                        if ( (current == 0) && (in.charAt( current + 4 ) == ' ') 
+                        if ( (current == 0) && (in[current + 4] == ' ') 
                                 || stringAt( in, 0, 4, list52 ) ) {
-                            MetaphAdd( primary, 'H' );
+                            primary.append( 'H' );
                         }
                         else {
-                            MetaphAdd( primary, 'J' );
+                            primary.append( 'J' );
                         }
                         current += 1;
                         break;
                     }
                     if ( (current == 0) && !stringAt( in, current, 4, list53 ) ) {
-                        MetaphAdd( primary, 'J' );
+                        primary.append( 'J' );
                     }
                     else {
                         if ( isVowel( in, current - 1, length ) 
                                 && !isSlavoGermaic 
-                                && ((in.charAt( current + 1 ) == 'A') 
-                                    || in.charAt( current + 1 ) == 'O') ) {
-                            MetaphAdd( primary, 'J' );
+                                && ((in[current + 1] == 'A') 
+                                    || in[current + 1] == 'O') ) {
+                            primary.append( 'J' );
                         }
                         else {
                             if ( current == last ) {
-                                MetaphAdd( primary, 'J' );
+                                primary.append( 'J' );
                             }
                             else {
                                 if ( !stringAt( in, current + 1, 1, list54 ) 
                                         && !stringAt( in, current - 1, 1, list55 ) ) {
-                                    MetaphAdd( primary, 'J' );
+                                    primary.append( 'J' );
                                 }
                             }
                         }
                     }
-                    if ( in.charAt( current + 1 ) == 'J' ) {
+                    if ( in[current + 1] == 'J' ) {
                         current += 2;
                     }
                     else {
@@ -552,22 +655,22 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     }
                     break;
                 case 'K':
-                    if ( in.charAt( current + 1 ) == 'K' ) {
+                    if ( in[current + 1] == 'K' ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'K' );
+                    primary.append( 'K' );
                     break;
                 case 'L':
-                    if ( in.charAt( current + 1 ) == 'L' ) {
+                    if ( in[current + 1] == 'L' ) {
                         if ( ((current == (length - 3)) 
                                 && stringAt( in, current - 1, 4, list56 )) 
                                 || ((stringAt( in, last - 1, 2, list57 ) 
                                     || stringAt( in, last, 1, list58 )) 
                                     && stringAt( in, current - 1, 4, list59 )) ) {
-                            MetaphAdd( primary, 'L' );
+                            primary.append( 'L' );
                             current += 2;
                             break;
                         }
@@ -576,36 +679,36 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'L' );
+                    primary.append( 'L' );
                     break;
                 case 'M':
                     if ( (stringAt( in, current - 1, 3, list60 ) 
                             && (((current + 1) == last) 
                                 || stringAt( in, current + 2, 2, list61 ))) 
-                                || (in.charAt( current + 1 ) == 'M') ) {
+                                || (in[current + 1] == 'M') ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'M' );
+                    primary.append( 'M' );
                     break;
                 case 'N':
-                    if ( in.charAt( current + 1 ) == 'N' ) {
+                    if ( in[current + 1] == 'N' ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'N' );
+                    primary.append( 'N' );
                     break;
                 case '\u00D1':
                     current += 1;
-                    MetaphAdd( primary, 'N' );
+                    primary.append( 'N' );
                     break;
                 case 'P':
-                    if ( in.charAt( current + 1 ) == 'N' ) {
-                        MetaphAdd( primary, 'F' );
+                    if ( in[current + 1] == 'N' ) {
+                        primary.append( 'F' );
                         current += 2;
                         break;
                     }
@@ -615,16 +718,16 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'P' );
+                    primary.append( 'P' );
                     break;
                 case 'Q':
-                    if ( in.charAt( current + 1 ) == 'Q' ) {
+                    if ( in[current + 1] == 'Q' ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'K' );
+                    primary.append( 'K' );
                     break;
                 case 'R':
                     if ( (current == last) 
@@ -634,9 +737,9 @@ public class DoubleMetaphoneTransformator implements Transformator {
 //            MetaphAdd(primary, "");
                     }
                     else {
-                        MetaphAdd( primary, 'R' );
+                        primary.append( 'R' );
                     }
-                    if ( in.charAt( current + 1 ) == 'R' ) {
+                    if ( in[current + 1] == 'R' ) {
                         current += 2;
                     }
                     else {
@@ -649,29 +752,29 @@ public class DoubleMetaphoneTransformator implements Transformator {
                         break;
                     }
                     if ( (current == 0) && stringAt( in, current, 5, list66 ) ) {
-                        MetaphAdd( primary, 'X' );
+                        primary.append( 'X' );
                         current += 1;
                         break;
                     }
                     if ( stringAt( in, current, 2, list67 ) ) {
                         if ( stringAt( in, current + 1, 4, list68 ) ) {
-                            MetaphAdd( primary, 'S' );
+                            primary.append( 'S' );
                         }
                         else {
-                            MetaphAdd( primary, 'X' );
+                            primary.append( 'X' );
                         }
                         current += 2;
                         break;
                     }
                     if ( stringAt( in, current, 3, list69 ) 
                             || stringAt( in, current, 4, list70 ) ) {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                         current += 3;
                         break;
                     }
                     if ( ((current == 0) && stringAt( in, current + 1, 1, list71 )) 
                             || stringAt( in, current + 1, 1, list72 ) ) {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                         if ( stringAt( in, current + 1, 1, list73 ) ) {
                             current += 2;
                         }
@@ -681,29 +784,29 @@ public class DoubleMetaphoneTransformator implements Transformator {
                         break;
                     }
                     if ( stringAt( in, current, 2, list74 ) ) {
-                        if ( in.charAt( current + 2 ) == 'H' ) {
+                        if ( in[current + 2] == 'H' ) {
                             if ( stringAt( in, current + 3, 2, list75 ) ) {
                                 if ( stringAt( in, current + 3, 2, list76 ) ) {
-                                    MetaphAdd( primary, "X" );
+                                    primary.append( "X" );
                                 }
                                 else {
-                                    MetaphAdd( primary, "SK" );
+                                    primary.append( "SK" );
                                 }
                                 current += 3;
                                 break;
                             }
                             else {
-                                MetaphAdd( primary, 'X' );
+                                primary.append( 'X' );
                                 current += 3;
                                 break;
                             }
                         }
                         if ( stringAt( in, current + 2, 1, list77 ) ) {
-                            MetaphAdd( primary, 'S' );
+                            primary.append( 'S' );
                             current += 3;
                             break;
                         }
-                        MetaphAdd( primary, "SK" );
+                        primary.append( "SK" );
                         current += 3;
                         break;
                     }
@@ -711,7 +814,7 @@ public class DoubleMetaphoneTransformator implements Transformator {
                         //MetaphAdd(primary, "");
                     }
                     else {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                     }
                     if ( stringAt( in, current + 1, 1, list79 ) ) {
                         current += 2;
@@ -722,12 +825,12 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     break;
                 case 'T':
                     if ( stringAt( in, current, 4, list80 ) ) {
-                        MetaphAdd( primary, 'X' );
+                        primary.append( 'X' );
                         current += 3;
                         break;
                     }
                     if ( stringAt( in, current, 3, list81 ) ) {
-                        MetaphAdd( primary, 'X' );
+                        primary.append( 'X' );
                         current += 3;
                         break;
                     }
@@ -736,10 +839,10 @@ public class DoubleMetaphoneTransformator implements Transformator {
                         if ( stringAt( in, (current + 2), 2, list84 ) 
                                 || stringAt( in, 0, 4, list85 ) 
                                 || stringAt( in, 0, 3, list86 ) ) {
-                            MetaphAdd( primary, 'T' );
+                            primary.append( 'T' );
                         }
                         else {
-                            MetaphAdd( primary, '0' );
+                            primary.append( '0' );
                         }
                         current += 2;
                         break;
@@ -750,36 +853,36 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'T' );
+                    primary.append( 'T' );
                     break;
                 case 'V':
-                    if ( in.charAt( current + 1 ) == 'V' ) {
+                    if ( in[current + 1] == 'V' ) {
                         current += 2;
                     }
                     else {
                         current += 1;
                     }
-                    MetaphAdd( primary, 'F' );
+                    primary.append( 'F' );
                     break;
                 case 'W':
                     if ( stringAt( in, current, 2, list88 ) ) {
-                        MetaphAdd( primary, 'R' );
+                        primary.append( 'R' );
                         current += 2;
                         break;
                     }
                     if ( (current == 0) && (isVowel( in, current + 1, length ) 
                             || stringAt( in, current, 2, list89 )) ) {
-                        MetaphAdd( primary, 'A' );
+                        primary.append( 'A' );
                     }
                     if ( ((current == last) && isVowel( in, current - 1, length )) 
                             || stringAt( in, current - 1, 5, list90 ) 
                             || stringAt( in, 0, 3, list91 ) ) {
-                        MetaphAdd( primary, 'F' );
+                        primary.append( 'F' );
                         current += 1;
                         break;
                     }
                     if ( stringAt( in, current, 4, list92 ) ) {
-                        MetaphAdd( primary, "TS" );
+                        primary.append( "TS" );
                         current += 4;
                         break;
                     }
@@ -788,7 +891,7 @@ public class DoubleMetaphoneTransformator implements Transformator {
                 case 'X':
                     if ( !((current == last) && (stringAt( in, current - 3, 3, list93 ) 
                             || stringAt( in, current - 2, 2, list94 ))) ) {
-                        MetaphAdd( primary, "KS" );
+                        primary.append( "KS" );
                     }
                     if ( stringAt( in, current + 1, 1, list95 ) ) {
                         current += 2;
@@ -798,15 +901,15 @@ public class DoubleMetaphoneTransformator implements Transformator {
                     }
                     break;
                 case 'Z':
-                    if ( in.charAt( current + 1 ) == 'H' ) {
-                        MetaphAdd( primary, 'J' );
+                    if ( in[current + 1] == 'H' ) {
+                        primary.append( 'J' );
                         current += 2;
                         break;
                     }
                     else {
-                        MetaphAdd( primary, 'S' );
+                        primary.append( 'S' );
                     }
-                    if ( in.charAt( current + 1 ) == 'Z' ) {
+                    if ( in[current + 1] == 'Z' ) {
                         current += 2;
                     }
                     else {
@@ -0,0 +1,180 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+/**
+ * The costs of the operations used by {@linkplain EditDistance} to
+ * transform one word into another. Each dictionary holds its own cost
+ * model, resolved from the {@linkplain Configuration} it was constructed
+ * with, so that, for example, dictionaries of abbreviations can make
+ * deletions cheaper than dictionaries of English words.
+ * <p>
+ * Instances are immutable.
+ * </p>
+ *
+ * @see Configuration#COST_REMOVE_CHAR
+ * @see Configuration#COST_INSERT_CHAR
+ * @see Configuration#COST_SUBST_CHARS
+ * @see Configuration#COST_SWAP_CHARS
+ * @see Configuration#COST_CHANGE_CASE
+ */
+public final class EditCostModel {
+
+    private final int deletion;
+    private final int insertion;
+    private final int substitution;
+    private final int swap;
+    private final int caseChange;
+
+    /**
+     * Creates a cost model.
+     *
+     * @param deletion the cost of removing a character
+     * @param insertion the cost of inserting a character
+     * @param substitution the cost of substituting one character for another
+     * @param swap the cost of swapping two adjoining characters
+     * @param caseChange the cost of changing the case of a character
+     * @throws IllegalArgumentException if any of the costs is not a
+     * positive integer
+     */
+    public EditCostModel(
+            int deletion,
+            int insertion,
+            int substitution,
+            int swap,
+            int caseChange ) {
+        if ( deletion < 1 || insertion < 1 || substitution < 1
+                || swap < 1 || caseChange < 1 ) {
+            throw new IllegalArgumentException(
+                    "Edit costs must be positive integers." );
+        }
+        this.deletion = deletion;
+        this.insertion = insertion;
+        this.substitution = substitution;
+        this.swap = swap;
+        this.caseChange = caseChange;
+    }
+
+    /**
+     * Resolves the costs held in a configuration.
+     *
+     * @param configuration a configuration
+     * @return a cost model holding the configured costs
+     */
+    public static EditCostModel fromConfiguration( Configuration configuration ) {
+        return new EditCostModel(
+                configuration.getInteger( Configuration.COST_REMOVE_CHAR ),
+                configuration.getInteger( Configuration.COST_INSERT_CHAR ),
+                configuration.getInteger( Configuration.COST_SUBST_CHARS ),
+                configuration.getInteger( Configuration.COST_SWAP_CHARS ),
+                configuration.getInteger( Configuration.COST_CHANGE_CASE ) );
+    }
+
+    /**
+     * Writes the costs into a configuration, so that dictionaries
+     * subsequently constructed with the configuration use this model.
+     *
+     * @param configuration a configuration
+     */
+    public void applyTo( Configuration configuration ) {
+        configuration.setInteger( Configuration.COST_REMOVE_CHAR, this.deletion );
+        configuration.setInteger( Configuration.COST_INSERT_CHAR, this.insertion );
+        configuration.setInteger( Configuration.COST_SUBST_CHARS, this.substitution );
+        configuration.setInteger( Configuration.COST_SWAP_CHARS, this.swap );
+        configuration.setInteger( Configuration.COST_CHANGE_CASE, this.caseChange );
+    }
+
+    /**
+     * The cost of removing a character.
+     * @return the deletion cost
+     */
+    public int deletion() {
+        return this.deletion;
+    }
+
+    /**
+     * The cost of inserting a character.
+     * @return the insertion cost
+     */
+    public int insertion() {
+        return this.insertion;
+    }
+
+    /**
+     * The cost of substituting one character for another.
+     * @return the substitution cost
+     */
+    public int substitution() {
+        return this.substitution;
+    }
+
+    /**
+     * The cost of swapping two adjoining characters.
+     * @return the swap cost
+     */
+    public int swap() {
+        return this.swap;
+    }
+
+    /**
+     * The cost of changing the case of a character.
+     * @return the case change cost
+     */
+    public int caseChange() {
+        return this.caseChange;
+    }
+
+    @Override
+    public boolean equals( Object o ) {
+        if ( this == o ) {
+            return true;
+        }
+        if ( !(o instanceof EditCostModel) ) {
+            return false;
+        }
+
+        final EditCostModel model = (EditCostModel) o;
+
+        return this.deletion == model.deletion
+                && this.insertion == model.insertion
+                && this.substitution == model.substitution
+                && this.swap == model.swap
+                && this.caseChange == model.caseChange;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = this.deletion;
+        hash = 31 * hash + this.insertion;
+        hash = 31 * hash + this.substitution;
+        hash = 31 * hash + this.swap;
+        hash = 31 * hash + this.caseChange;
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "deletion: " + this.deletion
+                + " insertion: " + this.insertion
+                + " substitution: " + this.substitution
+                + " swap: " + this.swap
+                + " case change: " + this.caseChange;
+    }
+}
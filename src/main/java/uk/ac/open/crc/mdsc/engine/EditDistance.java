@@ -28,9 +28,9 @@ package uk.ac.open.crc.mdsc.engine;
  * distance value is based on how many operations it takes to get from one word
  * to the other. Possible operations are swapping characters, adding a
  * character, deleting a character, and substituting a character. The resulting
- * distance is the sum of these operations weighted by their cost, which can be
- * set in the Configuration object. When there are multiple ways to convert one
- * word into the other, the lowest cost distance is returned.
+ * distance is the sum of these operations weighted by their cost, which are
+ * held in an {@linkplain EditCostModel}. When there are multiple ways to 
+ * convert one word into the other, the lowest cost distance is returned.
  * <br/>
  * Another way to think about this: what are the cheapest operations that would
  * have to be done on the "original" word to end up with the "similar" word?
@@ -46,27 +46,43 @@ package uk.ac.open.crc.mdsc.engine;
 class EditDistance {
 
     /**
-     * Fetches the spell engine CONFIGURATION properties.
+     * The costs in the default configuration, resolved when the class is 
+     * loaded.
      */
-    private static final Configuration CONFIGURATION = 
-            Configuration.getConfiguration();
+    static final EditCostModel DEFAULT_COSTS = 
+            EditCostModel.fromConfiguration( Configuration.getConfiguration() );
 
     /**
-     * get the weights for each possible operation
+     * Returned by the distance calculations with a maximum cost when the 
+     * distance is not less than the maximum.
+     */
+    public static final int MAXIMUM_COST_EXCEEDED = Integer.MAX_VALUE;
+
+    /**
+     * Each thread's scratch buffer, which holds the rows of the matrix 
+     * while a distance is calculated. Three rows of 32 elements suffice 
+     * for most words.
+     */
+    private static final ThreadLocal<int[]> SCRATCH = 
+            ThreadLocal.withInitial( () -> new int[3 * 32] );
+
+    /**
+     * The default costs as constants, which the JIT compiler can fold 
+     * into the distance calculation.
      */
     private static final int COST_OF_DELETING_SOURCE_CHARACTER = 
-            CONFIGURATION.getInteger( Configuration.COST_REMOVE_CHAR );
+            DEFAULT_COSTS.deletion();
     private static final int COST_OF_INSERTING_SOURCE_CHARACTER = 
-            CONFIGURATION.getInteger( Configuration.COST_INSERT_CHAR );
+            DEFAULT_COSTS.insertion();
     private static final int COST_OF_SUBSTITUTING_LETTERS = 
-            CONFIGURATION.getInteger( Configuration.COST_SUBST_CHARS );
+            DEFAULT_COSTS.substitution();
     private static final int COST_OF_SWAPPING_LETTERS = 
-            CONFIGURATION.getInteger( Configuration.COST_SWAP_CHARS );
+            DEFAULT_COSTS.swap();
     private static final int COST_OF_CHANGING_CASE = 
-            CONFIGURATION.getInteger( Configuration.COST_CHANGE_CASE );
+            DEFAULT_COSTS.caseChange();
 
     /**
-     * Evaluates the distance between two words.
+     * Evaluates the distance between two words using the default costs.
      *
      * @param word One word to evaluates
      * @param similar The other word to evaluates
@@ -77,6 +93,260 @@ class EditDistance {
         return getDistance( word, similar, null );
     }
 
+    /**
+     * Evaluates the distance between two words using the default costs.
+     *
+     * @param word One word to evaluate
+     * @param similar The other word to evaluates
+     * @param matrix ignored, the rows of the matrix are held in a scratch 
+     * buffer kept by each thread
+     * @return a number representing how easy or complex it is to transform on
+     * word into a similar one.
+     */
+    public static final int getDistance( String word, String similar, int[][] matrix ) {
+        return distance( 
+                word, 
+                similar, 
+                matrix, 
+                COST_OF_DELETING_SOURCE_CHARACTER, 
+                COST_OF_INSERTING_SOURCE_CHARACTER, 
+                COST_OF_SUBSTITUTING_LETTERS, 
+                COST_OF_SWAPPING_LETTERS, 
+                COST_OF_CHANGING_CASE );
+    }
+
+    /**
+     * Evaluates the distance between two words using the given costs. 
+     * Where the costs are the defaults, the calculation is specialised 
+     * for the default costs.
+     *
+     * @param word One word to evaluate
+     * @param similar The other word to evaluates
+     * @param matrix ignored, the rows of the matrix are held in a scratch 
+     * buffer kept by each thread
+     * @param costs the costs of the edit operations
+     * @return a number representing how easy or complex it is to transform on
+     * word into a similar one.
+     */
+    public static final int getDistance( 
+            String word, 
+            String similar, 
+            int[][] matrix, 
+            EditCostModel costs ) {
+        if ( costs == DEFAULT_COSTS || costs.equals( DEFAULT_COSTS ) ) {
+            return getDistance( word, similar, matrix );
+        }
+        return distance( 
+                word, 
+                similar, 
+                matrix, 
+                costs.deletion(), 
+                costs.insertion(), 
+                costs.substitution(), 
+                costs.swap(), 
+                costs.caseChange() );
+    }
+
+    /**
+     * Evaluates the distance between two words using the default costs, 
+     * where only distances less than a maximum cost are of interest.
+     *
+     * @param word One word to evaluate
+     * @param similar The other word to evaluate
+     * @param maximumCost the cost that the distance must be less than
+     * @return the distance, if it is less than the maximum cost, otherwise 
+     * {@linkplain #MAXIMUM_COST_EXCEEDED}
+     * @see #getDistance(String, String, EditCostModel, int)
+     */
+    public static final int getDistance( String word, String similar, int maximumCost ) {
+        return boundedDistance( 
+                word, 
+                similar, 
+                maximumCost, 
+                COST_OF_DELETING_SOURCE_CHARACTER, 
+                COST_OF_INSERTING_SOURCE_CHARACTER, 
+                COST_OF_SUBSTITUTING_LETTERS, 
+                COST_OF_SWAPPING_LETTERS, 
+                COST_OF_CHANGING_CASE );
+    }
+
+    /**
+     * Evaluates the distance between two words using the given costs, 
+     * where only distances less than a maximum cost are of interest. 
+     * Distances less than the maximum cost are identical to those 
+     * calculated by {@linkplain #getDistance(String, String, int[][], EditCostModel)}.
+     * <p>
+     * Only the diagonal band of the matrix that can lie on a path costing 
+     * less than the maximum is calculated. Every edit that changes the 
+     * difference in the lengths of the prefixes compared is an insertion 
+     * or a deletion, so the band is narrow for typical costs and 
+     * thresholds, and words whose lengths differ too much are rejected 
+     * at once. The calculation also stops as soon as no cell in the 
+     * latest row can lead to a distance less than the maximum.
+     * </p>
+     *
+     * @param word One word to evaluate
+     * @param similar The other word to evaluate
+     * @param costs the costs of the edit operations
+     * @param maximumCost the cost that the distance must be less than
+     * @return the distance, if it is less than the maximum cost, otherwise 
+     * {@linkplain #MAXIMUM_COST_EXCEEDED}
+     */
+    public static final int getDistance( 
+            String word, 
+            String similar, 
+            EditCostModel costs, 
+            int maximumCost ) {
+        if ( costs == DEFAULT_COSTS || costs.equals( DEFAULT_COSTS ) ) {
+            return getDistance( word, similar, maximumCost );
+        }
+        return boundedDistance( 
+                word, 
+                similar, 
+                maximumCost, 
+                costs.deletion(), 
+                costs.insertion(), 
+                costs.substitution(), 
+                costs.swap(), 
+                costs.caseChange() );
+    }
+
+    /**
+     * Evaluates the distance between two words within the band of the 
+     * matrix that can lie on a path costing less than the maximum. Rows 
+     * of the matrix follow the characters of {@code word} and columns the 
+     * characters of {@code similar}. The band is the range of diagonals 
+     * (column minus row) from which the last cell can be reached for 
+     * less than the maximum cost. Cells just outside the band are set to 
+     * the maximum cost, so that no cell calculated from them is less 
+     * than the maximum. Only the three most recent rows are kept.
+     */
+    private static int boundedDistance( 
+            String word, 
+            String similar, 
+            int maximumCost, 
+            int costOfDeletingSourceCharacter, 
+            int costOfInsertingSourceCharacter, 
+            int costOfSubstitutingLetters, 
+            int costOfSwappingLetters, 
+            int costOfChangingCase ) {
+        int rowCount = word.length();
+        int columnCount = similar.length();
+        int lastDiagonal = columnCount - rowCount;
+
+        // the lowest and highest diagonals of the band
+        int lowest = 1;
+        int highest = -1;
+        for ( int diagonal = -rowCount; diagonal <= columnCount; diagonal++ ) {
+            int cost = indelCost( 0, diagonal, costOfDeletingSourceCharacter, costOfInsertingSourceCharacter ) 
+                    + indelCost( diagonal, lastDiagonal, costOfDeletingSourceCharacter, costOfInsertingSourceCharacter );
+            if ( cost < maximumCost ) {
+                if ( lowest > highest ) {
+                    lowest = diagonal;
+                }
+                highest = diagonal;
+            }
+        }
+        if ( lowest > highest ) {
+            return MAXIMUM_COST_EXCEEDED;
+        }
+
+        int width = columnCount + 1;
+        int[] rows = scratch( 3 * width );
+        // the three most recent rows are held in turn in the array
+        int previousPrevious = 2 * width;
+        int previous = width;
+        int current = 0;
+
+        int end = Math.min( columnCount, highest );
+        for ( int j = 0; j <= end; j++ ) {
+            rows[current + j] = j * costOfDeletingSourceCharacter;
+        }
+        if ( end + 1 <= columnCount ) {
+            rows[current + end + 1] = maximumCost;
+        }
+        // the first row starts with zero
+        int previousMinimum = 0;
+
+        for ( int i = 1; i <= rowCount; i++ ) {
+            int rotated = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = rotated;
+
+            int start = Math.max( 1, i + lowest );
+            end = Math.min( columnCount, i + highest );
+            rows[current] = i * costOfInsertingSourceCharacter;
+            if ( start - 1 >= 1 ) {
+                rows[current + start - 1] = maximumCost;
+            }
+            if ( end + 1 <= columnCount ) {
+                rows[current + end + 1] = maximumCost;
+            }
+
+            char sourceChar = word.charAt( i - 1 );
+            int minimum = rows[current];
+            for ( int j = start; j <= end; j++ ) {
+                char otherChar = similar.charAt( j - 1 );
+                int distance;
+                if ( sourceChar == otherChar ) {
+                    distance = rows[previous + j - 1];
+                }
+                else {
+                    distance = costOfSubstitutingLetters + rows[previous + j - 1];
+                    if ( i != 1 && j != 1 
+                            && sourceChar == similar.charAt( j - 2 ) 
+                            && word.charAt( i - 2 ) == otherChar ) {
+                        distance = Math.min( 
+                                distance, 
+                                costOfSwappingLetters + rows[previousPrevious + j - 2] );
+                    }
+                    distance = Math.min( 
+                            distance, 
+                            costOfDeletingSourceCharacter + rows[current + j - 1] );
+                    distance = Math.min( 
+                            distance, 
+                            costOfInsertingSourceCharacter + rows[previous + j] );
+                    if ( equalIgnoreCase( sourceChar, otherChar ) ) {
+                        distance = Math.min( 
+                                distance, 
+                                costOfChangingCase + rows[previous + j - 1] );
+                    }
+                }
+                rows[current + j] = distance;
+                if ( distance < minimum ) {
+                    minimum = distance;
+                }
+            }
+
+            // every path to the last cell passes through this row, or 
+            // jumps over it from the previous row with a swap
+            if ( minimum >= maximumCost 
+                    && ( previousMinimum >= maximumCost - costOfSwappingLetters ) ) {
+                return MAXIMUM_COST_EXCEEDED;
+            }
+            previousMinimum = minimum;
+        }
+
+        int distance = rows[current + columnCount];
+        return distance < maximumCost ? distance : MAXIMUM_COST_EXCEEDED;
+    }
+
+    /**
+     * The least cost of the insertions or deletions needed to move from 
+     * one diagonal of the matrix to another.
+     */
+    private static int indelCost( 
+            int fromDiagonal, 
+            int toDiagonal, 
+            int costOfDeletingSourceCharacter, 
+            int costOfInsertingSourceCharacter ) {
+        if ( toDiagonal > fromDiagonal ) {
+            return ( toDiagonal - fromDiagonal ) * costOfDeletingSourceCharacter;
+        }
+        return ( fromDiagonal - toDiagonal ) * costOfInsertingSourceCharacter;
+    }
+
     // SB: this method is a candidate for refactoring given its length
     /**
      * Evaluates the distance between two words.
@@ -86,7 +356,15 @@ class EditDistance {
      * @return a number representing how easy or complex it is to transform on
      * word into a similar one.
      */
-    public static final int getDistance( String word, String similar, int[][] matrix ) {
+    private static int distance( 
+            String word, 
+            String similar, 
+            int[][] matrix, 
+            int costOfDeletingSourceCharacter, 
+            int costOfInsertingSourceCharacter, 
+            int costOfSubstitutingLetters, 
+            int costOfSwappingLetters, 
+            int costOfChangingCase ) {
         /* JMH Again, there is no need to have a global class matrix variable
          *  in this class. I have removed it and made the getDistance static final
          * DMV: I refactored this method to make it more efficient, more readable, and simpler.
@@ -101,6 +379,8 @@ class EditDistance {
          * SB: within the resized matrix, so creating the matrix in this method
          * SB: may be all that is required and the matrices can be removed
          * SB: from the callers and the parameter list.
+         * The matrix has been replaced by three rows held in a scratch 
+         * buffer kept by each thread; the parameter is ignored.
          */
 
         boolean isSwap;
@@ -108,49 +388,53 @@ class EditDistance {
         int aSize = word.length() + 1;
         int bSize = similar.length() + 1;
 
-        //Only allocate new memory if we need a bigger matrix. 
-        if ( matrix == null || matrix.length < aSize || matrix[0].length < bSize ) {
-            matrix = new int[aSize][bSize];
-        }
-
-        matrix[0][0] = 0;
+        // The matrix is no longer used. Only the last three rows are needed
+        // and they are held in turn in the thread's scratch buffer.
+        int[] rows = scratch( 3 * bSize );
+        int previousPrevious = 2 * bSize;
+        int previous = bSize;
+        int current = 0;
 
-        for ( int i = 1; i != aSize; ++i ) {
-            matrix[i][0] = matrix[i - 1][0] + COST_OF_INSERTING_SOURCE_CHARACTER; //initialize the first column
-        }
+        rows[current] = 0;
         for ( int j = 1; j != bSize; ++j ) {
-            matrix[0][j] = matrix[0][j - 1] + COST_OF_DELETING_SOURCE_CHARACTER; //initalize the first row
+            rows[current + j] = rows[current + j - 1] + costOfDeletingSourceCharacter; //initalize the first row
         }
         for ( int i = 1; i != aSize; ++i ) {
+            int rotated = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = rotated;
+
+            rows[current] = rows[previous] + costOfInsertingSourceCharacter; //initialize the first column
             char sourceChar = word.charAt( i - 1 );
             for ( int j = 1; j != bSize; ++j ) {
 
                 char otherChar = similar.charAt( j - 1 );
                 if ( sourceChar == otherChar ) {
-                    matrix[i][j] = matrix[i - 1][j - 1]; //no change required, so just carry the current cost up
+                    rows[current + j] = rows[previous + j - 1]; //no change required, so just carry the current cost up
                     continue;
                 }
 
-                int costOfSubstitution = COST_OF_SUBSTITUTING_LETTERS + matrix[i - 1][j - 1];
+                int costOfSubstitution = costOfSubstitutingLetters + rows[previous + j - 1];
 
                 //if needed, add up the cost of doing a swap
                 int costOfSwap = Integer.MAX_VALUE;
 
                 isSwap = (i != 1) && (j != 1) && sourceChar == similar.charAt( j - 2 ) && word.charAt( i - 2 ) == otherChar;
                 if ( isSwap ) {
-                    costOfSwap = COST_OF_SWAPPING_LETTERS + matrix[i - 2][j - 2];
+                    costOfSwap = costOfSwappingLetters + rows[previousPrevious + j - 2];
                 }
 
-                int costOfDeletion = COST_OF_DELETING_SOURCE_CHARACTER + matrix[i][j - 1];
-                int costOfInsertion = COST_OF_INSERTING_SOURCE_CHARACTER + matrix[i - 1][j];
+                int costOfDeletion = costOfDeletingSourceCharacter + rows[current + j - 1];
+                int costOfInsertion = costOfInsertingSourceCharacter + rows[previous + j];
 
                 int costOfCaseChange = Integer.MAX_VALUE;
 
                 if ( equalIgnoreCase( sourceChar, otherChar ) ) {
-                    costOfCaseChange = COST_OF_CHANGING_CASE + matrix[i - 1][j - 1];
+                    costOfCaseChange = costOfChangingCase + rows[previous + j - 1];
                 }
 
-                matrix[i][j] = minimum( 
+                rows[current + j] = minimum( 
                         costOfSubstitution, 
                         costOfSwap, 
                         costOfDeletion, 
@@ -159,7 +443,25 @@ class EditDistance {
             }
         }
 
-        return matrix[aSize - 1][bSize - 1];
+        return rows[current + bSize - 1];
+    }
+
+    /**
+     * Retrieves the calling thread's scratch buffer, enlarged if it is 
+     * smaller than the size required. The buffer is reused by every 
+     * distance calculated by the thread, so that no memory is allocated 
+     * once the buffer is large enough for the longest words compared.
+     *
+     * @param size the number of elements required
+     * @return the thread's scratch buffer
+     */
+    private static int[] scratch( int size ) {
+        int[] buffer = SCRATCH.get();
+        if ( buffer.length < size ) {
+            buffer = new int[Math.max( size, 2 * buffer.length )];
+            SCRATCH.set( buffer );
+        }
+        return buffer;
     }
 
     
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
 /**
@@ -43,6 +44,13 @@ import java.util.HashMap;
  * describes letters to associate with a syllable. The second group is the
  * <em>replacement expression</em> giving the phonetic equivalent of the
  * <em>match expression</em>.
+ * <p>
+ * Once read, the rules are compiled into a dispatch table indexed by the
+ * first character of their match expression, so that at each position of 
+ * a word only the rules that could match the character at that position 
+ * are tried. The rules in each entry of the table retain the order in 
+ * which they appear in the phonetic file.
+ * </p>
  *
  * @see ASpellSpellingDictionary ASpellSpellingDictionary for information on
  * getting phonetic files for aspell.
@@ -101,14 +109,25 @@ public class GenericTransformator implements Transformator {
      * During phonetic transformation of a word each numeric character is
      * replaced by this DIGIT_CODE.
      */
-    private static final String DIGIT_CODE = "0";
+    private static final char DIGIT_CODE = '0';
     /**
      * Phonetic file character code indicating that the replace expression is
      * empty.
      */
     private static final String EMPTY_REPLACEMENT_EXPRESSION = "_";
 
+    /**
+     * Characters below this value are dispatched through an array, others
+     * through a map.
+     */
+    private static final int DISPATCH_TABLE_SIZE = 256;
+
     private TransformationRule[] ruleArray = null;
+    // the rules to try for each first character, in the order of ruleArray
+    private TransformationRule[][] dispatchTable;
+    private HashMap<Character, TransformationRule[]> extendedDispatchTable;
+    // the rules that may match whatever the first character is
+    private TransformationRule[] wildcardRules;
     private char[] alphabetString = DEFAULT_ENGLISH_ALPHABET;
 
     /**
@@ -233,31 +252,37 @@ public class GenericTransformator implements Transformator {
             return null;
         }
 
-        StringBuilder outputString = new StringBuilder( word.toUpperCase() );
-        int stringLength = outputString.length();
+        char[] output = word.toUpperCase().toCharArray();
+        int stringLength = output.length;
         int startPosition = 0;
 
         while ( startPosition < stringLength ) {
 
             int add = 1;
-            if ( Character.isDigit( outputString.charAt( startPosition ) ) ) {
-                replace( outputString, startPosition, startPosition + DIGIT_CODE.length(), DIGIT_CODE );
+            char character = output[startPosition];
+            if ( Character.isDigit( character ) ) {
+                output[startPosition] = DIGIT_CODE;
                 startPosition += add;
                 continue;
             }
 
-            for ( TransformationRule rule : ruleArray ) {
+            for ( TransformationRule rule : rulesStartingWith( character ) ) {
                 if ( rule.startsWithExpression() && startPosition > 0 ) {
                     continue;
                 }
                 if ( startPosition + rule.lengthOfMatch() > stringLength ) {
                     continue;
                 }
-                if ( rule.isMatching( outputString, startPosition ) ) {
+                if ( rule.isMatching( output, stringLength, startPosition ) ) {
                     String replacementExpression = rule.getReplacementExpression();
 
                     add = replacementExpression.length();
-                    replace( outputString, startPosition, startPosition + rule.getTakeOut(), replacementExpression );
+                    output = replace( 
+                            output, 
+                            stringLength, 
+                            startPosition, 
+                            startPosition + rule.getTakeOut(), 
+                            replacementExpression );
                     stringLength -= rule.getTakeOut();
                     stringLength += add;
                     break;
@@ -266,7 +291,19 @@ public class GenericTransformator implements Transformator {
             startPosition += add;
         }
 
-        return outputString.toString();
+        return new String( output, 0, stringLength );
+    }
+
+    /**
+     * Retrieves the rules that may match at a position holding the given 
+     * character.
+     */
+    private TransformationRule[] rulesStartingWith( char character ) {
+        if ( character < DISPATCH_TABLE_SIZE ) {
+            return this.dispatchTable[character];
+        }
+        TransformationRule[] rules = this.extendedDispatchTable.get( character );
+        return rules == null ? this.wildcardRules : rules;
     }
 
     // Used to build up the transformation table.
@@ -278,6 +315,56 @@ public class GenericTransformator implements Transformator {
         }
 
         this.ruleArray = ruleList.toArray( new TransformationRule[0] );
+        compileRules();
+    }
+
+    /**
+     * Builds the dispatch table. Each character that begins the match 
+     * expression of at least one rule is mapped to those rules and to the 
+     * wildcard rules, i.e. the rules that do not depend on the first 
+     * character, in their original order. Every other character is mapped 
+     * to the wildcard rules alone.
+     */
+    private void compileRules() {
+        ArrayList<TransformationRule> wildcards = new ArrayList<>();
+        HashMap<Character, ArrayList<TransformationRule>> buckets = new HashMap<>();
+        for ( TransformationRule rule : this.ruleArray ) {
+            char[] firstCharacters = rule.firstCharacters();
+            if ( firstCharacters == null ) {
+                wildcards.add( rule );
+                // wildcard rules are tried by every character
+                for ( ArrayList<TransformationRule> bucket : buckets.values() ) {
+                    bucket.add( rule );
+                }
+            }
+            else {
+                for ( char character : firstCharacters ) {
+                    ArrayList<TransformationRule> bucket = buckets.get( character );
+                    if ( bucket == null ) {
+                        bucket = new ArrayList<>( wildcards );
+                        buckets.put( character, bucket );
+                    }
+                    if ( bucket.isEmpty() || bucket.get( bucket.size() - 1 ) != rule ) {
+                        bucket.add( rule );
+                    }
+                }
+            }
+        }
+
+        this.wildcardRules = wildcards.toArray( new TransformationRule[0] );
+        this.dispatchTable = new TransformationRule[DISPATCH_TABLE_SIZE][];
+        Arrays.fill( this.dispatchTable, this.wildcardRules );
+        this.extendedDispatchTable = new HashMap<>();
+        for ( Character character : buckets.keySet() ) {
+            TransformationRule[] rules = 
+                    buckets.get( character ).toArray( new TransformationRule[0] );
+            if ( character < DISPATCH_TABLE_SIZE ) {
+                this.dispatchTable[character] = rules;
+            }
+            else {
+                this.extendedDispatchTable.put( character, rules );
+            }
+        }
     }
 
     // SB: serious refactoring when time is available.
@@ -388,21 +475,34 @@ public class GenericTransformator implements Transformator {
         return line.trim();
     }
 
-    // SB: moved here from a utility class
-    // SB: review and refactor
-    private StringBuilder replace( 
-            StringBuilder buffer, 
+    /**
+     * Replaces the characters from {@code start} up to {@code end} with the 
+     * text. The array is only reallocated if the result does not fit.
+     *
+     * @param buffer the characters of the word
+     * @param length the length of the word held in the buffer
+     * @param start the first position to replace
+     * @param end the position following the last position to replace
+     * @param text the replacement
+     * @return the buffer, or a larger copy of it, holding the result
+     */
+    private static char[] replace( 
+            char[] buffer, 
+            int length, 
             int start, 
             int end, 
             String text ) {
         int textLength = text.length();
-        char[] charArray = new char[buffer.length() + textLength - (end - start)];
-        buffer.getChars( 0, start, charArray, 0 );
-        text.getChars( 0, textLength, charArray, start );
-        buffer.getChars( end, buffer.length(), charArray, start + textLength );
-        buffer.setLength( 0 );
-        buffer.append( charArray );
-        return buffer;
+        int resultLength = length + textLength - (end - start);
+        char[] result = buffer;
+        if ( resultLength > buffer.length ) {
+            result = Arrays.copyOf( buffer, Math.max( resultLength, buffer.length * 2 ) );
+        }
+        if ( end != start + textLength ) {
+            System.arraycopy( buffer, end, result, start + textLength, length - end );
+        }
+        text.getChars( 0, textLength, result, start );
+        return result;
     }
 
     // Inner Classes
@@ -436,11 +536,55 @@ public class GenericTransformator implements Transformator {
             this.end = end;
         }
 
+        /**
+         * Finds the characters that the word must have at the position where
+         * the rule is tried. The rule can only match if its match expression 
+         * starts with a character, or with a group of characters that is 
+         * not followed by a character outside a group. Note that
+         * {@link #isMatching(char[], int, int) isMatching} does not reject 
+         * a word when a group followed by a character fails to match.
+         *
+         * @return the possible first characters, or {@code null} if the rule
+         * may match whatever the first character is
+         */
+        public char[] firstCharacters() {
+            if ( this.match.length == 0 ) {
+                return null;
+            }
+            char first = this.match[0];
+            if ( first != START_MULTI && first != END_MULTI ) {
+                return new char[] {first};
+            }
+
+            int groupEnd = 1;
+            while ( groupEnd < this.match.length 
+                    && this.match[groupEnd] != START_MULTI 
+                    && this.match[groupEnd] != END_MULTI ) {
+                groupEnd++;
+            }
+            if ( groupEnd == this.match.length ) {
+                return null;
+            }
+            boolean inMulti = false;
+            for ( int matchPosition = groupEnd + 1; 
+                    matchPosition < this.match.length; 
+                    matchPosition++ ) {
+                char matchCharacter = this.match[matchPosition];
+                if ( matchCharacter == START_MULTI || matchCharacter == END_MULTI ) {
+                    inMulti = !inMulti;
+                }
+                else if ( !inMulti ) {
+                    return null;
+                }
+            }
+            return Arrays.copyOfRange( this.match, 1, groupEnd );
+        }
+
         /**
          * Returns true if word from position and forward matches the match string.
-         * Precondition: {@code wordPos+matchLength<word.length()}
+         * Precondition: {@code wordPos+matchLength<=length}
          */
-        public boolean isMatching( StringBuilder word, int wordPosition ) {
+        public boolean isMatching( char[] word, int length, int wordPosition ) {
             boolean matching = true;
             boolean inMulti = false;
             boolean multiMatch = false;
@@ -460,7 +604,7 @@ public class GenericTransformator implements Transformator {
                     }
                 }
                 else {
-                    if ( matchCharacter != word.charAt( wordPosition ) ) {
+                    if ( matchCharacter != word[wordPosition] ) {
                         if ( inMulti ) {
                             multiMatch = multiMatch | false;
                         }
@@ -484,7 +628,7 @@ public class GenericTransformator implements Transformator {
                     }
                 }
             }
-            if ( this.end && wordPosition != word.length() ) {
+            if ( this.end && wordPosition != length ) {
                 matching = false;
             }
             return matching;
@@ -28,9 +28,13 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +55,15 @@ import org.slf4j.LoggerFactory;
  * Note that you must create the dictionary with a word list for the added words
  * to persist.
  * </p>
+ * <p>
+ * Once loading is complete the dictionary can be made read-only by calling
+ * {@linkplain #freeze()}. The phonetic index is then packed into a compact,
+ * immutable structure and the dictionary may be queried concurrently 
+ * without locking. If {@linkplain Configuration#SPELL_BOUNDED_SEARCH} is 
+ * enabled, a trie of the words is also built, so that all the words within 
+ * the spell threshold of a misspelling can be found when none share its 
+ * phonetic code.
+ * </p>
  */
 public class HashedSpellingDictionary extends ASpellSpellingDictionary {
     private static final Logger LOGGER = 
@@ -65,10 +78,30 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
 
     /**
      * The hashmap that contains the word dictionary. The map is hashed on the
-     * double metaphone code. The map entry contains a LinkedList of words that
+     * double metaphone code. The map entry contains a list of words that
      * have the same double meta code.
      */
-    private HashMap<String,LinkedList<String>> mainDictionary;
+    private HashMap<String,ArrayList<String>> mainDictionary;
+    
+    /**
+     * The words in the main dictionary, so that a word can be found without 
+     * calculating its phonetic code. The set is discarded when the 
+     * dictionary is frozen, as the packed index can find words itself.
+     */
+    private HashSet<String> wordSet = new HashSet<>( INITIAL_CAPACITY );
+    
+    /**
+     * The packed copy of the main dictionary created by {@linkplain #freeze()}.
+     * The field is {@code null} until the dictionary is frozen.
+     */
+    private volatile PackedWordIndex frozenDictionary;
+    
+    /**
+     * A trie of the words in the frozen dictionary, used to search for 
+     * words within the spell threshold. The field is {@code null} unless the 
+     * dictionary is frozen and bounded search is enabled.
+     */
+    private volatile WordTrie wordTrie;
     
 
     /**
@@ -105,7 +138,26 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
      */
     public HashedSpellingDictionary( Reader wordList, boolean isNormalised ) 
             throws IOException {
-        super( (File) null );
+        this( wordList, isNormalised, Configuration.getConfiguration() );
+    }
+
+    /**
+     * Dictionary Constructor with the option to normalise the entries that 
+     * uses the settings in the given configuration.
+     *
+     * @param wordList The file containing the words list for the dictionary
+     * @param isNormalised indicates whether the word list should be normalised
+     * to lower case
+     * @param configuration the configuration of the spelling engine
+     * @throws java.io.IOException if problems were encountered reading the 
+     * word list file
+     */
+    public HashedSpellingDictionary( 
+            Reader wordList, 
+            boolean isNormalised, 
+            Configuration configuration ) 
+            throws IOException {
+        super( (File) null, configuration );
         this.mainDictionary = new HashMap<>( INITIAL_CAPACITY );
         if ( isNormalised ) {
             createNormalisedDictionary( new BufferedReader( wordList ) );
@@ -144,7 +196,28 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
      */
     public HashedSpellingDictionary( File wordListFile, boolean isNormalised ) 
             throws FileNotFoundException, IOException {
-        this( new FileReader( wordListFile ) );
+        this( wordListFile, isNormalised, Configuration.getConfiguration() );
+    }
+
+    /**
+     * Dictionary convenience Constructor with the option to normalise the 
+     * entries that uses the settings in the given configuration.
+     *
+     * @param wordListFile The file containing the words list for the dictionary
+     * @param isNormalised indicates whether the word list should be normalised 
+     * to lower case
+     * @param configuration the configuration of the spelling engine
+     * @throws java.io.FileNotFoundException if a problem was encountered 
+     * locating the word list file on the system
+     * @throws java.io.IOException if problems were encountered reading the 
+     * word list file
+     */
+    public HashedSpellingDictionary( 
+            File wordListFile, 
+            boolean isNormalised, 
+            Configuration configuration ) 
+            throws FileNotFoundException, IOException {
+        this( new FileReader( wordListFile ), isNormalised, configuration );
         LOGGER.debug( "Dictionary loaded: {} words ", this.mainDictionary.size());
     }
 
@@ -247,6 +320,45 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
         addDictionaryHelper( new BufferedReader( wordList ) );
     }
 
+    /**
+     * Makes the dictionary read-only. The phonetic index is packed into a 
+     * {@linkplain PackedWordIndex}, which holds all the words in a single 
+     * array, and the mutable index is discarded. 
+     * After this method returns, attempts to add words to the dictionary 
+     * throw {@code UnsupportedOperationException}, and the dictionary may 
+     * be queried by many threads at once without synchronisation.
+     * <p>
+     * Calling this method on a dictionary that is already read-only has 
+     * no effect.
+     * </p>
+     */
+    public synchronized void freeze() {
+        if ( this.frozenDictionary != null ) {
+            return;
+        }
+        
+        PackedWordIndex packed = new PackedWordIndex( this.mainDictionary );
+        LOGGER.debug( "Packed {} words with {} phonetic codes", 
+                packed.wordCount(), packed.codeCount() );
+        if ( isBoundedSearch() ) {
+            WordTrie trie = new WordTrie( packed );
+            LOGGER.debug( "Built a trie of {} nodes", trie.nodeCount() );
+            this.wordTrie = trie;
+        }
+        this.frozenDictionary = packed;
+        this.mainDictionary = null;
+        this.wordSet = null;
+    }
+
+    /**
+     * Indicates whether {@linkplain #freeze()} has been called.
+     * @return {@code true} if the dictionary is read-only
+     */
+    @Override
+    public boolean isReadOnly() {
+        return this.frozenDictionary != null;
+    }
+
     /**
      * Add a word permanently to the dictionary (and the dictionary file).
      * <p>
@@ -325,16 +437,18 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
      * @param word The word to add
      */
     protected void putWord( String word ) {
+        checkWritable();
         String code = getPhoneticCode( word );
-        LinkedList<String> wordList = this.mainDictionary.get( code );
+        ArrayList<String> wordList = this.mainDictionary.get( code );
         if ( wordList != null ) {
             wordList.add( word );
         }
         else {
-            wordList = new LinkedList<>();
+            wordList = new ArrayList<>();
             wordList.add( word );
             this.mainDictionary.put( code, wordList );
         }
+        this.wordSet.add( word );
     }
 
     /**
@@ -344,8 +458,9 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
      * @param word The word to add
      */
     protected void putWordUnique( String word ) {
+        checkWritable();
         String code = getPhoneticCode( word );
-        LinkedList<String> wordList = this.mainDictionary.get( code );
+        ArrayList<String> wordList = this.mainDictionary.get( code );
 
         if ( wordList != null ) {
             boolean isInDictionary = false;
@@ -359,14 +474,40 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
 
             if ( !isInDictionary ) {
                 wordList.add( word );
+                this.wordSet.add( word );
             }
         }
         else {
-            wordList = new LinkedList<>();
+            wordList = new ArrayList<>();
             wordList.add( word );
             this.mainDictionary.put( code, wordList );
+            this.wordSet.add( word );
+        }
+    }
 
+    // SB: NB this test behaves as a conventional spell checker with 
+    // capitalisation, i.e. the test string 'sunday' would be seen as
+    // incorrectly spelt if only 'Sunday' is in the dictionary.
+    /**
+     * Returns true if the word, or the word normalised to lower case, is 
+     * in the dictionary. The words are found by hashing, so no phonetic 
+     * code is calculated.
+     */
+    @Override
+    public boolean isCorrect( String word ) {
+        if ( contains( word ) ) {
+            return true;
         }
+        String lowerCase = word.toLowerCase();
+        return !lowerCase.equals( word ) && contains( lowerCase );
+    }
+
+    private boolean contains( String word ) {
+        PackedWordIndex frozen = this.frozenDictionary;
+        if ( frozen != null ) {
+            return frozen.contains( word );
+        }
+        return this.wordSet.contains( word );
     }
 
     /**
@@ -377,12 +518,83 @@ public class HashedSpellingDictionary extends ASpellSpellingDictionary {
      */
     @Override
     public List<String> getWords( String code ) {
+        PackedWordIndex frozen = this.frozenDictionary;
+        if ( frozen != null ) {
+            return frozen.get( code );
+        }
+        
         //Check the main dictionary.
-        LinkedList<String> mainDictionaryResult = this.mainDictionary.get( code );
+        ArrayList<String> mainDictionaryResult = this.mainDictionary.get( code );
         if ( mainDictionaryResult == null ) {
-            return new LinkedList<>();
+            return new ArrayList<>();
         }
         return mainDictionaryResult;
     }
 
+    /**
+     * Searches the trie of the frozen dictionary for words within the 
+     * spell threshold. No words are found if the dictionary has not been 
+     * frozen or bounded search is not enabled.
+     *
+     * @param word the misspelt word
+     * @return the words within the spell threshold
+     */
+    @Override
+    protected List<Word> getWordsWithinThreshold( String word ) {
+        WordTrie trie = this.wordTrie;
+        if ( trie == null ) {
+            return Collections.emptyList();
+        }
+        return trie.search( word, spellThreshold(), costModel(), null );
+    }
+
+    /**
+     * Returns a list of the words that have any of the given phonetic codes.
+     * Once the dictionary is frozen the words are copied directly from the 
+     * packed index.
+     *
+     * @param codes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    @Override
+    protected List<String> getWords( Collection<String> codes ) {
+        PackedWordIndex frozen = this.frozenDictionary;
+        if ( frozen == null ) {
+            return super.getWords( codes );
+        }
+        
+        ArrayList<String> words = new ArrayList<>();
+        for ( String code : codes ) {
+            int slot = frozen.find( code );
+            if ( slot >= 0 ) {
+                for ( int position = frozen.start( slot ); 
+                        position < frozen.end( slot ); 
+                        position++ ) {
+                    words.add( frozen.word( position ) );
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Provides read access to the phonetic index, e.g. so that it can be 
+     * compiled into a binary dictionary file.
+     * @return an unmodifiable map from phonetic codes to words
+     */
+    Map<String,? extends List<String>> phoneticIndex() {
+        PackedWordIndex frozen = this.frozenDictionary;
+        if ( frozen != null ) {
+            return frozen.asMap();
+        }
+        return Collections.unmodifiableMap( this.mainDictionary );
+    }
+
+    private void checkWritable() {
+        if ( this.frozenDictionary != null ) {
+            throw new UnsupportedOperationException( 
+                    "Words cannot be added to a read-only dictionary" );
+        }
+    }
+
 }
@@ -0,0 +1,365 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A read-only dictionary that answers queries from a memory-mapped 
+ * dictionary file of "code*word" lines sorted by code, the file format of 
+ * {@linkplain DichotomyDiskSpellingDictionary}.
+ * <p>
+ * When the dictionary is opened the file is mapped and the offset of the 
+ * start of each line is recorded, so the words with a code are found by a 
+ * binary search of the lines that compares the code with the bytes of the 
+ * mapped file, without a system call or decoding any line but those 
+ * returned. {@code DichotomyDiskSpellingDictionary} instead reads and 
+ * decodes lines of the file with a system call for each line visited by 
+ * its search, as it has no index of the lines. Only absolute reads of the 
+ * mapped file are made, so a dictionary may be queried by several threads 
+ * at once.
+ * </p>
+ * <p>
+ * The encoding of the file must represent the characters '*', 
+ * carriage return and line feed as the single bytes of their ASCII 
+ * values, as ISO-8859-1 and UTF-8 do. The lines may be ended by any of 
+ * "\n", "\r" or "\r\n", and empty lines are ignored. The codes are compared 
+ * by the unsigned values of their encoded bytes, which for phonetic codes 
+ * of ASCII characters is the order of {@code String.compareTo}.
+ * </p>
+ * <p>
+ * The file is read with a single mapping, so it cannot be larger than 
+ * 2GB.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class MappedDichotomyDiskSpellingDictionary extends ASpellSpellingDictionary {
+
+    private static final byte DELIMITER = '*';
+
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    // the offset of the first byte of each line
+    private final int[] lineStarts;
+
+    /**
+     * Dictionary convenience constructor. Each byte of the file is read as 
+     * a character, as {@code DichotomyDiskSpellingDictionary} does when no 
+     * encoding is given.
+     *
+     * @param wordListFile the file of "code*word" lines sorted by code
+     * @throws java.io.FileNotFoundException indicates problems locating the
+     * words list file on the system
+     * @throws java.io.IOException indicates problems reading the words list
+     * file, or a line without a '*'
+     */
+    public MappedDichotomyDiskSpellingDictionary( File wordListFile )
+            throws FileNotFoundException, IOException {
+        this( wordListFile, (File) null, null );
+    }
+
+    /**
+     * Dictionary convenience constructor.
+     *
+     * @param wordListFile the file of "code*word" lines sorted by code
+     * @param encoding the character set encoding of the file
+     * @throws java.io.FileNotFoundException indicates problems locating the
+     * words list file on the system
+     * @throws java.io.IOException indicates problems reading the words list
+     * file, or a line without a '*'
+     */
+    public MappedDichotomyDiskSpellingDictionary( 
+            File wordListFile, 
+            String encoding )
+            throws FileNotFoundException, IOException {
+        this( wordListFile, (File) null, encoding );
+    }
+
+    /**
+     * Dictionary constructor that uses an aspell phonetic file to build the
+     * transformation table.
+     *
+     * @param wordListFile the file of "code*word" lines sorted by code
+     * @param phoneticFile the file to use for phonetic transformation of 
+     * the wordlist
+     * @throws java.io.FileNotFoundException indicates problems locating the
+     * file on the system
+     * @throws java.io.IOException indicates problems reading the words list
+     * file, or a line without a '*'
+     */
+    public MappedDichotomyDiskSpellingDictionary( 
+            File wordListFile, 
+            File phoneticFile )
+            throws FileNotFoundException, IOException {
+        super( phoneticFile );
+        this.charset = StandardCharsets.ISO_8859_1;
+        this.buffer = map( wordListFile );
+        this.lineStarts = indexLines( this.buffer, wordListFile );
+    }
+
+    /**
+     * Dictionary constructor that uses an aspell phonetic file to build the
+     * transformation table.
+     *
+     * @param wordListFile the file of "code*word" lines sorted by code
+     * @param phoneticFile the file to use for phonetic transformation of 
+     * the wordlist, or {@code null} for the 
+     * {@code DoubleMetaphoneTransformator}
+     * @param encoding the character set encoding of the files
+     * @throws java.io.FileNotFoundException indicates problems locating the
+     * file on the system
+     * @throws java.io.IOException indicates problems reading the words list
+     * file, or a line without a '*'
+     */
+    public MappedDichotomyDiskSpellingDictionary( 
+            File wordListFile, 
+            File phoneticFile, 
+            String encoding )
+            throws FileNotFoundException, IOException {
+        super( phoneticFile, encoding );
+        this.charset = encoding == null 
+                ? StandardCharsets.ISO_8859_1 
+                : Charset.forName( encoding );
+        this.buffer = map( wordListFile );
+        this.lineStarts = indexLines( this.buffer, wordListFile );
+    }
+
+    /**
+     * Add a word permanently to the dictionary (and the dictionary file).
+     * <i>not implemented !</i>
+     *
+     * @param word The word to add.
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addWord( String word ) {
+        throw new UnsupportedOperationException( 
+                "error: addWord is not implemented "
+                        + "for MappedDichotomyDiskSpellingDictionary" );
+    }
+
+    /**
+     * The dictionary file cannot be modified.
+     * @return {@code true}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * The number of lines, and so of words, in the dictionary file.
+     * @return the number of words
+     */
+    public int size() {
+        return this.lineStarts.length;
+    }
+
+    /**
+     * Returns a list of strings (words) for the code.
+     *
+     * @param code The phonetic code common to the list of words
+     * @return A list of words having the same phonetic code, in the order 
+     * of the file
+     */
+    @Override
+    public List<String> getWords( String code ) {
+        ArrayList<String> words = new ArrayList<>();
+        addWords( code.getBytes( this.charset ), 0, words );
+        return words;
+    }
+
+    /**
+     * Returns a list of the words that have any of the given phonetic codes.
+     * The codes are sought in sorted order, so that each binary search 
+     * starts from the line after the words of the previous code.
+     *
+     * @param codes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    @Override
+    protected List<String> getWords( Collection<String> codes ) {
+        byte[][] encodedCodes = new byte[codes.size()][];
+        int count = 0;
+        for ( String code : codes ) {
+            encodedCodes[count++] = code.getBytes( this.charset );
+        }
+        Arrays.sort( encodedCodes, MappedDichotomyDiskSpellingDictionary::compareUnsigned );
+
+        ArrayList<String> words = new ArrayList<>();
+        int low = 0;
+        for ( byte[] code : encodedCodes ) {
+            low = addWords( code, low, words );
+        }
+        return words;
+    }
+
+    /**
+     * Adds the words of the lines with a code to a list, searching from 
+     * the line at index {@code low}.
+     * @return the index of the first line with a greater code
+     */
+    private int addWords( byte[] code, int low, List<String> words ) {
+        int line = lowerBound( code, low );
+        while ( line < this.lineStarts.length && compare( code, line ) == 0 ) {
+            words.add( word( line ) );
+            line++;
+        }
+        return line;
+    }
+
+    /**
+     * Binary search for the first line, from the line at index 
+     * {@code low}, whose code is not less than the given code.
+     */
+    private int lowerBound( byte[] code, int low ) {
+        int high = this.lineStarts.length;
+        while ( low < high ) {
+            int middle = ( low + high ) >>> 1;
+            if ( compare( code, middle ) > 0 ) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares an encoded code with the code of a line using the unsigned 
+     * values of the bytes.
+     */
+    private int compare( byte[] code, int line ) {
+        int position = this.lineStarts[line];
+        for ( int i = 0; ; i++ ) {
+            byte stored = this.buffer.get( position + i );
+            if ( stored == DELIMITER ) {
+                return i < code.length ? 1 : 0;
+            }
+            if ( i == code.length ) {
+                return -1;
+            }
+            int difference = ( code[i] & 0xff ) - ( stored & 0xff );
+            if ( difference != 0 ) {
+                return difference;
+            }
+        }
+    }
+
+    /**
+     * Decodes the word of a line.
+     */
+    private String word( int line ) {
+        int start = this.lineStarts[line];
+        while ( this.buffer.get( start ) != DELIMITER ) {
+            start++;
+        }
+        start++;
+        int end = start;
+        while ( end < this.buffer.limit() && !isLineEnd( this.buffer.get( end ) ) ) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        for ( int i = 0; i < bytes.length; i++ ) {
+            bytes[i] = this.buffer.get( start + i );
+        }
+        return new String( bytes, this.charset );
+    }
+
+    /**
+     * Maps the whole of a file.
+     */
+    private static ByteBuffer map( File wordListFile ) throws IOException {
+        // the mapping remains valid once the channel is closed
+        try ( RandomAccessFile file = new RandomAccessFile( wordListFile, "r" );
+                FileChannel channel = file.getChannel() ) {
+            if ( channel.size() > Integer.MAX_VALUE ) {
+                throw new IOException( wordListFile 
+                        + " is too large to be mapped" );
+            }
+            return channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+    }
+
+    /**
+     * Records the offset of the start of each non-empty line and checks 
+     * that every line has a code.
+     */
+    private static int[] indexLines( ByteBuffer buffer, File wordListFile ) 
+            throws IOException {
+        int[] starts = new int[1024];
+        int count = 0;
+        int limit = buffer.limit();
+        int position = 0;
+        while ( position < limit ) {
+            if ( isLineEnd( buffer.get( position ) ) ) {
+                position++;
+                continue;
+            }
+            if ( count == starts.length ) {
+                starts = Arrays.copyOf( starts, count * 2 );
+            }
+            starts[count++] = position;
+            boolean delimited = false;
+            byte b;
+            while ( position < limit && !isLineEnd( b = buffer.get( position ) ) ) {
+                delimited |= b == DELIMITER;
+                position++;
+            }
+            if ( !delimited ) {
+                throw new IOException( "bad format: no * in line " + count 
+                        + " of " + wordListFile );
+            }
+        }
+        return Arrays.copyOf( starts, count );
+    }
+
+    private static boolean isLineEnd( byte b ) {
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Compares two encoded codes using the unsigned values of the bytes.
+     */
+    private static int compareUnsigned( byte[] first, byte[] second ) {
+        int length = Math.min( first.length, second.length );
+        for ( int i = 0; i < length; i++ ) {
+            int difference = ( first[i] & 0xff ) - ( second[i] & 0xff );
+            if ( difference != 0 ) {
+                return difference;
+            }
+        }
+        return first.length - second.length;
+    }
+}
@@ -0,0 +1,348 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A read-only dictionary that answers queries directly from a memory-mapped
+ * compiled dictionary file. Compiled dictionary files are created from
+ * word lists by {@linkplain DictionaryCompiler}. Opening a compiled
+ * dictionary only maps the file, so it is very much faster than loading a
+ * word list, and the words occupy almost no heap.
+ * <p>
+ * The file contains the phonetic index of the dictionary, so it must be
+ * queried with the same phonetic transformation that was used to compile
+ * it. By default both use {@linkplain DoubleMetaphoneTransformator}.
+ * </p>
+ * <p>
+ * File layout (all integers are big-endian):
+ * </p>
+ * <pre>
+ * int    magic number 'MDSC'
+ * int    format version
+ * int    number of phonetic codes
+ * int    number of words
+ * int[]  offset of each code record, in code order
+ * code records, each comprising:
+ *     short  length of the code in bytes, followed by the UTF-8 code
+ *     int    number of words with the code
+ *     the words, each a short length followed by UTF-8 bytes
+ * </pre>
+ * <p>
+ * Codes are ordered by the unsigned values of their UTF-8 bytes, so a
+ * code can be located by binary search without decoding the others.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class MappedSpellingDictionary extends ASpellSpellingDictionary {
+
+    /**
+     * Identifies a compiled dictionary file: the ASCII characters 'MDSC'.
+     */
+    static final int MAGIC = 0x4D445343;
+
+    /**
+     * The current version of the compiled dictionary format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size in bytes of the header preceding the code offsets.
+     */
+    static final int HEADER_LENGTH = 16;
+
+    private final ByteBuffer buffer;
+    private final int codeCount;
+    private final int wordCount;
+
+    /**
+     * Opens a compiled dictionary that uses the
+     * {@code DoubleMetaphoneTransformator}.
+     *
+     * @param compiledDictionary a file created by {@code DictionaryCompiler}
+     * @throws IOException if the file cannot be read or is not a compiled
+     * dictionary
+     */
+    public MappedSpellingDictionary( File compiledDictionary ) throws IOException {
+        this( compiledDictionary, null, Configuration.getConfiguration() );
+    }
+
+    /**
+     * Opens a compiled dictionary that uses the
+     * {@code DoubleMetaphoneTransformator} and the settings in the given 
+     * configuration.
+     *
+     * @param compiledDictionary a file created by {@code DictionaryCompiler}
+     * @param configuration the configuration of the spelling engine
+     * @throws IOException if the file cannot be read or is not a compiled
+     * dictionary
+     */
+    public MappedSpellingDictionary( 
+            File compiledDictionary, 
+            Configuration configuration ) 
+            throws IOException {
+        this( compiledDictionary, null, configuration );
+    }
+
+    /**
+     * Opens a compiled dictionary that uses an aspell phonetic file.
+     *
+     * @param compiledDictionary a file created by {@code DictionaryCompiler}
+     * @param phonetic the phonetic file used when the dictionary was
+     * compiled, or {@code null} for the {@code DoubleMetaphoneTransformator}
+     * @throws IOException if the files cannot be read or the dictionary
+     * file is not a compiled dictionary
+     */
+    public MappedSpellingDictionary( File compiledDictionary, File phonetic )
+            throws IOException {
+        this( compiledDictionary, phonetic, Configuration.getConfiguration() );
+    }
+
+    /**
+     * Opens a compiled dictionary that uses an aspell phonetic file and the 
+     * settings in the given configuration.
+     *
+     * @param compiledDictionary a file created by {@code DictionaryCompiler}
+     * @param phonetic the phonetic file used when the dictionary was
+     * compiled, or {@code null} for the {@code DoubleMetaphoneTransformator}
+     * @param configuration the configuration of the spelling engine
+     * @throws IOException if the files cannot be read or the dictionary
+     * file is not a compiled dictionary
+     */
+    public MappedSpellingDictionary( 
+            File compiledDictionary, 
+            File phonetic, 
+            Configuration configuration )
+            throws IOException {
+        super( phonetic, configuration );
+
+        // the mapping remains valid once the channel is closed
+        try ( RandomAccessFile file = new RandomAccessFile( compiledDictionary, "r" );
+                FileChannel channel = file.getChannel() ) {
+            this.buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+
+        if ( this.buffer.limit() < HEADER_LENGTH
+                || this.buffer.getInt( 0 ) != MAGIC ) {
+            throw new IOException( compiledDictionary
+                    + " is not a compiled dictionary file" );
+        }
+        if ( this.buffer.getInt( 4 ) != VERSION ) {
+            throw new IOException( "Unsupported compiled dictionary version "
+                    + this.buffer.getInt( 4 ) + " in " + compiledDictionary );
+        }
+        this.codeCount = this.buffer.getInt( 8 );
+        this.wordCount = this.buffer.getInt( 12 );
+    }
+
+    /**
+     * Words cannot be added to a compiled dictionary.
+     *
+     * @param word a word
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addWord( String word ) {
+        throw new UnsupportedOperationException(
+                "Words cannot be added to a compiled dictionary" );
+    }
+
+    /**
+     * Compiled dictionaries are always read-only.
+     * @return {@code true}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * The number of words in the dictionary.
+     * @return the number of words
+     */
+    public int size() {
+        return this.wordCount;
+    }
+
+    /**
+     * Passes each word in the dictionary to an action, in the order in 
+     * which the words are stored. Every word is decoded, so this is much 
+     * slower than opening the dictionary, and is intended for building 
+     * other structures from the words, such as a membership filter.
+     *
+     * @param action the action to be performed for each word
+     */
+    public void forEachWord( Consumer<String> action ) {
+        for ( int index = 0; index < this.codeCount; index++ ) {
+            forEachWord( recordOffset( index ), action );
+        }
+    }
+
+    /**
+     * Returns a list of words that have the same phonetic code.
+     *
+     * @param code The phonetic code common to the list of words
+     * @return A list of words having the same phonetic code
+     */
+    @Override
+    protected List<String> getWords( String code ) {
+        int index = search( code.getBytes( StandardCharsets.UTF_8 ), 0 );
+        if ( index < 0 ) {
+            return Collections.emptyList();
+        }
+
+        ArrayList<String> words = new ArrayList<>();
+        forEachWord( recordOffset( index ), words::add );
+        return words;
+    }
+
+    /**
+     * Returns a list of the words that have any of the given phonetic codes.
+     * The codes are sought in sorted order, so that each binary search 
+     * starts from the record of the previous code, and the buckets are read 
+     * in a single pass through the file.
+     *
+     * @param codes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    @Override
+    protected List<String> getWords( Collection<String> codes ) {
+        byte[][] encodedCodes = new byte[codes.size()][];
+        int count = 0;
+        for ( String code : codes ) {
+            encodedCodes[count++] = code.getBytes( StandardCharsets.UTF_8 );
+        }
+        Arrays.sort( encodedCodes, MappedSpellingDictionary::compareUnsigned );
+
+        ArrayList<String> words = new ArrayList<>();
+        int low = 0;
+        for ( byte[] code : encodedCodes ) {
+            int index = search( code, low );
+            if ( index >= 0 ) {
+                forEachWord( recordOffset( index ), words::add );
+                low = index + 1;
+            }
+            else {
+                low = -index - 1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Passes the words in the bucket of a code record to an action.
+     */
+    private void forEachWord( int recordOffset, Consumer<String> action ) {
+        // only absolute reads are used, so concurrent readers are safe
+        int position = recordOffset + 2 + this.buffer.getShort( recordOffset );
+        int bucketSize = this.buffer.getInt( position );
+        position += 4;
+        for ( int i = 0; i < bucketSize; i++ ) {
+            int length = this.buffer.getShort( position );
+            position += 2;
+            action.accept( decode( position, length ) );
+            position += length;
+        }
+    }
+
+    /**
+     * Binary search of the code records from the record at index 
+     * {@code low}.
+     * @return the index of the code record, or {@code -(insertion point) - 1}
+     * if the code is not present
+     */
+    private int search( byte[] code, int low ) {
+        int high = this.codeCount - 1;
+        while ( low <= high ) {
+            int middle = ( low + high ) >>> 1;
+            int comparison = compare( code, recordOffset( middle ) );
+            if ( comparison > 0 ) {
+                low = middle + 1;
+            }
+            else if ( comparison < 0 ) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * The offset of the code record at an index.
+     */
+    private int recordOffset( int index ) {
+        return this.buffer.getInt( HEADER_LENGTH + index * 4 );
+    }
+
+    /**
+     * Compares two encoded codes using the unsigned values of the bytes.
+     */
+    private static int compareUnsigned( byte[] first, byte[] second ) {
+        int length = Math.min( first.length, second.length );
+        for ( int i = 0; i < length; i++ ) {
+            int difference = ( first[i] & 0xff ) - ( second[i] & 0xff );
+            if ( difference != 0 ) {
+                return difference;
+            }
+        }
+        return first.length - second.length;
+    }
+
+    /**
+     * Compares a code with the code stored at the given record offset using
+     * the unsigned values of the bytes.
+     */
+    private int compare( byte[] code, int recordOffset ) {
+        int storedLength = this.buffer.getShort( recordOffset );
+        int start = recordOffset + 2;
+        int length = Math.min( code.length, storedLength );
+        for ( int i = 0; i < length; i++ ) {
+            int difference = ( code[i] & 0xff ) - ( this.buffer.get( start + i ) & 0xff );
+            if ( difference != 0 ) {
+                return difference;
+            }
+        }
+        return code.length - storedLength;
+    }
+
+    private String decode( int position, int length ) {
+        byte[] bytes = new byte[length];
+        for ( int i = 0; i < length; i++ ) {
+            bytes[i] = this.buffer.get( position + i );
+        }
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+}
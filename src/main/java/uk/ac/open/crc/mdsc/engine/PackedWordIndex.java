@@ -0,0 +1,272 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable phonetic index packed into a few arrays. All the words are
+ * held in a single array, grouped by phonetic code, and the codes are held
+ * in an open addressing hash table that records where each group starts
+ * and ends. There are no per-word or per-code collection objects, so the
+ * index costs little more than the words themselves.
+ * <p>
+ * A second hash table records the position of each word, so that a word 
+ * can be found without calculating its phonetic code.
+ * </p>
+ * <p>
+ * The lists returned by {@linkplain #get(String)} are unmodifiable views of
+ * the shared word array.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+final class PackedWordIndex {
+
+    private final String[] codes;
+    private final int[] bounds;
+    private final String[] words;
+    private final int mask;
+    private final int codeCount;
+    // word positions plus one, so that zero marks an empty slot
+    private final int[] positions;
+    private final int positionMask;
+
+    /**
+     * Packs a phonetic index. The order of the words for each code is
+     * preserved.
+     * @param index a map of phonetic codes to words
+     */
+    PackedWordIndex( Map<String,? extends List<String>> index ) {
+        int capacity = tableSize( index.size() );
+        this.codes = new String[capacity];
+        this.bounds = new int[capacity * 2];
+        this.mask = capacity - 1;
+        this.codeCount = index.size();
+
+        int wordCount = 0;
+        for ( List<String> group : index.values() ) {
+            wordCount += group.size();
+        }
+        this.words = new String[wordCount];
+
+        int next = 0;
+        for ( Map.Entry<String,? extends List<String>> entry : index.entrySet() ) {
+            int slot = slot( entry.getKey() );
+            this.codes[slot] = entry.getKey();
+            this.bounds[slot * 2] = next;
+            for ( String word : entry.getValue() ) {
+                this.words[next++] = word;
+            }
+            this.bounds[slot * 2 + 1] = next;
+        }
+
+        int positionCapacity = tableSize( wordCount );
+        this.positions = new int[positionCapacity];
+        this.positionMask = positionCapacity - 1;
+        for ( int position = 0; position < wordCount; position++ ) {
+            int slot = positionSlot( this.words[position] );
+            // a word listed twice is found at its first position
+            if ( this.positions[slot] == 0 ) {
+                this.positions[slot] = position + 1;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the words that have a phonetic code.
+     * @param code a phonetic code
+     * @return an unmodifiable list of words, which is empty if the code is
+     * not in the index
+     */
+    List<String> get( String code ) {
+        int slot = slot( code );
+        if ( this.codes[slot] == null ) {
+            return Collections.emptyList();
+        }
+        return new Group( this.words, this.bounds[slot * 2], this.bounds[slot * 2 + 1] );
+    }
+
+    /**
+     * Locates the group of words that have a phonetic code. The words in 
+     * the group occupy the positions from {@linkplain #start(int)} up to, 
+     * but excluding, {@linkplain #end(int)}.
+     * @param code a phonetic code
+     * @return the slot of the code, or -1 if the code is not in the index
+     */
+    int find( String code ) {
+        int slot = slot( code );
+        return this.codes[slot] == null ? -1 : slot;
+    }
+
+    /**
+     * The position of the first word of a group.
+     * @param slot a slot returned by {@linkplain #find(String)}
+     * @return the position of the first word
+     */
+    int start( int slot ) {
+        return this.bounds[slot * 2];
+    }
+
+    /**
+     * The position following the last word of a group.
+     * @param slot a slot returned by {@linkplain #find(String)}
+     * @return the position after the last word
+     */
+    int end( int slot ) {
+        return this.bounds[slot * 2 + 1];
+    }
+
+    /**
+     * Finds the position of a word. The word is matched exactly, including 
+     * its case.
+     * @param word a word
+     * @return the position of the word, or -1 if the word is not in the 
+     * index
+     */
+    int position( String word ) {
+        return this.positions[positionSlot( word )] - 1;
+    }
+
+    /**
+     * Indicates whether a word is in the index. The word is matched 
+     * exactly, including its case.
+     * @param word a word
+     * @return {@code true} if the word is in the index
+     */
+    boolean contains( String word ) {
+        return this.positions[positionSlot( word )] != 0;
+    }
+
+    /**
+     * Retrieves the word at a position in the shared word array.
+     * @param position a position between 0 and {@linkplain #wordCount()}
+     * @return the word
+     */
+    String word( int position ) {
+        return this.words[position];
+    }
+
+    /**
+     * The number of distinct phonetic codes in the index.
+     * @return the number of codes
+     */
+    int codeCount() {
+        return this.codeCount;
+    }
+
+    /**
+     * The number of words in the index.
+     * @return the number of words
+     */
+    int wordCount() {
+        return this.words.length;
+    }
+
+    /**
+     * Creates a map of the index, e.g. for compilation.
+     * @return an unmodifiable map of phonetic codes to views of their words
+     */
+    Map<String,List<String>> asMap() {
+        HashMap<String,List<String>> map = new HashMap<>( this.codeCount * 4 / 3 + 1 );
+        for ( int slot = 0; slot < this.codes.length; slot++ ) {
+            if ( this.codes[slot] != null ) {
+                map.put( this.codes[slot], get( this.codes[slot] ) );
+            }
+        }
+        return Collections.unmodifiableMap( map );
+    }
+
+    /**
+     * Finds the slot holding the code, or the empty slot where it would be
+     * stored. Linear probing is used and the table is never more than half
+     * full, so the search always terminates.
+     */
+    private int slot( String code ) {
+        int hash = code.hashCode();
+        int slot = ( hash ^ ( hash >>> 16 ) ) & this.mask;
+        while ( this.codes[slot] != null && !this.codes[slot].equals( code ) ) {
+            slot = ( slot + 1 ) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot holding the position of the word, or the empty slot
+     * where it would be stored.
+     */
+    private int positionSlot( String word ) {
+        int hash = word.hashCode();
+        int slot = ( hash ^ ( hash >>> 16 ) ) & this.positionMask;
+        while ( this.positions[slot] != 0 
+                && !this.words[this.positions[slot] - 1].equals( word ) ) {
+            slot = ( slot + 1 ) & this.positionMask;
+        }
+        return slot;
+    }
+
+    /**
+     * The smallest power of two that is at least twice the number of
+     * entries.
+     */
+    private static int tableSize( int entryCount ) {
+        int size = 2;
+        while ( size < entryCount * 2 ) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * A read-only view of the words for one code.
+     */
+    private static final class Group extends AbstractList<String>
+            implements RandomAccess {
+        private final String[] words;
+        private final int start;
+        private final int end;
+
+        private Group( String[] words, int start, int end ) {
+            this.words = words;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String get( int index ) {
+            if ( index < 0 || index >= this.end - this.start ) {
+                throw new IndexOutOfBoundsException(
+                        "Index: " + index + ", Size: " + size() );
+            }
+            return this.words[this.start + index];
+        }
+
+        @Override
+        public int size() {
+            return this.end - this.start;
+        }
+    }
+}
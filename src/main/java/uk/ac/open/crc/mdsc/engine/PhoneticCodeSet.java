@@ -0,0 +1,204 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of phonetic codes used to collect the codes of the variants of a
+ * misspelt word. The codes are held in an open addressing hash table with
+ * linear probing, so adding a code creates no entry objects, and the table
+ * can be cleared and reused.
+ * <p>
+ * {@code null} cannot be added. The codes are iterated in no particular 
+ * order, and cannot be removed by the iterator.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+final class PhoneticCodeSet extends AbstractSet<String> {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private String[] table;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     */
+    PhoneticCodeSet() {
+        this.table = new String[INITIAL_CAPACITY];
+        this.mask = INITIAL_CAPACITY - 1;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a code to the set.
+     * @param code a phonetic code
+     * @return {@code true} if the code was not already in the set
+     */
+    @Override
+    public boolean add( String code ) {
+        int slot = start( code );
+        String stored;
+        while ( (stored = this.table[slot]) != null ) {
+            if ( stored.equals( code ) ) {
+                return false;
+            }
+            slot = ( slot + 1 ) & this.mask;
+        }
+        this.table[slot] = code;
+        this.size++;
+        // keep the table at most half full
+        if ( this.size * 2 > this.table.length ) {
+            grow();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains( Object o ) {
+        if ( !( o instanceof String ) ) {
+            return false;
+        }
+        int slot = start( (String) o );
+        String stored;
+        while ( (stored = this.table[slot]) != null ) {
+            if ( stored.equals( o ) ) {
+                return true;
+            }
+            slot = ( slot + 1 ) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a code from the set. The codes that follow it in the same run
+     * of occupied slots are moved back, so that no code is stranded beyond
+     * an empty slot.
+     * @param o a phonetic code
+     * @return {@code true} if the code was in the set
+     */
+    @Override
+    public boolean remove( Object o ) {
+        if ( !( o instanceof String ) ) {
+            return false;
+        }
+        int slot = start( (String) o );
+        String stored;
+        while ( (stored = this.table[slot]) != null ) {
+            if ( stored.equals( o ) ) {
+                this.table[slot] = null;
+                this.size--;
+                closeGap( slot );
+                return true;
+            }
+            slot = ( slot + 1 ) & this.mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill( this.table, null );
+        this.size = 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int slot = occupiedFrom( 0 );
+
+            @Override
+            public boolean hasNext() {
+                return this.slot < PhoneticCodeSet.this.table.length;
+            }
+
+            @Override
+            public String next() {
+                if ( !hasNext() ) {
+                    throw new NoSuchElementException();
+                }
+                String code = PhoneticCodeSet.this.table[this.slot];
+                this.slot = occupiedFrom( this.slot + 1 );
+                return code;
+            }
+        };
+    }
+
+    /**
+     * Finds the first occupied slot at or after a slot.
+     */
+    private int occupiedFrom( int slot ) {
+        while ( slot < this.table.length && this.table[slot] == null ) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Moves codes back into a newly emptied slot where their probe 
+     * sequence passes through it.
+     */
+    private void closeGap( int gap ) {
+        int slot = ( gap + 1 ) & this.mask;
+        String stored;
+        while ( (stored = this.table[slot]) != null ) {
+            int home = start( stored );
+            // move the code unless its home lies cyclically in (gap, slot]
+            if ( ( ( slot - home ) & this.mask ) >= ( ( slot - gap ) & this.mask ) ) {
+                this.table[gap] = stored;
+                this.table[slot] = null;
+                gap = slot;
+            }
+            slot = ( slot + 1 ) & this.mask;
+        }
+    }
+
+    private void grow() {
+        String[] old = this.table;
+        this.table = new String[old.length * 2];
+        this.mask = this.table.length - 1;
+        for ( String code : old ) {
+            if ( code != null ) {
+                int slot = start( code );
+                while ( this.table[slot] != null ) {
+                    slot = ( slot + 1 ) & this.mask;
+                }
+                this.table[slot] = code;
+            }
+        }
+    }
+
+    private int start( String code ) {
+        int hash = code.hashCode();
+        return ( hash ^ ( hash >>> 16 ) ) & this.mask;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only file that is read at given positions, without a shared file 
+ * pointer, so that many threads may read it at once.
+ * <p>
+ * The file is read through a single {@code FileChannel}. A channel is 
+ * closed when a thread reading it is interrupted, so a read that finds 
+ * the channel closed by the interruption of another thread reopens the 
+ * file and is retried.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+final class PositionalFile {
+
+    private final File file;
+    private volatile FileChannel channel;
+
+    /**
+     * Opens a file for reading.
+     * @param file a file
+     * @throws FileNotFoundException if the file cannot be opened
+     */
+    PositionalFile( File file ) throws FileNotFoundException {
+        this.file = file;
+        this.channel = open( file );
+    }
+
+    /**
+     * The size of the file.
+     * @return the size of the file in bytes
+     * @throws IOException if the file cannot be read
+     */
+    long size() throws IOException {
+        FileChannel current = this.channel;
+        try {
+            return current.size();
+        }
+        catch ( ClosedChannelException e ) {
+            return reopen( current, e ).size();
+        }
+    }
+
+    /**
+     * Reads bytes from a position of the file until the buffer is full or 
+     * the end of the file is reached.
+     * @param buffer the buffer to fill
+     * @param position the position in the file of the first byte read
+     * @return the number of bytes read, which is less than the space in the 
+     * buffer only at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    int read( ByteBuffer buffer, long position ) throws IOException {
+        int start = buffer.position();
+        while ( buffer.hasRemaining() ) {
+            FileChannel current = this.channel;
+            int count;
+            try {
+                count = current.read( buffer, position + buffer.position() - start );
+            }
+            catch ( ClosedChannelException e ) {
+                reopen( current, e );
+                continue;
+            }
+            if ( count < 0 ) {
+                break;
+            }
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Reads bytes from a position of the file to fill an array.
+     * @param bytes the array to fill
+     * @param position the position in the file of the first byte read
+     * @throws EOFException if the end of the file is reached first
+     * @throws IOException if the file cannot be read
+     */
+    void readFully( byte[] bytes, long position ) throws IOException {
+        if ( read( ByteBuffer.wrap( bytes ), position ) < bytes.length ) {
+            throw new EOFException( "Unexpected end of " + this.file 
+                    + " reading " + bytes.length + " bytes at " + position );
+        }
+    }
+
+    /**
+     * Replaces a channel that has been closed, unless the current thread 
+     * closed it by being interrupted.
+     */
+    private synchronized FileChannel reopen( 
+            FileChannel closed, 
+            ClosedChannelException exception ) 
+            throws IOException {
+        if ( Thread.currentThread().isInterrupted() ) {
+            throw exception;
+        }
+        if ( this.channel == closed ) {
+            this.channel = open( this.file );
+        }
+        return this.channel;
+    }
+
+    private static FileChannel open( File file ) throws FileNotFoundException {
+        return new RandomAccessFile( file, "r" ).getChannel();
+    }
+}
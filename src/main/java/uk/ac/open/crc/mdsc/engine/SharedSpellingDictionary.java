@@ -0,0 +1,142 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A read-only dictionary holding one of the word lists stored in a
+ * {@linkplain SharedWordIndex}. Instances are created by
+ * {@linkplain SharedWordIndex#addWordList(java.io.Reader, boolean)}.
+ * <p>
+ * Words are tested for membership directly, without calculating their
+ * phonetic code.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class SharedSpellingDictionary extends ASpellSpellingDictionary {
+
+    private final SharedWordIndex index;
+    private final long mask;
+
+    SharedSpellingDictionary( 
+            SharedWordIndex index, 
+            long mask, 
+            Configuration configuration )
+            throws IOException {
+        super( (File) null, configuration );
+        this.index = index;
+        this.mask = mask;
+    }
+
+    /**
+     * Retrieves the index holding the dictionary's words.
+     * @return the shared index
+     */
+    public SharedWordIndex index() {
+        return this.index;
+    }
+
+    /**
+     * Retrieves the bit that identifies this dictionary's words in the
+     * masks returned by {@linkplain SharedWordIndex#membership(String)}.
+     * @return a mask with a single bit set
+     */
+    public long membershipMask() {
+        return this.mask;
+    }
+
+    /**
+     * Words cannot be added to a shared dictionary.
+     *
+     * @param word a word
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addWord( String word ) {
+        throw new UnsupportedOperationException(
+                "Words cannot be added to a shared dictionary" );
+    }
+
+    /**
+     * Shared dictionaries are always read-only.
+     * @return {@code true}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Returns true if the word, or the word normalised to lower case, is
+     * in the dictionary.
+     */
+    @Override
+    public boolean isCorrect( String word ) {
+        long members = this.index.membership( word );
+        if ( ( members & this.mask ) == 0 ) {
+            String lowerCase = word.toLowerCase();
+            if ( !lowerCase.equals( word ) ) {
+                members = this.index.membership( lowerCase );
+            }
+        }
+        return ( members & this.mask ) != 0;
+    }
+
+    /**
+     * Returns a list of words that have the same phonetic code.
+     *
+     * @param code The phonetic code common to the list of words
+     * @return A list of words having the same phonetic code
+     */
+    @Override
+    protected List<String> getWords( String code ) {
+        return this.index.getWords( code, this.mask );
+    }
+
+    /**
+     * Returns a list of the words in this dictionary that have any of the 
+     * given phonetic codes.
+     *
+     * @param codes the phonetic codes of the words to retrieve
+     * @return a list of the words having any of the phonetic codes
+     */
+    @Override
+    protected List<String> getWords( Collection<String> codes ) {
+        return this.index.getWords( codes, this.mask );
+    }
+
+    /**
+     * Searches the trie of the shared index for words in this dictionary 
+     * within the spell threshold.
+     *
+     * @param word the misspelt word
+     * @return the words within the spell threshold
+     */
+    @Override
+    protected List<Word> getWordsWithinThreshold( String word ) {
+        return this.index.search( word, spellThreshold(), costModel(), this.mask );
+    }
+}
@@ -0,0 +1,301 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A phonetic index shared by several dictionaries. Word lists that overlap
+ * heavily, such as the British, American and Canadian English word lists,
+ * are stored once: each distinct word is held, and its phonetic code
+ * calculated, only once, and a bit set records which of the word lists
+ * contain the word. Each word list added to the index is represented by a
+ * {@linkplain SharedSpellingDictionary} that sees only its own words.
+ * <p>
+ * Word lists are added with {@linkplain #addWordList(Reader, boolean)} and
+ * the index is then made read-only with {@linkplain #freeze()}. If a
+ * dictionary is queried before the index has been frozen, the index is
+ * frozen at that point, and no further word lists can be added.
+ * </p>
+ * <p>
+ * If the configuration enables {@linkplain Configuration#SPELL_BOUNDED_SEARCH},
+ * a trie of the words is built when the index is frozen and is shared by 
+ * the dictionaries.
+ * </p>
+ * <p>
+ * Up to {@value #MAXIMUM_DICTIONARIES} word lists may share an index. Only
+ * the {@linkplain DoubleMetaphoneTransformator} is supported.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public final class SharedWordIndex {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger( SharedWordIndex.class );
+
+    /**
+     * The maximum number of word lists that may share an index.
+     */
+    public static final int MAXIMUM_DICTIONARIES = Long.SIZE;
+
+    private static final int INITIAL_CAPACITY = 500;
+
+    private final Transformator transformator;
+    private final Configuration configuration;
+
+    // the mutable index, discarded when the index is frozen
+    private HashMap<String,ArrayList<String>> groups;
+    private HashMap<String,long[]> membership;
+    private int dictionaryCount;
+
+    private volatile Frozen frozen;
+
+    /**
+     * Creates an empty index.
+     */
+    public SharedWordIndex() {
+        this( Configuration.getConfiguration() );
+    }
+
+    /**
+     * Creates an empty index whose dictionaries use the settings in the 
+     * given configuration.
+     * @param configuration the configuration of the spelling engine
+     */
+    public SharedWordIndex( Configuration configuration ) {
+        this.transformator = new DoubleMetaphoneTransformator();
+        this.configuration = configuration;
+        this.groups = new HashMap<>( INITIAL_CAPACITY );
+        this.membership = new HashMap<>();
+        this.dictionaryCount = 0;
+    }
+
+    /**
+     * Adds a word list to the index. Words already added by another word
+     * list are recorded as members of this list too, but are not stored
+     * again.
+     *
+     * @param wordList a reader for a word list with one word per line
+     * @param isNormalised indicates whether the word list should be
+     * normalised to lower case
+     * @return a dictionary containing the words in the list
+     * @throws IOException if a problem is encountered reading the word list
+     * @throws IllegalStateException if the index is read-only or already
+     * holds {@value #MAXIMUM_DICTIONARIES} word lists
+     */
+    public synchronized SharedSpellingDictionary addWordList(
+            Reader wordList,
+            boolean isNormalised )
+            throws IOException {
+        if ( this.frozen != null ) {
+            throw new IllegalStateException(
+                    "Word lists cannot be added to a read-only index" );
+        }
+        if ( this.dictionaryCount == MAXIMUM_DICTIONARIES ) {
+            throw new IllegalStateException(
+                    "The index already holds " + MAXIMUM_DICTIONARIES + " word lists" );
+        }
+
+        int ordinal = this.dictionaryCount;
+        long bit = 1L << ordinal;
+        BufferedReader in = new BufferedReader( wordList );
+        String line;
+        int added = 0;
+        while ( (line = in.readLine()) != null ) {
+            if ( !line.isEmpty() ) {
+                String word = isNormalised ? line.toLowerCase() : line;
+                long[] members = this.membership.get( word );
+                if ( members == null ) {
+                    this.membership.put( word, new long[] {bit} );
+                    this.groups.computeIfAbsent(
+                            this.transformator.transform( word ),
+                            (code) -> new ArrayList<>() ).add( word );
+                    added++;
+                }
+                else {
+                    members[0] |= bit;
+                }
+            }
+        }
+        this.dictionaryCount++;
+        LOGGER.debug( "Word list {} added {} new words to the shared index",
+                ordinal, added );
+
+        return new SharedSpellingDictionary( this, bit, this.configuration );
+    }
+
+    /**
+     * Makes the index read-only. The phonetic index is packed into a
+     * {@linkplain PackedWordIndex} and the mutable index is discarded.
+     * Calling this method on an index that is already read-only has no
+     * effect.
+     */
+    public synchronized void freeze() {
+        if ( this.frozen != null ) {
+            return;
+        }
+
+        PackedWordIndex index = new PackedWordIndex( this.groups );
+        long[] masks = new long[index.wordCount()];
+        for ( int position = 0; position < masks.length; position++ ) {
+            masks[position] = this.membership.get( index.word( position ) )[0];
+        }
+        WordTrie trie = null;
+        if ( this.configuration.getBoolean( Configuration.SPELL_BOUNDED_SEARCH ) ) {
+            trie = new WordTrie( index );
+        }
+        this.frozen = new Frozen( index, masks, trie );
+        this.groups = null;
+        this.membership = null;
+        LOGGER.debug( "Shared index of {} word lists packed {} words with {} phonetic codes",
+                this.dictionaryCount, index.wordCount(), index.codeCount() );
+    }
+
+    /**
+     * Indicates whether {@linkplain #freeze()} has been called.
+     * @return {@code true} if the index is read-only
+     */
+    public boolean isReadOnly() {
+        return this.frozen != null;
+    }
+
+    /**
+     * The number of word lists added to the index.
+     * @return the number of word lists
+     */
+    public synchronized int dictionaryCount() {
+        return this.dictionaryCount;
+    }
+
+    /**
+     * Finds the word lists that contain a word. The word is matched exactly,
+     * including its case. The word lists are identified by the bits of the
+     * mask returned by {@linkplain SharedSpellingDictionary#membershipMask()}.
+     *
+     * @param word a word
+     * @return a bit set of the word lists that contain the word, which is
+     * zero if the word is not in the index
+     */
+    public long membership( String word ) {
+        return frozen().membership( word );
+    }
+
+    /**
+     * Retrieves the words with a phonetic code that belong to a word list.
+     */
+    List<String> getWords( String code, long mask ) {
+        Frozen current = frozen();
+        int slot = current.index.find( code );
+        if ( slot < 0 ) {
+            return Collections.emptyList();
+        }
+
+        int start = current.index.start( slot );
+        int end = current.index.end( slot );
+        ArrayList<String> words = new ArrayList<>( end - start );
+        for ( int position = start; position < end; position++ ) {
+            if ( ( current.masks[position] & mask ) != 0 ) {
+                words.add( current.index.word( position ) );
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Retrieves the words with any of the phonetic codes that belong to a 
+     * word list.
+     */
+    List<String> getWords( Collection<String> codes, long mask ) {
+        Frozen current = frozen();
+        ArrayList<String> words = new ArrayList<>();
+        for ( String code : codes ) {
+            int slot = current.index.find( code );
+            if ( slot >= 0 ) {
+                int end = current.index.end( slot );
+                for ( int position = current.index.start( slot ); position < end; position++ ) {
+                    if ( ( current.masks[position] & mask ) != 0 ) {
+                        words.add( current.index.word( position ) );
+                    }
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Finds the words of a word list whose edit distance from a word is
+     * less than the threshold. No words are found unless the index has a
+     * trie.
+     */
+    List<Word> search( String word, int threshold, EditCostModel costs, long mask ) {
+        Frozen current = frozen();
+        if ( current.trie == null ) {
+            return Collections.emptyList();
+        }
+        long[] masks = current.masks;
+        return current.trie.search(
+                word,
+                threshold,
+                costs,
+                (position) -> ( masks[position] & mask ) != 0 );
+    }
+
+    private Frozen frozen() {
+        Frozen current = this.frozen;
+        if ( current == null ) {
+            freeze();
+            current = this.frozen;
+        }
+        return current;
+    }
+
+    /**
+     * The read-only form of the index: the packed phonetic index, which
+     * can also find a word without calculating its phonetic code, the
+     * membership of each word and the trie of the words, if bounded search
+     * is enabled.
+     */
+    private static final class Frozen {
+        private final PackedWordIndex index;
+        private final long[] masks;
+        private final WordTrie trie;
+
+        private Frozen( PackedWordIndex index, long[] masks, WordTrie trie ) {
+            this.index = index;
+            this.masks = masks;
+            this.trie = trie;
+        }
+
+        private long membership( String word ) {
+            int position = this.index.position( word );
+            return position < 0 ? 0L : this.masks[position];
+        }
+    }
+}
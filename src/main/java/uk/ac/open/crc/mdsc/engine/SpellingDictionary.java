@@ -91,4 +91,38 @@ public interface SpellingDictionary {
    */
   public List<Word> getSuggestions(String sourceWord, int scoreThreshold , int[][] matrix);
 
+  /**
+   * Returns at most {@code maximumSuggestions} of the best suggestions for 
+   * a word, ordered by their score and then by their text ignoring case. 
+   * Suggestions are otherwise found as they are by 
+   * {@link #getSuggestions(String, int)}.
+   * <p>
+   * The default implementation selects the suggestions from those returned 
+   * by {@link #getSuggestions(String, int)}. Implementations should 
+   * override it to collect no more than {@code maximumSuggestions} 
+   * candidates while they are scored.
+   * </p>
+   * @param sourceWord the string that we want to get a list of spelling suggestions for
+   * @param scoreThreshold Any words that have score less than this number are returned.
+   * @param maximumSuggestions the maximum number of suggestions returned
+   * @return a List of at most {@code maximumSuggestions} suggested words
+   * @throws IllegalArgumentException if {@code maximumSuggestions} is negative
+   * @see uk.ac.open.crc.mdsc.engine.Word
+   */
+  public default List<Word> getSuggestions(String sourceWord, int scoreThreshold, int maximumSuggestions) {
+    return SuggestionHeap.select(getSuggestions(sourceWord, scoreThreshold), maximumSuggestions);
+  }
+
+  /**
+   * Indicates whether the dictionary is read-only. A read-only dictionary 
+   * cannot be modified and guarantees that {@link #isCorrect(String)} and 
+   * the {@code getSuggestions} methods may be called concurrently from 
+   * many threads without external synchronisation.
+   * @return {@code true} if the dictionary is read-only. The default 
+   * implementation returns {@code false}.
+   */
+  public default boolean isReadOnly() {
+    return false;
+  }
+
 }
@@ -0,0 +1,214 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the best suggested spellings offered to it, up to a maximum
+ * number. The suggestions are ordered by their cost, and suggestions with
+ * the same cost by their text ignoring case, which is the order in which
+ * {@code Dictionary} reports them.
+ * <p>
+ * The suggestions are held in a binary heap with the worst at the root,
+ * so a suggestion is kept or rejected in logarithmic time and the cost of
+ * collecting suggestions depends on the maximum number kept rather than
+ * the number of candidates. Once the heap is full,
+ * {@linkplain #cutoff(int)} is the cost a candidate must be less than to
+ * be kept, so that the edit distance of worse candidates need not be
+ * calculated in full.
+ * </p>
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+final class SuggestionHeap {
+
+    /**
+     * Orders suggestions by cost, then by their text ignoring case.
+     */
+    static final Comparator<Word> ORDER = ( Word first, Word second ) -> {
+        if ( first.getCost() != second.getCost() ) {
+            return first.getCost() < second.getCost() ? -1 : 1;
+        }
+        return first.getText().compareToIgnoreCase( second.getText() );
+    };
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maximumSize;
+    private Word[] heap;
+    private int size;
+
+    /**
+     * Creates a heap that keeps at most {@code maximumSize} suggestions.
+     * @param maximumSize the maximum number of suggestions kept, which may
+     * be {@code Integer.MAX_VALUE} to keep every suggestion
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     */
+    SuggestionHeap( int maximumSize ) {
+        if ( maximumSize < 0 ) {
+            throw new IllegalArgumentException(
+                    "The maximum number of suggestions cannot be negative: "
+                            + maximumSize );
+        }
+        this.maximumSize = maximumSize;
+        this.heap = new Word[Math.min( maximumSize, INITIAL_CAPACITY )];
+        this.size = 0;
+    }
+
+    /**
+     * Offers a suggestion, which is kept if the heap is not full or it is
+     * better than the worst suggestion kept, which is then discarded.
+     * @param text the text of the suggestion
+     * @param cost the cost of the suggestion
+     * @return {@code true} if the suggestion is kept
+     */
+    boolean offer( String text, int cost ) {
+        if ( this.size == this.maximumSize ) {
+            if ( this.size == 0 || !isBetter( text, cost, this.heap[0] ) ) {
+                return false;
+            }
+            this.heap[0] = new Word( text, cost );
+            siftDown( 0 );
+            return true;
+        }
+
+        if ( this.size == this.heap.length ) {
+            this.heap = Arrays.copyOf(
+                    this.heap,
+                    (int) Math.min( (long) this.heap.length * 2, this.maximumSize ) );
+        }
+        this.heap[this.size] = new Word( text, cost );
+        siftUp( this.size++ );
+        return true;
+    }
+
+    /**
+     * Offers a suggestion.
+     * @param word a suggestion
+     * @return {@code true} if the suggestion is kept
+     * @see #offer(String, int)
+     */
+    boolean offer( Word word ) {
+        return offer( word.getText(), word.getCost() );
+    }
+
+    /**
+     * The cost that a candidate must be less than to be kept. Until the
+     * heap is full this is the threshold; afterwards it is one more than
+     * the cost of the worst suggestion kept, because a candidate with the
+     * same cost may displace it if its text sorts first.
+     * @param threshold the cost a suggestion must be less than
+     * @return the cost a candidate must be less than to be kept
+     */
+    int cutoff( int threshold ) {
+        if ( this.size < this.maximumSize ) {
+            return threshold;
+        }
+        if ( this.size == 0 ) {
+            // nothing can be kept
+            return 0;
+        }
+        return Math.min( threshold, this.heap[0].getCost() + 1 );
+    }
+
+    /**
+     * Indicates whether any suggestions have been kept.
+     * @return {@code true} if no suggestions have been kept
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * The number of suggestions kept.
+     * @return the number of suggestions
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Lists the suggestions kept, best first.
+     * @return a new list of the suggestions
+     */
+    List<Word> toList() {
+        Word[] sorted = Arrays.copyOf( this.heap, this.size );
+        Arrays.sort( sorted, ORDER );
+        return new ArrayList<>( Arrays.asList( sorted ) );
+    }
+
+    /**
+     * Selects the best suggestions from a list.
+     * @param suggestions a list of suggestions in any order
+     * @param maximumSize the maximum number of suggestions selected
+     * @return a new list of at most {@code maximumSize} suggestions, best
+     * first
+     */
+    static List<Word> select( List<Word> suggestions, int maximumSize ) {
+        SuggestionHeap heap = new SuggestionHeap( maximumSize );
+        for ( Word suggestion : suggestions ) {
+            heap.offer( suggestion );
+        }
+        return heap.toList();
+    }
+
+    private static boolean isBetter( String text, int cost, Word word ) {
+        if ( cost != word.getCost() ) {
+            return cost < word.getCost();
+        }
+        return text.compareToIgnoreCase( word.getText() ) < 0;
+    }
+
+    private void siftUp( int index ) {
+        Word word = this.heap[index];
+        while ( index > 0 ) {
+            int parent = ( index - 1 ) >>> 1;
+            if ( ORDER.compare( word, this.heap[parent] ) <= 0 ) {
+                break;
+            }
+            this.heap[index] = this.heap[parent];
+            index = parent;
+        }
+        this.heap[index] = word;
+    }
+
+    private void siftDown( int index ) {
+        Word word = this.heap[index];
+        int half = this.size >>> 1;
+        while ( index < half ) {
+            int child = 2 * index + 1;
+            if ( child + 1 < this.size
+                    && ORDER.compare( this.heap[child + 1], this.heap[child] ) > 0 ) {
+                child++;
+            }
+            if ( ORDER.compare( word, this.heap[child] ) >= 0 ) {
+                break;
+            }
+            this.heap[index] = this.heap[child];
+            index = child;
+        }
+        this.heap[index] = word;
+    }
+}
@@ -0,0 +1,573 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A dictionary that finds suggested spellings with a symmetric delete
+ * index, rather than by calculating the phonetic codes of variants of the
+ * misspelt word.
+ * <p>
+ * When the dictionary is built, every string that can be made by deleting
+ * up to {@linkplain #maximumDistance()} characters from the start of each
+ * word (its first {@linkplain #prefixLength()} characters, normalised to
+ * lower case) is recorded. Any word within that number of insertions,
+ * deletions, substitutions or transpositions of a misspelt word shares
+ * at least one of these deletions with it, so candidate spellings are
+ * found by generating the deletions of the misspelt word and looking each
+ * one up. The candidates are then scored with {@linkplain EditDistance},
+ * exactly as the phonetic dictionaries score theirs.
+ * </p>
+ * <p>
+ * The index records the hash code of each deletion rather than the
+ * deletion itself, which keeps it small. The occasional false candidate
+ * caused by a hash collision is rejected when it is scored.
+ * </p>
+ * <p>
+ * The dictionary is read-only once constructed and is thread safe.
+ * </p>
+ */
+public class SymmetricDeleteSpellingDictionary implements SpellingDictionary {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger( SymmetricDeleteSpellingDictionary.class );
+
+    /**
+     * The default maximum number of edits between a word and its
+     * candidate spellings.
+     */
+    public static final int DEFAULT_MAXIMUM_DISTANCE = 2;
+
+    /**
+     * The default number of characters at the start of each word that are
+     * indexed.
+     */
+    public static final int DEFAULT_PREFIX_LENGTH = 7;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int spellThreshold;
+    private final EditCostModel costModel;
+    private final int maximumDistance;
+    private final int prefixLength;
+    // the number of deletions of a full length prefix
+    private final int deletionCount;
+
+    // words grouped by prefix
+    private final PackedWordIndex words;
+    // the sorted, distinct hash codes of the deletions, and for each the
+    // range of the postings holding the slots of the prefixes it came from
+    private final int[] deletionHashes;
+    private final int[] postingStarts;
+    private final int[] postings;
+
+    /**
+     * Creates a dictionary from a word list using the default maximum
+     * distance and prefix length.
+     *
+     * @param wordList a reader for a word list with one word per line
+     * @param isNormalised indicates whether the word list should be
+     * normalised to lower case
+     * @param configuration the configuration of the spelling engine
+     * @throws IOException if a problem is encountered reading the word list
+     */
+    public SymmetricDeleteSpellingDictionary(
+            Reader wordList,
+            boolean isNormalised,
+            Configuration configuration )
+            throws IOException {
+        this( wordList,
+                isNormalised,
+                configuration,
+                DEFAULT_MAXIMUM_DISTANCE,
+                DEFAULT_PREFIX_LENGTH );
+    }
+
+    /**
+     * Creates a dictionary from a word list file using the default maximum
+     * distance and prefix length.
+     *
+     * @param wordListFile a file containing a word list
+     * @param isNormalised indicates whether the word list should be
+     * normalised to lower case
+     * @param configuration the configuration of the spelling engine
+     * @throws FileNotFoundException if the word list file cannot be found
+     * @throws IOException if a problem is encountered reading the word list
+     */
+    public SymmetricDeleteSpellingDictionary(
+            File wordListFile,
+            boolean isNormalised,
+            Configuration configuration )
+            throws FileNotFoundException, IOException {
+        this( new FileReader( wordListFile ), isNormalised, configuration );
+    }
+
+    /**
+     * Creates a dictionary from a word list. The spell threshold and edit
+     * costs are read from the configuration once, when the dictionary is
+     * constructed.
+     * <p>
+     * The size of the index grows rapidly with the maximum distance. The
+     * maximum distance should be large enough to cover the spell
+     * threshold: with the default costs a threshold of 200 allows two
+     * edits.
+     * </p>
+     *
+     * @param wordList a reader for a word list with one word per line
+     * @param isNormalised indicates whether the word list should be
+     * normalised to lower case
+     * @param configuration the configuration of the spelling engine
+     * @param maximumDistance the maximum number of edits between a word
+     * and its candidate spellings
+     * @param prefixLength the number of characters at the start of each
+     * word that are indexed
+     * @throws IOException if a problem is encountered reading the word list
+     * @throws IllegalArgumentException if the maximum distance is negative,
+     * or the prefix length is not between 1 and 16 or is less than the
+     * maximum distance
+     */
+    public SymmetricDeleteSpellingDictionary(
+            Reader wordList,
+            boolean isNormalised,
+            Configuration configuration,
+            int maximumDistance,
+            int prefixLength )
+            throws IOException {
+        if ( maximumDistance < 0 ) {
+            throw new IllegalArgumentException(
+                    "The maximum distance cannot be negative." );
+        }
+        if ( prefixLength < 1 || prefixLength > 16 || prefixLength < maximumDistance ) {
+            throw new IllegalArgumentException(
+                    "The prefix length must be between 1 and 16, and no less than the maximum distance." );
+        }
+        this.spellThreshold = configuration.getInteger( Configuration.SPELL_THRESHOLD );
+        this.costModel = EditCostModel.fromConfiguration( configuration );
+        this.maximumDistance = maximumDistance;
+        this.prefixLength = prefixLength;
+        this.deletionCount = combinations( prefixLength, maximumDistance );
+
+        HashMap<String,ArrayList<String>> groups =
+                readWords( new BufferedReader( wordList ), isNormalised );
+        this.words = new PackedWordIndex( groups );
+
+        // each entry holds a deletion's hash code in its upper half and
+        // the slot of the prefix in its lower half, so that sorting the
+        // entries groups them by hash code
+        long[] entries = new long[groups.size() * this.deletionCount];
+        int entryCount = 0;
+        int[] hashes = new int[this.deletionCount];
+        for ( String prefix : groups.keySet() ) {
+            long slot = this.words.find( prefix );
+            char[] key = prefix.toCharArray();
+            int count = deletionHashes( key, key.length, 0, 0, maximumDistance, hashes, 0 );
+            for ( int i = 0; i < count; i++ ) {
+                entries[entryCount++] = ( (long) hashes[i] << 32 ) | slot;
+            }
+        }
+        Arrays.sort( entries, 0, entryCount );
+
+        int distinctEntries = 0;
+        int distinctHashes = 0;
+        for ( int i = 0; i < entryCount; i++ ) {
+            if ( i == 0 || entries[i] != entries[i - 1] ) {
+                if ( i == 0 || ( entries[i] >> 32 ) != ( entries[i - 1] >> 32 ) ) {
+                    distinctHashes++;
+                }
+                entries[distinctEntries++] = entries[i];
+            }
+        }
+
+        this.deletionHashes = new int[distinctHashes];
+        this.postingStarts = new int[distinctHashes + 1];
+        this.postings = new int[distinctEntries];
+        int hashIndex = -1;
+        for ( int i = 0; i < distinctEntries; i++ ) {
+            int hash = (int) ( entries[i] >> 32 );
+            if ( hashIndex < 0 || this.deletionHashes[hashIndex] != hash ) {
+                hashIndex++;
+                this.deletionHashes[hashIndex] = hash;
+                this.postingStarts[hashIndex] = i;
+            }
+            this.postings[i] = (int) entries[i];
+        }
+        this.postingStarts[distinctHashes] = distinctEntries;
+
+        LOGGER.debug( "Indexed {} words with {} prefixes and {} deletions",
+                this.words.wordCount(), this.words.codeCount(), distinctHashes );
+    }
+
+    /**
+     * Words cannot be added to the dictionary once it is built.
+     *
+     * @param word a word
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addWord( String word ) {
+        throw new UnsupportedOperationException(
+                "Words cannot be added to a symmetric delete dictionary" );
+    }
+
+    /**
+     * The dictionary is always read-only.
+     * @return {@code true}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Returns true if the word, or the word normalised to lower case, is
+     * in the dictionary.
+     */
+    @Override
+    public boolean isCorrect( String word ) {
+        String lowerCase = word.toLowerCase();
+        int slot = this.words.find( prefix( lowerCase ) );
+        if ( slot < 0 ) {
+            return false;
+        }
+        for ( int position = this.words.start( slot );
+                position < this.words.end( slot );
+                position++ ) {
+            String candidate = this.words.word( position );
+            if ( candidate.equals( word ) || candidate.equals( lowerCase ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a list of suggested spellings for a word.
+     *
+     * @see #getSuggestions(String, int, int[][])
+     * @param word a misspelt word
+     * @param threshold not used; the spell threshold resolved when the
+     * dictionary was constructed is used
+     * @return a list of suggested spellings
+     */
+    @Override
+    public List<Word> getSuggestions( String word, int threshold ) {
+        return getSuggestions( word, threshold, null );
+    }
+
+    /**
+     * Returns a list of suggested spellings for a word. The suggestions are
+     * the words within {@linkplain #maximumDistance()} edits of the word,
+     * ignoring case, whose edit distance is less than 
+     * {@linkplain #spellThreshold()}, ordered by their edit distance and then
+     * alphabetically. If there are none, the candidates
+     * with the lowest edit distance are returned.
+     *
+     * @param word a misspelt word
+     * @param threshold not used; the spell threshold resolved when the
+     * dictionary was constructed is used
+     * @param matrix a matrix used to calculate the edit distance, or
+     * {@code null}
+     * @return a list of suggested spellings
+     */
+    @Override
+    public List<Word> getSuggestions( String word, int threshold, int[][] matrix ) {
+        SuggestionHeap suggestions = new SuggestionHeap( Integer.MAX_VALUE );
+        collectSuggestions( word, suggestions );
+        return suggestions.toList();
+    }
+
+    /**
+     * Returns the best suggested spellings for a word. The suggestions are 
+     * found as they are by {@link #getSuggestions(String, int, int[][])}, 
+     * but only the best {@code maximumSuggestions} are kept as candidates 
+     * are scored, and once that many have been found the edit distance of 
+     * each candidate is only calculated up to the cost of the worst 
+     * suggestion kept.
+     *
+     * @param word a misspelt word
+     * @param threshold not used; the spell threshold resolved when the
+     * dictionary was constructed is used
+     * @param maximumSuggestions the maximum number of suggestions returned
+     * @return the best suggestions, ordered by cost and then alphabetically
+     */
+    @Override
+    public List<Word> getSuggestions( String word, int threshold, int maximumSuggestions ) {
+        SuggestionHeap suggestions = new SuggestionHeap( maximumSuggestions );
+        if ( maximumSuggestions > 0 ) {
+            collectSuggestions( word, suggestions );
+        }
+        return suggestions.toList();
+    }
+
+    /**
+     * Scores the candidates for a word into a heap of suggestions, or, if 
+     * none is within the spell threshold, the candidates with the lowest 
+     * edit distance.
+     */
+    private void collectSuggestions( String word, SuggestionHeap suggestions ) {
+        char[] key = prefix( word.toLowerCase() ).toCharArray();
+        int[] hashes = new int[this.deletionCount];
+        int hashCount = deletionHashes( key, key.length, 0, 0, this.maximumDistance, hashes, 0 );
+
+        // collect the distinct prefixes that share a deletion with the word
+        int[] slots = new int[INITIAL_CAPACITY];
+        int slotCount = 0;
+        for ( int i = 0; i < hashCount; i++ ) {
+            int index = Arrays.binarySearch( this.deletionHashes, hashes[i] );
+            if ( index < 0 ) {
+                continue;
+            }
+            int start = this.postingStarts[index];
+            int end = this.postingStarts[index + 1];
+            if ( slotCount + end - start > slots.length ) {
+                slots = Arrays.copyOf( slots, Math.max( slots.length * 2, slotCount + end - start ) );
+            }
+            System.arraycopy( this.postings, start, slots, slotCount, end - start );
+            slotCount += end - start;
+        }
+        Arrays.sort( slots, 0, slotCount );
+
+        ArrayList<Word> bestGuesses = new ArrayList<>();
+        int bestScore = Integer.MAX_VALUE;
+        int length = word.length();
+        int[] rows = new int[3 * ( length + this.maximumDistance + 1 )];
+        for ( int i = 0; i < slotCount; i++ ) {
+            if ( i > 0 && slots[i] == slots[i - 1] ) {
+                continue;
+            }
+            for ( int position = this.words.start( slots[i] );
+                    position < this.words.end( slots[i] );
+                    position++ ) {
+                String candidate = this.words.word( position );
+                if ( Math.abs( candidate.length() - length ) > this.maximumDistance
+                        || !isWithinDistance( word, candidate, this.maximumDistance, rows ) ) {
+                    continue;
+                }
+                // the full distance is needed for best guesses until a 
+                // suggestion is found
+                int distance = suggestions.isEmpty()
+                        ? EditDistance.getDistance( word, candidate, null, this.costModel )
+                        : EditDistance.getDistance( 
+                                word, 
+                                candidate, 
+                                this.costModel, 
+                                suggestions.cutoff( this.spellThreshold ) );
+                if ( distance < this.spellThreshold ) {
+                    suggestions.offer( candidate, distance );
+                }
+                else if ( suggestions.isEmpty() && distance <= bestScore ) {
+                    if ( distance < bestScore ) {
+                        bestGuesses.clear();
+                        bestScore = distance;
+                    }
+                    bestGuesses.add( new Word( candidate, distance ) );
+                }
+            }
+        }
+
+        if ( suggestions.isEmpty() ) {
+            for ( Word bestGuess : bestGuesses ) {
+                suggestions.offer( bestGuess );
+            }
+        }
+    }
+
+    /**
+     * The maximum cost of the suggested spellings returned by this
+     * dictionary.
+     * @return the spell threshold resolved when the dictionary was constructed
+     */
+    public int spellThreshold() {
+        return this.spellThreshold;
+    }
+
+    /**
+     * The costs used to calculate the edit distance between a word and its
+     * suggested spellings.
+     * @return the cost model resolved when the dictionary was constructed
+     */
+    public EditCostModel costModel() {
+        return this.costModel;
+    }
+
+    /**
+     * The maximum number of edits between a word and its candidate
+     * spellings.
+     * @return the maximum distance
+     */
+    public int maximumDistance() {
+        return this.maximumDistance;
+    }
+
+    /**
+     * The number of characters at the start of each word that are indexed.
+     * @return the prefix length
+     */
+    public int prefixLength() {
+        return this.prefixLength;
+    }
+
+    private HashMap<String,ArrayList<String>> readWords(
+            BufferedReader in,
+            boolean isNormalised )
+            throws IOException {
+        HashMap<String,ArrayList<String>> groups = new HashMap<>( INITIAL_CAPACITY );
+        String line;
+        while ( (line = in.readLine()) != null ) {
+            if ( !line.isEmpty() ) {
+                String word = isNormalised ? line.toLowerCase() : line;
+                ArrayList<String> group = groups.computeIfAbsent(
+                        prefix( word.toLowerCase() ),
+                        (prefix) -> new ArrayList<>() );
+                if ( !group.contains( word ) ) {
+                    group.add( word );
+                }
+            }
+        }
+        return groups;
+    }
+
+    private String prefix( String lowerCaseWord ) {
+        return lowerCaseWord.length() > this.prefixLength
+                ? lowerCaseWord.substring( 0, this.prefixLength )
+                : lowerCaseWord;
+    }
+
+    /**
+     * Calculates the hash codes of the strings made by deleting up to
+     * {@code remaining} of the characters from position {@code from}
+     * onwards, in addition to those already deleted. The hash codes are
+     * those that {@code String.hashCode()} would return.
+     *
+     * @param key the characters
+     * @param length the number of characters
+     * @param deleted a bit set of the positions already deleted
+     * @param from the first position that may be deleted
+     * @param remaining the number of characters that may be deleted
+     * @param hashes receives the hash codes
+     * @param count the number of hash codes already in {@code hashes}
+     * @return the number of hash codes in {@code hashes}
+     */
+    private static int deletionHashes(
+            char[] key,
+            int length,
+            int deleted,
+            int from,
+            int remaining,
+            int[] hashes,
+            int count ) {
+        int hash = 0;
+        for ( int i = 0; i < length; i++ ) {
+            if ( ( deleted & ( 1 << i ) ) == 0 ) {
+                hash = 31 * hash + key[i];
+            }
+        }
+        hashes[count++] = hash;
+
+        if ( remaining > 0 ) {
+            for ( int i = from; i < length; i++ ) {
+                count = deletionHashes(
+                        key, length, deleted | ( 1 << i ), i + 1, remaining - 1, hashes, count );
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tests whether the number of insertions, deletions, substitutions and
+     * transpositions of adjoining characters needed to transform one word
+     * into the other, ignoring case, is no more than the maximum. This is
+     * much cheaper than calculating the edit distance, and is used to 
+     * discard candidates before they are scored. The calculation stops as
+     * soon as every entry in a row of the matrix exceeds the maximum.
+     *
+     * @param source a word
+     * @param target a word whose length differs from that of the source 
+     * by no more than the maximum
+     * @param maximum the maximum number of edits
+     * @param rows space for three rows of the matrix
+     */
+    private static boolean isWithinDistance( 
+            String source, 
+            String target, 
+            int maximum, 
+            int[] rows ) {
+        int width = target.length() + 1;
+        // the three most recent rows are held in turn in the space given
+        int previousPrevious = 0;
+        int previous = width;
+        int current = 2 * width;
+        for ( int j = 0; j < width; j++ ) {
+            rows[previous + j] = j;
+        }
+        
+        for ( int i = 1; i <= source.length(); i++ ) {
+            char sourceCharacter = Character.toLowerCase( source.charAt( i - 1 ) );
+            rows[current] = i;
+            int rowMinimum = i;
+            for ( int j = 1; j < width; j++ ) {
+                char targetCharacter = Character.toLowerCase( target.charAt( j - 1 ) );
+                int cost = sourceCharacter == targetCharacter ? 0 : 1;
+                int distance = Math.min( 
+                        rows[previous + j - 1] + cost, 
+                        Math.min( rows[previous + j] + 1, rows[current + j - 1] + 1 ) );
+                if ( i > 1 && j > 1 
+                        && sourceCharacter == Character.toLowerCase( target.charAt( j - 2 ) )
+                        && Character.toLowerCase( source.charAt( i - 2 ) ) == targetCharacter ) {
+                    distance = Math.min( distance, rows[previousPrevious + j - 2] + 1 );
+                }
+                rows[current + j] = distance;
+                rowMinimum = Math.min( rowMinimum, distance );
+            }
+            if ( rowMinimum > maximum ) {
+                return false;
+            }
+            int recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return rows[previous + width - 1] <= maximum;
+    }
+
+    /**
+     * The number of ways of choosing up to {@code k} of {@code n} items.
+     */
+    private static int combinations( int n, int k ) {
+        int total = 0;
+        int term = 1;
+        for ( int i = 0; i <= k; i++ ) {
+            total += term;
+            term = term * ( n - i ) / ( i + 1 );
+        }
+        return total;
+    }
+}
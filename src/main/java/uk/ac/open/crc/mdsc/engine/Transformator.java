@@ -39,6 +39,21 @@ public interface Transformator {
      */
     public String transform( String word );
 
+    /**
+     * Take the word held in the first {@code length} characters of an array, 
+     * and return the best phonetic hash for it. This allows variants of a 
+     * word to be transformed without creating a string for each variant. 
+     * By default the characters are copied into a string and transformed by 
+     * {@linkplain #transform(String)}.
+     *
+     * @param word an array holding the word to transform
+     * @param length the length of the word
+     * @return the phonetic transformation of the word
+     */
+    public default String transform( char[] word, int length ) {
+        return transform( new String( word, 0, length ) );
+    }
+
     /**
      * gets the list of characters that should be swapped in to the misspelled
      * word in order to try to find more suggestions. In general, this list
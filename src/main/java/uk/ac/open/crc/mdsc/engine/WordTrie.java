@@ -0,0 +1,294 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable trie of the words in a {@linkplain PackedWordIndex}, used to
+ * find every word within a given edit distance of a misspelt word,
+ * whatever its phonetic code.
+ * <p>
+ * The trie is searched depth first. Each node adds a column to the edit
+ * distance matrix of {@linkplain EditDistance}, calculated with the same
+ * costs, so the column of a node is shared by every word that starts with
+ * the node's prefix. A branch is abandoned once no word below it can be
+ * within the threshold, so the cost of a search depends on the threshold
+ * rather than the size of the dictionary.
+ * </p>
+ * <p>
+ * The nodes are held in arrays: each node records its character, its first
+ * child, its next sibling and the position in the index of the word that
+ * ends at the node.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+final class WordTrie {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final PackedWordIndex index;
+    private final char[] characters;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    // the position of the word ending at each node, or NONE
+    private final int[] positions;
+    private final int nodeCount;
+    private final int depth;
+
+    /**
+     * Builds a trie of the words in an index.
+     * @param index a packed word index
+     */
+    WordTrie( PackedWordIndex index ) {
+        this.index = index;
+
+        Integer[] sorted = new Integer[index.wordCount()];
+        for ( int position = 0; position < sorted.length; position++ ) {
+            sorted[position] = position;
+        }
+        Arrays.sort( sorted, Comparator.comparing( index::word ) );
+
+        int capacity = 1024;
+        char[] nodeCharacters = new char[capacity];
+        int[] nodeFirstChildren = new int[capacity];
+        int[] nodeNextSiblings = new int[capacity];
+        int[] nodePositions = new int[capacity];
+        nodeFirstChildren[ROOT] = NONE;
+        nodeNextSiblings[ROOT] = NONE;
+        nodePositions[ROOT] = NONE;
+        int count = 1;
+
+        // the nodes on the path to the previous word, indexed by depth
+        int[] path = new int[16];
+        path[0] = ROOT;
+        String previous = "";
+        int longest = 0;
+        for ( Integer position : sorted ) {
+            String word = index.word( position );
+            int common = 0;
+            int limit = Math.min( word.length(), previous.length() );
+            while ( common < limit && word.charAt( common ) == previous.charAt( common ) ) {
+                common++;
+            }
+            if ( word.length() + 1 > path.length ) {
+                path = Arrays.copyOf( path, Math.max( path.length * 2, word.length() + 1 ) );
+            }
+            for ( int depth = common + 1; depth <= word.length(); depth++ ) {
+                if ( count == capacity ) {
+                    capacity *= 2;
+                    nodeCharacters = Arrays.copyOf( nodeCharacters, capacity );
+                    nodeFirstChildren = Arrays.copyOf( nodeFirstChildren, capacity );
+                    nodeNextSiblings = Arrays.copyOf( nodeNextSiblings, capacity );
+                    nodePositions = Arrays.copyOf( nodePositions, capacity );
+                }
+                int node = count++;
+                nodeCharacters[node] = word.charAt( depth - 1 );
+                nodeFirstChildren[node] = NONE;
+                nodeNextSiblings[node] = NONE;
+                nodePositions[node] = NONE;
+                // the words are sorted, so the first new node follows the
+                // previous word's node at the same depth, if there is one
+                if ( depth == common + 1 && previous.length() > common ) {
+                    nodeNextSiblings[path[depth]] = node;
+                }
+                else {
+                    nodeFirstChildren[path[depth - 1]] = node;
+                }
+                path[depth] = node;
+            }
+            // duplicates are found once
+            if ( nodePositions[path[word.length()]] == NONE ) {
+                nodePositions[path[word.length()]] = position;
+            }
+            longest = Math.max( longest, word.length() );
+            previous = word;
+        }
+
+        this.characters = Arrays.copyOf( nodeCharacters, count );
+        this.firstChildren = Arrays.copyOf( nodeFirstChildren, count );
+        this.nextSiblings = Arrays.copyOf( nodeNextSiblings, count );
+        this.positions = Arrays.copyOf( nodePositions, count );
+        this.nodeCount = count;
+        this.depth = longest;
+    }
+
+    /**
+     * The number of nodes in the trie, including the root.
+     * @return the number of nodes
+     */
+    int nodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Finds the words whose edit distance from a word is less than the
+     * threshold. The distances are those that
+     * {@linkplain EditDistance#getDistance(String, String, int[][], EditCostModel)}
+     * calculates.
+     *
+     * @param word a word
+     * @param threshold the cost that the edit distance must be less than
+     * @param costs the costs of the edit operations
+     * @param accepted selects the positions of the words that may be
+     * returned, or {@code null} if any word may be returned
+     * @return the words found, in no particular order
+     */
+    List<Word> search(
+            String word,
+            int threshold,
+            EditCostModel costs,
+            IntPredicate accepted ) {
+        Search search = new Search( word, threshold, costs, accepted );
+        int[] first = search.columns[0];
+        for ( int i = 1; i < first.length; i++ ) {
+            first[i] = first[i - 1] + costs.insertion();
+        }
+        for ( int child = this.firstChildren[ROOT];
+                child != NONE;
+                child = this.nextSiblings[child] ) {
+            visit( search, child, 1 );
+        }
+        return search.found;
+    }
+
+    /**
+     * Calculates the column of the matrix for a node, records the word
+     * ending at the node if it is close enough, and visits the node's
+     * children unless no word below the node can be close enough.
+     */
+    private void visit( Search search, int node, int depth ) {
+        String word = search.word;
+        int[] column = search.columns[depth];
+        int[] previous = search.columns[depth - 1];
+        char character = this.characters[node];
+        search.path[depth] = character;
+
+        char lowerCaseCharacter = Character.toLowerCase( character );
+        column[0] = previous[0] + search.deletion;
+        int minimum = column[0];
+        // a longer word may also jump over this column with a swap, but only
+        // where this node's character matches the misspelling
+        int swapMinimum = Integer.MAX_VALUE;
+        for ( int i = 1; i < column.length; i++ ) {
+            char sourceCharacter = word.charAt( i - 1 );
+            int distance;
+            if ( sourceCharacter == character ) {
+                distance = previous[i - 1];
+                if ( i > 1 ) {
+                    swapMinimum = Math.min( swapMinimum, previous[i - 2] );
+                }
+            }
+            else {
+                distance = Math.min(
+                        search.substitution + previous[i - 1],
+                        Math.min(
+                                search.deletion + previous[i],
+                                search.insertion + column[i - 1] ) );
+                if ( i > 1 && depth > 1
+                        && sourceCharacter == search.path[depth - 1]
+                        && word.charAt( i - 2 ) == character ) {
+                    distance = Math.min(
+                            distance,
+                            search.swap + search.columns[depth - 2][i - 2] );
+                }
+                if ( search.lowerCaseWord[i - 1] == lowerCaseCharacter ) {
+                    distance = Math.min(
+                            distance,
+                            search.caseChange + previous[i - 1] );
+                }
+            }
+            column[i] = distance;
+            if ( distance < minimum ) {
+                minimum = distance;
+            }
+        }
+
+        int position = this.positions[node];
+        if ( position != NONE
+                && column[column.length - 1] < search.threshold
+                && ( search.accepted == null || search.accepted.test( position ) ) ) {
+            search.found.add(
+                    new Word( this.index.word( position ), column[column.length - 1] ) );
+        }
+
+        // every longer word passes through this column, or jumps over it 
+        // from the previous column with a swap
+        if ( minimum >= search.threshold 
+                && ( swapMinimum == Integer.MAX_VALUE 
+                        || swapMinimum + search.swap >= search.threshold ) ) {
+            return;
+        }
+
+        for ( int child = this.firstChildren[node];
+                child != NONE;
+                child = this.nextSiblings[child] ) {
+            visit( search, child, depth + 1 );
+        }
+    }
+
+    /**
+     * The state of a single search: the columns of the edit distance
+     * matrix for the nodes on the current path and the words found.
+     */
+    private final class Search {
+        private final String word;
+        private final int threshold;
+        private final int deletion;
+        private final int insertion;
+        private final int substitution;
+        private final int swap;
+        private final int caseChange;
+        private final IntPredicate accepted;
+        private final int[][] columns;
+        private final char[] lowerCaseWord;
+        private final char[] path;
+        private final List<Word> found;
+
+        private Search(
+                String word,
+                int threshold,
+                EditCostModel costs,
+                IntPredicate accepted ) {
+            this.word = word;
+            this.threshold = threshold;
+            this.deletion = costs.deletion();
+            this.insertion = costs.insertion();
+            this.substitution = costs.substitution();
+            this.swap = costs.swap();
+            this.caseChange = costs.caseChange();
+            this.accepted = accepted;
+            this.columns = new int[WordTrie.this.depth + 1][word.length() + 1];
+            this.lowerCaseWord = new char[word.length()];
+            for ( int i = 0; i < this.lowerCaseWord.length; i++ ) {
+                this.lowerCaseWord[i] = Character.toLowerCase( word.charAt( i ) );
+            }
+            this.path = new char[WordTrie.this.depth + 1];
+            this.found = new ArrayList<>();
+        }
+    }
+}
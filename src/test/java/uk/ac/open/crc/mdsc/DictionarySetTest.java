@@ -0,0 +1,295 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package uk.ac.open.crc.mdsc;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ *
+ */
+public class DictionarySetTest {
+
+    private static DictionaryManager dm;
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+	dm = new DictionaryManager();
+	dm.create( "british", "a few British spellings",
+		new StringReader( "colour\nflavour\nvalue\nlistener\n" ), false );
+	dm.create( "american", "a few American spellings",
+		new StringReader( "color\nflavor\nvalue\nlistener\n" ), false );
+	dm.create( "technical", "a few technical terms",
+		new StringReader( "iterator\nmutex\nbuffer\n" ), false );
+	executor = Executors.newFixedThreadPool( 3 );
+    }
+
+    @AfterClass
+    public static void tearDown() {
+	executor.shutdown();
+    }
+
+    @Test
+    public void parallelResultsMatchSequentialTest() {
+	DictionarySet sequential = dm.dictionarySet();
+	dm.setExecutor( executor );
+	DictionarySet parallel = dm.dictionarySet();
+	dm.setExecutor( null );
+
+	for ( String word : new String[] {"colour", "color", "mutex", "colr", "bufer"} ) {
+	    List<Result> expected = sequential.spellCheck( word );
+	    List<Result> actual = parallel.spellCheck( word );
+	    assertThat( actual.size(), is( expected.size() ) );
+	    for ( int i = 0; i < expected.size(); i++ ) {
+		assertThat( "dictionary order differs for " + word,
+			actual.get( i ).dictionaryName(),
+			is( expected.get( i ).dictionaryName() ) );
+		assertThat( "result differs for " + word,
+			actual.get( i ).isCorrect(),
+			is( expected.get( i ).isCorrect() ) );
+	    }
+	}
+    }
+
+    @Test
+    public void firstMatchTest() {
+	DictionarySet ds = dm.dictionarySet();
+
+	assertThat( ds.firstMatch( "value" ).dictionaryName(), is( "british" ) );
+	assertThat( ds.firstMatch( "color" ).dictionaryName(), is( "american" ) );
+	assertThat( ds.firstMatch( "mutex" ).dictionaryName(), is( "technical" ) );
+	assertThat( ds.firstMatch( "mutex" ).isCorrect(), is( true ) );
+	assertThat( ds.firstMatch( "colr" ), nullValue() );
+	assertThat( ds.isKnown( "flavour" ), is( true ) );
+	assertThat( ds.isKnown( "flavr" ), is( false ) );
+    }
+
+    @Test
+    public void batchSpellCheckTest() {
+	List<String> tokens = Arrays.asList( "value", "colr", "mutex", "value", "colr", "get" );
+	Map<String,List<Result>> sequential = dm.dictionarySet().spellCheck( tokens );
+	dm.setExecutor( executor );
+	Map<String,List<Result>> parallel = dm.dictionarySet().spellCheck( tokens.stream() );
+	dm.setExecutor( null );
+
+	for ( Map<String,List<Result>> results : Arrays.asList( sequential, parallel ) ) {
+	    assertThat( results.keySet(), contains( "value", "colr", "mutex", "get" ) );
+	    assertThat( results.get( "value" ).size(), is( 3 ) );
+	    assertThat( results.get( "value" ).get( 0 ).isCorrect(), is( true ) );
+	    assertThat( results.get( "colr" ).get( 0 ).isCorrect(), is( false ) );
+	    assertThat( results.get( "mutex" ).get( 2 ).isCorrect(), is( true ) );
+	}
+    }
+
+    @Test
+    public void cachedResultsTest() throws IOException {
+	DictionaryManager cached = new DictionaryManager();
+	cached.setCacheCapacity( 2 );
+	Dictionary dictionary = cached.create( "british", "a few British spellings",
+		new StringReader( "colour\nflavour\nvalue\nlistener\n" ), false );
+
+	Result first = dictionary.checkSpelling( "colr" );
+	List<SuggestedSpelling> suggestions = first.suggestions();
+	assertThat( suggestions, not( empty() ) );
+	suggestions.clear();
+	Result second = dictionary.checkSpelling( "colr" );
+	assertThat( second, not( sameInstance( first ) ) );
+	assertThat( second.suggestions(), not( empty() ) );
+	dictionary.checkSpelling( "value" );
+	dictionary.checkSpelling( "flavr" );
+
+	CacheStatistics statistics = dictionary.cacheStatistics();
+	assertThat( statistics.hitCount(), is( 1L ) );
+	assertThat( statistics.missCount(), is( 3L ) );
+	assertThat( statistics.size(), lessThanOrEqualTo( 2 ) );
+	assertThat( statistics.evictionCount(), 
+		is( statistics.missCount() - statistics.size() ) );
+	assertThat( dm.dictionarySet().getDictionaryList().get( 0 ).cacheStatistics(),
+		nullValue() );
+    }
+
+    @Test
+    public void sharedDictionariesTest() throws IOException {
+	DictionaryManager shared = new DictionaryManager();
+	shared.createShared( "british", "a few British spellings",
+		new StringReader( "colour\nflavour\nvalue\nlistener\n" ), false );
+	shared.createShared( "american", "a few American spellings",
+		new StringReader( "color\nflavor\nvalue\nlistener\n" ), false );
+	shared.create( "technical", "a few technical terms",
+		new StringReader( "iterator\nmutex\nbuffer\n" ), false );
+	DictionarySet sharedSet = shared.dictionarySet();
+	DictionarySet separateSet = dm.dictionarySet();
+
+	for ( String word : new String[] {"colour", "color", "Value", "mutex", "colr", "flavr"} ) {
+	    assertThat( "containing differs for " + word,
+		    sharedSet.dictionariesContaining( word ),
+		    is( separateSet.dictionariesContaining( word ) ) );
+	    List<Result> expected = separateSet.spellCheck( word );
+	    List<Result> actual = sharedSet.spellCheck( word );
+	    for ( int i = 0; i < expected.size(); i++ ) {
+		assertThat( "result differs for " + word,
+			actual.get( i ).isCorrect(),
+			is( expected.get( i ).isCorrect() ) );
+	    }
+	}
+	assertThat( sharedSet.dictionariesContaining( "value" ),
+		contains( "british", "american" ) );
+	assertThat( sharedSet.dictionariesContaining( "colr" ), empty() );
+    }
+
+    @Test
+    public void symmetricDeleteEngineTest() throws IOException {
+	DictionaryManager symmetric = new DictionaryManager();
+	symmetric.setSpellingEngine( SpellingEngine.SYMMETRIC_DELETE );
+	symmetric.createShared( "british", "a few British spellings",
+		new StringReader( "colour\nflavour\nvalue\nlistener\nSunday\n" ), false );
+	Dictionary american = symmetric.create( "american", "a few American spellings",
+		new StringReader( "color\nflavor\nvalue\nlistener\n" ), false );
+	DictionarySet symmetricSet = symmetric.dictionarySet();
+
+	for ( String word : new String[] {"colour", "color", "Value", "VALUE", "colr"} ) {
+	    assertThat( "known differs for " + word,
+		    symmetricSet.isKnown( word ),
+		    is( dm.dictionarySet().isKnown( word ) ) );
+	}
+	assertThat( symmetricSet.isKnown( "Sunday" ), is( true ) );
+	assertThat( symmetricSet.isKnown( "sunday" ), is( false ) );
+	assertThat( symmetricSet.spellCheck( "flavr" ).get( 0 ).suggestions().get( 0 ).word(),
+		is( "flavour" ) );
+	assertThat( american.checkSpelling( "lisetner" ).suggestions().get( 0 ).word(),
+		is( "listener" ) );
+	assertThat( american.checkSpelling( "Color" ).isCorrect(), is( true ) );
+    }
+
+    @Test
+    public void boundedSearchTest() throws IOException {
+	DictionaryManager bounded = new DictionaryManager();
+	bounded.setBoundedSearch( true );
+	Dictionary british = bounded.createShared( "british", "a few British spellings",
+		new StringReader( "colour\nvalue\nlistening\n" ), false );
+	Dictionary american = bounded.createShared( "american", "a few American spellings",
+		new StringReader( "color\nvalue\n" ), false );
+	Dictionary hashed = bounded.create( "hashed", "a few British spellings",
+		new StringReader( "colour\nvalue\nlistening\n" ), false );
+	bounded.dictionarySet();
+
+	assertThat( british.checkSpelling( "litenign" ).suggestions().get( 0 ).word(),
+		is( "listening" ) );
+	assertThat( hashed.checkSpelling( "litenign" ).suggestions().get( 0 ).word(),
+		is( "listening" ) );
+	assertThat( american.checkSpelling( "litenign" ).suggestions(), is( empty() ) );
+    }
+
+    @Test
+    public void maximumSuggestionsTest() throws IOException {
+	DictionaryManager limited = new DictionaryManager();
+	limited.setMaximumSuggestions( 2 );
+	Dictionary phonetic = limited.create( "phonetic", "words differing by a letter",
+		new StringReader( "bat\nbot\nbut\nbit\nboat\n" ), false );
+	limited.setSpellingEngine( SpellingEngine.SYMMETRIC_DELETE );
+	Dictionary symmetric = limited.create( "symmetric", "words differing by a letter",
+		new StringReader( "bat\nbot\nbut\nbit\nboat\n" ), false );
+
+	for ( Dictionary dictionary : new Dictionary[] {phonetic, symmetric} ) {
+	    List<SuggestedSpelling> suggestions = dictionary.checkSpelling( "bxt" ).suggestions();
+	    assertThat( dictionary.name(), suggestions, hasSize( 2 ) );
+	    assertThat( dictionary.name(), suggestions.get( 0 ).word(), is( "bat" ) );
+	    assertThat( dictionary.name(), suggestions.get( 1 ).word(), is( "bit" ) );
+	}
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void negativeMaximumSuggestionsTest() {
+	new DictionaryManager().setMaximumSuggestions( -1 );
+    }
+
+    @Test
+    public void filteredDictionariesAnswerAsBeforeTest() throws IOException {
+	DictionaryManager filtered = new DictionaryManager();
+	filtered.setFilterFalsePositiveRate( 0.01 );
+	filtered.create( "british", "a few British spellings",
+		new StringReader( "colour\r\nflavour\r\nvalue\r\nlistener\r\n" ), false );
+	filtered.createShared( "american", "a few American spellings",
+		new StringReader( "color\nflavor\n\nvalue\nlistener" ), false );
+	Dictionary technical = filtered.create( "technical", "a few technical terms",
+		new StringReader( "Iterator\nMUTEX\nbuffer\n" ), true );
+	DictionarySet filteredSet = filtered.dictionarySet();
+	DictionarySet unfilteredSet = dm.dictionarySet();
+
+	for ( String word : new String[] {"colour", "Color", "VALUE", "mutex", "Iterator", "colr", "bufer", "xyzzy"} ) {
+	    List<Result> expected = unfilteredSet.spellCheck( word );
+	    List<Result> actual = filteredSet.spellCheck( word );
+	    for ( int i = 0; i < expected.size(); i++ ) {
+		assertThat( "result differs for " + word,
+			actual.get( i ).isCorrect(),
+			is( expected.get( i ).isCorrect() ) );
+		if ( !expected.get( i ).isCorrect() ) {
+		    assertThat( "suggestions differ for " + word,
+			    actual.get( i ).suggestions().size(),
+			    is( expected.get( i ).suggestions().size() ) );
+		}
+	    }
+	    assertThat( "known differs for " + word,
+		    filteredSet.isKnown( word ),
+		    is( unfilteredSet.isKnown( word ) ) );
+	}
+
+	FilterStatistics statistics = technical.filterStatistics();
+	assertThat( statistics.wordCount(), is( 3 ) );
+	assertThat( statistics.falsePositiveRate(), is( 0.01 ) );
+	assertThat( statistics.rejectionCount(), greaterThan( 0L ) );
+	assertThat( statistics.checkCount(), 
+		greaterThanOrEqualTo( statistics.rejectionCount() + statistics.falsePositiveCount() ) );
+	assertThat( dm.dictionarySet().getDictionaryList().get( 0 ).filterStatistics(), 
+		is( nullValue() ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void filterRateOfOneRejectedTest() {
+	new DictionaryManager().setFilterFalsePositiveRate( 1.0 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void batchRejectsNonWordsTest() {
+	dm.dictionarySet().spellCheck( Arrays.asList( "value", "not-a-word" ) );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void parallelRejectsNonWordsTest() {
+	dm.setExecutor( executor );
+	DictionarySet parallel = dm.dictionarySet();
+	dm.setExecutor( null );
+	parallel.spellCheck( "two words" );
+    }
+}
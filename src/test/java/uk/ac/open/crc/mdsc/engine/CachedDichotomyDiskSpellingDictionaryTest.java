@@ -0,0 +1,174 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static uk.ac.open.crc.mdsc.engine.DiskDictionaryFixture.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ *
+ */
+public class CachedDichotomyDiskSpellingDictionaryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File codeFile;
+
+    @Before
+    public void setUp() throws IOException {
+	this.codeFile = codeFile( this.folder.newFile(), WORDS, "\n" );
+    }
+
+    @Test
+    public void answersAsDichotomyTest() throws IOException {
+	DichotomyDiskSpellingDictionary dichotomy =
+		new DichotomyDiskSpellingDictionary( this.codeFile );
+	CachedDichotomyDiskSpellingDictionary cached =
+		new CachedDichotomyDiskSpellingDictionary( this.codeFile );
+
+	// twice, so that the second pass is answered from the cache
+	assertAnswersAs( cached, dichotomy );
+	assertAnswersAs( cached, dichotomy );
+	assertThat( cached.cacheStatistics().hitCount(), is( greaterThan( 0L ) ) );
+    }
+
+    @Test
+    public void countsHitsAndMissesTest() throws IOException {
+	CachedDichotomyDiskSpellingDictionary cached =
+		new CachedDichotomyDiskSpellingDictionary( this.codeFile, 100 );
+	String code = cached.getPhoneticCode( "bat" );
+
+	cached.getWords( code );
+	cached.getWords( code );
+	cached.getWords( "QQQ" );
+
+	BucketCacheStatistics statistics = cached.cacheStatistics();
+	assertThat( statistics.hitCount(), is( 1L ) );
+	assertThat( statistics.missCount(), is( 2L ) );
+	assertThat( statistics.hitRate(), is( closeTo( 1.0 / 3, 1e-9 ) ) );
+	assertThat( statistics.size(), is( 2 ) );
+	assertThat( statistics.capacity(), is( 100 ) );
+    }
+
+    @Test
+    public void bulkLookupCachesEachBucketTest() throws IOException {
+	DichotomyDiskSpellingDictionary dichotomy =
+		new DichotomyDiskSpellingDictionary( this.codeFile );
+	CachedDichotomyDiskSpellingDictionary cached =
+		new CachedDichotomyDiskSpellingDictionary( this.codeFile, 100 );
+	String colour = cached.getPhoneticCode( "colour" );
+	List<String> codes = Arrays.asList( cached.getPhoneticCode( "value" ), colour,
+		"QQQ", cached.getPhoneticCode( "bat" ) );
+	List<String> expected = dichotomy.getWords( codes );
+	cached.getWords( colour );
+
+	// the cached bucket is a hit, and the others are read and cached
+	assertThat( cached.getWords( codes ), is( expected ) );
+	BucketCacheStatistics statistics = cached.cacheStatistics();
+	assertThat( statistics.hitCount(), is( 1L ) );
+	assertThat( statistics.missCount(), is( 4L ) );
+	assertThat( statistics.size(), is( 4 ) );
+
+	assertThat( cached.getWords( codes ), is( expected ) );
+	assertThat( cached.cacheStatistics().hitCount(), is( 5L ) );
+	assertThat( cached.cacheStatistics().missCount(), is( 4L ) );
+    }
+
+    @Test
+    public void boundedCapacityTest() throws IOException {
+	CachedDichotomyDiskSpellingDictionary cached =
+		new CachedDichotomyDiskSpellingDictionary( this.codeFile, 8 );
+	// each code is sought twice, so that it is protected
+	for ( int i = 0; i < 50; i++ ) {
+	    cached.getWords( "Q" + i );
+	    cached.getWords( "Q" + i );
+	}
+
+	BucketCacheStatistics statistics = cached.cacheStatistics();
+	assertThat( statistics.size(), is( 8 ) );
+	assertThat( statistics.evictionCount(), is( 42L ) );
+	assertThat( statistics.hitCount(), is( 50L ) );
+    }
+
+    @Test
+    public void protectsFrequentBucketsTest() throws IOException {
+	CachedDichotomyDiskSpellingDictionary cached =
+		new CachedDichotomyDiskSpellingDictionary( this.codeFile, 10 );
+	String code = cached.getPhoneticCode( "bat" );
+	cached.getWords( code );
+	cached.getWords( code );
+
+	// codes sought once, such as the near-miss codes of misspellings
+	for ( int i = 0; i < 20; i++ ) {
+	    cached.getWords( "Q" + i );
+	}
+
+	long hits = cached.cacheStatistics().hitCount();
+	assertThat( cached.getWords( code ), hasItem( "bat" ) );
+	assertThat( cached.cacheStatistics().hitCount(), is( hits + 1 ) );
+    }
+
+    @Test
+    public void restoresSavedCacheWithoutEvictionsTest() throws IOException {
+	// the saved cache is written under the user's home directory
+	String home = System.getProperty( "user.home" );
+	System.setProperty( "user.home", this.folder.newFolder( "home" ).getPath() );
+	try {
+	    CachedDichotomyDiskSpellingDictionary saved =
+		    new CachedDichotomyDiskSpellingDictionary( this.codeFile, 100 );
+	    for ( int i = 0; i < 50; i++ ) {
+		saved.getWords( "Q" + i );
+	    }
+	    saved.saveCache();
+
+	    // more buckets were saved than the cache holds
+	    CachedDichotomyDiskSpellingDictionary restored =
+		    new CachedDichotomyDiskSpellingDictionary( this.codeFile, 8 );
+	    BucketCacheStatistics statistics = restored.cacheStatistics();
+	    assertThat( statistics.size(), is( 8 ) );
+	    assertThat( statistics.evictionCount(), is( 0L ) );
+	    assertThat( statistics.missCount(), is( 0L ) );
+
+	    // the most recently used buckets are restored
+	    restored.getWords( "Q49" );
+	    assertThat( restored.cacheStatistics().hitCount(), is( 1L ) );
+	}
+	finally {
+	    System.setProperty( "user.home", home );
+	}
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void zeroCapacityRejectedTest() throws IOException {
+	new CachedDichotomyDiskSpellingDictionary( this.codeFile, 0 );
+    }
+}
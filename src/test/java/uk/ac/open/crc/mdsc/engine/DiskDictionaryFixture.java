@@ -0,0 +1,100 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * The word list and "code*word" files shared by the tests of the disk
+ * based dictionaries.
+ */
+final class DiskDictionaryFixture {
+
+    static final List<String> WORDS = Collections.unmodifiableList( Arrays.asList(
+	    "colour", "color", "value", "Sunday", "listener", "listening",
+	    "collar", "cooler", "valet", "valley", "lesson", "listen", "sunder",
+	    "sundae", "bat", "bet", "bit", "bot", "but", "boat", "about" ) );
+
+    // words and misspellings with and without neighbours in WORDS
+    static final String[] PROBES = {"colour", "value", "sunday", "bxt", "listnr", "xyzzy"};
+
+    static final int THRESHOLD = 140;
+
+    private DiskDictionaryFixture() {
+    }
+
+    /**
+     * Groups words by their double metaphone codes.
+     */
+    static TreeMap<String,List<String>> buckets( List<String> words ) {
+	DoubleMetaphoneTransformator transformator = new DoubleMetaphoneTransformator();
+	TreeMap<String,List<String>> buckets = new TreeMap<>();
+	for ( String word : words ) {
+	    buckets.computeIfAbsent( transformator.transform( word ), code -> new ArrayList<>() )
+		    .add( word );
+	}
+	return buckets;
+    }
+
+    /**
+     * Writes the words to a file as "code*word" lines sorted by code.
+     */
+    static File codeFile( File file, List<String> words, String lineEnd ) throws IOException {
+	StringBuilder lines = new StringBuilder();
+	buckets( words ).forEach( ( code, bucket ) -> bucket.forEach(
+		word -> lines.append( code ).append( '*' ).append( word ).append( lineEnd ) ) );
+	Files.write( file.toPath(), lines.toString().getBytes( StandardCharsets.UTF_8 ) );
+	return file;
+    }
+
+    /**
+     * Checks that a dictionary finds the same words and suggestions for
+     * each of the probes as a reference dictionary.
+     */
+    static void assertAnswersAs(
+	    ASpellSpellingDictionary dictionary,
+	    ASpellSpellingDictionary reference ) {
+	for ( String word : PROBES ) {
+	    String code = dictionary.getPhoneticCode( word );
+	    assertThat( "bucket differs for " + word,
+		    sorted( dictionary.getWords( code ) ),
+		    is( sorted( reference.getWords( code ) ) ) );
+	    assertThat( "suggestions differ for " + word,
+		    dictionary.getSuggestions( word, THRESHOLD ),
+		    is( reference.getSuggestions( word, THRESHOLD ) ) );
+	}
+    }
+
+    static List<String> sorted( List<String> words ) {
+	List<String> copy = new ArrayList<>( words );
+	Collections.sort( copy );
+	return copy;
+    }
+}
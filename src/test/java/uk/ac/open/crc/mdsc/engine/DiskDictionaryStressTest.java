@@ -0,0 +1,192 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static uk.ac.open.crc.mdsc.engine.DiskDictionaryFixture.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Queries the disk based dictionaries from many threads at once and 
+ * checks every answer against the words of the word list.
+ */
+public class DiskDictionaryStressTest {
+
+    private static final int THREADS = 8;
+    private static final int QUERIES = 2000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // the words of a sample of the en_US word list, by phonetic code
+    private TreeMap<String,List<String>> buckets;
+    private final List<String> codes = new ArrayList<>();
+    private File wordList;
+    private File codeFile;
+
+    @Before
+    public void setUp() throws IOException {
+	List<String> words = new ArrayList<>();
+	try ( BufferedReader in = new BufferedReader( new InputStreamReader(
+		getClass().getResourceAsStream( "/wordlists/scowl/en_US" ),
+		StandardCharsets.ISO_8859_1 ) ) ) {
+	    String line;
+	    int count = 0;
+	    while ( (line = in.readLine()) != null ) {
+		if ( count++ % 20 == 0 && line.matches( "[A-Za-z]+" ) ) {
+		    words.add( line );
+		}
+	    }
+	}
+	this.buckets = buckets( words );
+	this.buckets.values().forEach( Collections::sort );
+	this.codes.addAll( this.buckets.keySet() );
+	// codes absent from the dictionaries are sought too
+	this.codes.add( "QQQ" );
+	this.codes.add( "0A" );
+
+	File base = this.folder.newFolder( "disk" );
+	File wordsDirectory = new File( base, "words" );
+	wordsDirectory.mkdirs();
+	this.wordList = new File( wordsDirectory, "en_US" );
+	Files.write( this.wordList.toPath(), words, StandardCharsets.US_ASCII );
+
+	this.codeFile = codeFile( this.folder.newFile( "en_US.dic" ), words, "\n" );
+    }
+
+    @Test
+    public void concurrentDichotomyQueriesTest() throws Exception {
+	stress( new DichotomyDiskSpellingDictionary( this.codeFile ) );
+    }
+
+    @Test
+    public void concurrentDichotomyQueriesWithoutEncodingTest() throws Exception {
+	// without an encoding each byte of the file is read as a character
+	stress( new DichotomyDiskSpellingDictionary( this.codeFile, (String) null ) );
+	stress( new DichotomyDiskSpellingDictionary( this.codeFile, (File) null, null ) );
+	stress( new CachedDichotomyDiskSpellingDictionary( this.codeFile, (String) null ) );
+	stress( new CachedDichotomyDiskSpellingDictionary( this.codeFile, (File) null, null ) );
+    }
+
+    @Test
+    public void concurrentMappedDichotomyQueriesTest() throws Exception {
+	stress( new MappedDichotomyDiskSpellingDictionary( this.codeFile ) );
+    }
+
+    @Test
+    public void concurrentCachedDichotomyQueriesTest() throws Exception {
+	// a cache smaller than the number of codes, so that buckets are evicted
+	CachedDichotomyDiskSpellingDictionary dictionary =
+		new CachedDichotomyDiskSpellingDictionary( this.codeFile, 500 );
+	stress( dictionary );
+	assertThat( dictionary.cacheStatistics().evictionCount(), is( greaterThan( 0L ) ) );
+    }
+
+    @Test
+    public void concurrentDiskQueriesTest() throws Exception {
+	stress( new DiskSpellingDictionary( this.wordList.getParentFile().getParentFile(), null ) );
+    }
+
+    @Test
+    public void interruptedReadTest() throws IOException {
+	DichotomyDiskSpellingDictionary dictionary =
+		new DichotomyDiskSpellingDictionary( this.codeFile );
+	String code = this.codes.get( this.codes.size() / 2 );
+
+	// an interrupted read closes the file for every thread
+	Thread.currentThread().interrupt();
+	dictionary.getWords( code );
+	assertThat( Thread.interrupted(), is( true ) );
+
+	assertThat( sorted( dictionary.getWords( code ) ), is( this.buckets.get( code ) ) );
+    }
+
+    private void stress( ASpellSpellingDictionary dictionary ) throws Exception {
+	// the suggestions found by a single thread are expected of every thread
+	List<String> misspellings = new ArrayList<>();
+	List<List<Word>> suggestions = new ArrayList<>();
+	Random random = new Random( 11 );
+	for ( int i = 0; i < 50; i++ ) {
+	    List<String> bucket = this.buckets.get( this.codes.get( random.nextInt( this.buckets.size() ) ) );
+	    String word = bucket.get( 0 );
+	    String misspelling = word.substring( 1 ) + word.charAt( 0 );
+	    misspellings.add( misspelling );
+	    suggestions.add( dictionary.getSuggestions( misspelling, 140 ) );
+	}
+
+	CountDownLatch start = new CountDownLatch( 1 );
+	ExecutorService executor = Executors.newFixedThreadPool( THREADS );
+	try {
+	    List<Future<Integer>> results = new ArrayList<>();
+	    for ( int thread = 0; thread < THREADS; thread++ ) {
+		final long seed = thread;
+		Callable<Integer> queries = () -> {
+		    Random threadRandom = new Random( seed );
+		    int errors = 0;
+		    start.await();
+		    for ( int query = 0; query < QUERIES; query++ ) {
+			String code = this.codes.get( threadRandom.nextInt( this.codes.size() ) );
+			List<String> expected = this.buckets.getOrDefault( code, Collections.emptyList() );
+			if ( !sorted( dictionary.getWords( code ) ).equals( expected ) ) {
+			    errors++;
+			}
+			if ( query % 40 == 0 ) {
+			    int i = threadRandom.nextInt( misspellings.size() );
+			    if ( !dictionary.getSuggestions( misspellings.get( i ), 140 )
+				    .equals( suggestions.get( i ) ) ) {
+				errors++;
+			    }
+			}
+		    }
+		    return errors;
+		};
+		results.add( executor.submit( queries ) );
+	    }
+	    start.countDown();
+	    for ( Future<Integer> result : results ) {
+		assertThat( result.get(), is( 0 ) );
+	    }
+	}
+	finally {
+	    executor.shutdown();
+	}
+    }
+}
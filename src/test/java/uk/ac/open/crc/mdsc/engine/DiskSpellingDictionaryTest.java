@@ -0,0 +1,102 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static uk.ac.open.crc.mdsc.engine.DiskDictionaryFixture.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ *
+ */
+public class DiskSpellingDictionaryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File base;
+
+    @Before
+    public void setUp() throws IOException {
+	this.base = this.folder.newFolder( "disk" );
+	File words = new File( this.base, "words" );
+	words.mkdirs();
+	Files.write( new File( words, "test" ).toPath(), WORDS, StandardCharsets.US_ASCII );
+    }
+
+    @Test
+    public void answersAsHashedTest() throws IOException {
+	HashedSpellingDictionary hashed = new HashedSpellingDictionary( new StringReader( String.join( "\n", WORDS ) ) );
+	DiskSpellingDictionary disk = new DiskSpellingDictionary( this.base, null );
+
+	assertAnswersAs( disk, hashed );
+    }
+
+    @Test
+    public void mergesRunsTest() throws IOException {
+	// a second list repeating some of the words, so that runs overlap
+	List<String> more = Arrays.asList( "bat", "colour", "valley", "bait", "beet", "Sunday" );
+	Files.write( new File( new File( this.base, "words" ), "more" ).toPath(),
+		more, StandardCharsets.US_ASCII );
+	HashedSpellingDictionary hashed = new HashedSpellingDictionary( new StringReader(
+		String.join( "\n", WORDS ) + "\nbait\nbeet" ) );
+	DiskSpellingDictionary disk = new DiskSpellingDictionary( this.base, null, 4 );
+
+	for ( String word : WORDS ) {
+	    String code = disk.getPhoneticCode( word );
+	    assertThat( "bucket differs for " + word,
+		    sorted( disk.getWords( code ) ),
+		    is( sorted( hashed.getWords( code ) ) ) );
+	}
+	assertThat( sorted( disk.getWords( disk.getPhoneticCode( "bat" ) ) ),
+		is( Arrays.asList( "bait", "bat", "beet", "bet", "bit", "boat", "bot", "but" ) ) );
+    }
+
+    @Test
+    public void migratesTextIndexTest() throws IOException {
+	new DiskSpellingDictionary( this.base, null );
+	File index = new File( new File( this.base, "db" ), "words.idx" );
+	// the text format of earlier versions
+	Files.write( index.toPath(), Arrays.asList( "B,0,10", "K,10,20" ), StandardCharsets.US_ASCII );
+
+	DiskSpellingDictionary disk = new DiskSpellingDictionary( this.base, null );
+
+	try ( DataInputStream in = new DataInputStream( new FileInputStream( index ) ) ) {
+	    assertThat( in.readInt(), is( 0x4D445349 ) );
+	}
+	assertThat( sorted( disk.getWords( disk.getPhoneticCode( "bat" ) ) ),
+		is( Arrays.asList( "bat", "bet", "bit", "boat", "bot", "but" ) ) );
+    }
+}
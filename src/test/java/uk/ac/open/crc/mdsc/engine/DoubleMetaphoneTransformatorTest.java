@@ -0,0 +1,68 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package uk.ac.open.crc.mdsc.engine;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.Test;
+
+/**
+ *
+ *
+ */
+public class DoubleMetaphoneTransformatorTest {
+
+    /**
+     * Words and the codes produced by the original implementation.
+     */
+    private static final String[][] CODES = {
+	{"colour", "KLR"},
+	{"Knight", "NT"},
+	{"Xavier", "SFR"},
+	{"architecture", "ARKTKTR"},
+	{"orchestra", "ARKSTR"},
+	{"Jose", "HS"},
+	{"ghost", "KST"},
+	{"laugh", "LF"},
+	{"Czerny", "SRN"},
+	{"bacchus", "PKS"},
+	{"accident", "AKSTNT"},
+	{"Sugar", "XKR"},
+	{"Thomas", "TMS"},
+	{"mcclellan", "MKLLN"},
+	{"zhao", "J"},
+	{"Michael", "MKL"},
+	{"façade", "FST"},
+	{"Straße", "STRS"},
+	{"listener", "LSTNR"},
+	{"", ""}
+    };
+
+    @Test
+    public void transformTest() {
+	DoubleMetaphoneTransformator transformator = new DoubleMetaphoneTransformator();
+	for ( String[] pair : CODES ) {
+	    assertThat( "code differs for " + pair[0],
+		    transformator.transform( pair[0] ), is( pair[1] ) );
+	}
+    }
+}
@@ -0,0 +1,143 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.util.Random;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.Test;
+
+/**
+ * Checks the bounded distance against the full matrix.
+ */
+public class EditDistanceTest {
+
+    // few letters, in both cases, so that swaps and case changes are common
+    private static final String LETTERS = "abcdeAB";
+
+    private static final EditCostModel[] COSTS = {
+	EditDistance.DEFAULT_COSTS,
+	new EditCostModel( 95, 95, 100, 90, 10 ),
+	new EditCostModel( 100, 100, 100, 100, 100 ),
+	new EditCostModel( 30, 170, 60, 250, 5 ),
+	new EditCostModel( 170, 30, 250, 20, 300 ),
+	new EditCostModel( 1, 1, 1, 1, 1 )
+    };
+
+    @Test
+    public void boundedDistanceAsFullDistanceTest() {
+	Random random = new Random( 7 );
+	for ( int i = 0; i < 40000; i++ ) {
+	    EditCostModel costs = i % 4 == 0 ? randomCosts( random ) : COSTS[random.nextInt( COSTS.length )];
+	    String word = randomWord( random );
+	    String similar = random.nextBoolean() ? misspell( word, random ) : randomWord( random );
+	    int maximumCost = random.nextInt( 4 * costs.substitution() + 1 );
+
+	    int distance = EditDistance.getDistance( word, similar, new int[0][0], costs );
+	    assertThat( word + "/" + similar + " with " + costs + " below " + maximumCost,
+		    EditDistance.getDistance( word, similar, costs, maximumCost ),
+		    is( distance < maximumCost ? distance : EditDistance.MAXIMUM_COST_EXCEEDED ) );
+	}
+    }
+
+    @Test
+    public void defaultBoundedDistanceAsFullDistanceTest() {
+	Random random = new Random( 13 );
+	for ( int i = 0; i < 10000; i++ ) {
+	    String word = randomWord( random );
+	    String similar = misspell( word, random );
+	    int maximumCost = random.nextInt( 500 );
+
+	    int distance = EditDistance.getDistance( word, similar );
+	    assertThat( word + "/" + similar + " below " + maximumCost,
+		    EditDistance.getDistance( word, similar, maximumCost ),
+		    is( distance < maximumCost ? distance : EditDistance.MAXIMUM_COST_EXCEEDED ) );
+	}
+    }
+
+    @Test
+    public void maximumCostExceededTest() {
+	int distance = EditDistance.getDistance( "listener", "lisnter" );
+	assertThat( EditDistance.getDistance( "listener", "lisnter", distance + 1 ), is( distance ) );
+	assertThat( EditDistance.getDistance( "listener", "lisnter", distance ),
+		is( EditDistance.MAXIMUM_COST_EXCEEDED ) );
+	assertThat( EditDistance.getDistance( "value", "value", 0 ),
+		is( EditDistance.MAXIMUM_COST_EXCEEDED ) );
+	assertThat( EditDistance.getDistance( "value", "value", 1 ), is( 0 ) );
+	// words whose lengths differ too much are rejected
+	assertThat( EditDistance.getDistance( "a", "abcdefghij", 200 ),
+		is( EditDistance.MAXIMUM_COST_EXCEEDED ) );
+    }
+
+    private static EditCostModel randomCosts( Random random ) {
+	return new EditCostModel(
+		1 + random.nextInt( 200 ),
+		1 + random.nextInt( 200 ),
+		1 + random.nextInt( 200 ),
+		1 + random.nextInt( 200 ),
+		1 + random.nextInt( 200 ) );
+    }
+
+    private static String randomWord( Random random ) {
+	StringBuilder word = new StringBuilder();
+	int length = random.nextInt( 13 );
+	for ( int i = 0; i < length; i++ ) {
+	    word.append( LETTERS.charAt( random.nextInt( LETTERS.length() ) ) );
+	}
+	return word.toString();
+    }
+
+    /**
+     * Applies a few random edits to a word.
+     */
+    private static String misspell( String word, Random random ) {
+	StringBuilder misspelling = new StringBuilder( word );
+	int edits = 1 + random.nextInt( 3 );
+	for ( int i = 0; i < edits; i++ ) {
+	    int length = misspelling.length();
+	    int position = length == 0 ? 0 : random.nextInt( length );
+	    char letter = LETTERS.charAt( random.nextInt( LETTERS.length() ) );
+	    switch ( length == 0 ? 0 : random.nextInt( 5 ) ) {
+		case 0:
+		    misspelling.insert( position, letter );
+		    break;
+		case 1:
+		    misspelling.deleteCharAt( position );
+		    break;
+		case 2:
+		    misspelling.setCharAt( position, letter );
+		    break;
+		case 3:
+		    if ( position + 1 < length ) {
+			char c = misspelling.charAt( position );
+			misspelling.setCharAt( position, misspelling.charAt( position + 1 ) );
+			misspelling.setCharAt( position + 1, c );
+		    }
+		    break;
+		default:
+		    char c = misspelling.charAt( position );
+		    misspelling.setCharAt( position, Character.isUpperCase( c )
+			    ? Character.toLowerCase( c ) : Character.toUpperCase( c ) );
+	    }
+	}
+	return misspelling.toString();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package uk.ac.open.crc.mdsc.engine;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ *
+ *
+ */
+public class GenericTransformatorTest {
+
+    /**
+     * A subset of the rules in the aspell English phonetic file.
+     */
+    private static final String RULES =
+	    "# rules\n"
+	    + "version 1.0\n"
+	    + "AH(AEIOUY)-^ *H\n"
+	    + "A^ *\n"
+	    + "A _\n"
+	    + "C(EIY)- S\n"
+	    + "CH X\n"
+	    + "C K\n"
+	    + "GH(AEIOUY)- K\n"
+	    + "GH _\n"
+	    + "G K\n"
+	    + "H H\n"
+	    + "KN^ N\n"
+	    + "K K\n"
+	    + "MB$ M\n"
+	    + "M M\n"
+	    + "PH F\n"
+	    + "P P\n"
+	    + "S S\n"
+	    + "T T\n"
+	    + "X KS\n"
+	    + "E _\n"
+	    + "I _\n"
+	    + "O _\n"
+	    + "U _\n"
+	    + "Y _\n"
+	    + "L L\n"
+	    + "N N\n"
+	    + "R R\n";
+
+    /**
+     * Words and the codes produced by the original implementation.
+     */
+    private static final String[][] CODES = {
+	{"ahoy", "*H"},
+	{"cent", "SNT"},
+	{"chip", "XP"},
+	{"cat", "KT"},
+	{"ghost", "KST"},
+	{"laugh", "L"},
+	{"knight", "NT"},
+	{"lamb", "LM"},
+	{"phone", "FN"},
+	{"box", "BKS"},
+	{"a42", "*00"},
+	{"Apex", "*PKS"},
+	{"", ""}
+    };
+
+    @Test
+    public void transformTest() throws IOException {
+	GenericTransformator transformator = 
+		new GenericTransformator( new StringReader( RULES ) );
+	for ( String[] pair : CODES ) {
+	    assertThat( "code differs for " + pair[0],
+		    transformator.transform( pair[0] ), is( pair[1] ) );
+	}
+    }
+}
@@ -0,0 +1,197 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.Test;
+
+/**
+ *
+ *
+ */
+public class HashedSpellingDictionaryTest {
+
+    private static final String WORDS =
+	    "colour\ncolor\nvalue\nSunday\nlistener\nlistening\n";
+
+    @Test
+    public void frozenDictionaryAnswersAsBeforeTest() throws IOException {
+	HashedSpellingDictionary mutable =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+	HashedSpellingDictionary frozen =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+	frozen.freeze();
+
+	assertThat( mutable.isReadOnly(), is( false ) );
+	assertThat( frozen.isReadOnly(), is( true ) );
+
+	for ( String word : new String[] {"colour", "value", "Sunday", "VALUE", "sunday", "valeu"} ) {
+	    assertThat( "isCorrect differs for " + word,
+		    frozen.isCorrect( word ),
+		    is( mutable.isCorrect( word ) ) );
+	    String code = frozen.getPhoneticCode( word );
+	    assertThat( "bucket differs for " + word,
+		    frozen.getWords( code ),
+		    contains( mutable.getWords( code ).toArray() ) );
+	}
+    }
+
+    @Test
+    public void isCorrectWithoutPhoneticCodeTest() throws IOException {
+	HashedSpellingDictionary mutable = withoutTransformator(
+		new HashedSpellingDictionary( new StringReader( WORDS ) ) );
+	HashedSpellingDictionary added = new HashedSpellingDictionary();
+	added.addDictionary( new StringReader( WORDS + "VALUE\n" ) );
+	withoutTransformator( added );
+	HashedSpellingDictionary frozen =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+	frozen.freeze();
+	withoutTransformator( frozen );
+
+	for ( HashedSpellingDictionary dictionary : new HashedSpellingDictionary[] {mutable, added, frozen} ) {
+	    for ( String word : new String[] {"colour", "Colour", "COLOR", "Sunday", "listener"} ) {
+		assertThat( word, dictionary.isCorrect( word ), is( true ) );
+	    }
+	    for ( String word : new String[] {"sunday", "SUNDAY", "valeu", "colou", ""} ) {
+		assertThat( word, dictionary.isCorrect( word ), is( false ) );
+	    }
+	}
+    }
+
+    /**
+     * Replaces the transformator of a dictionary with one that fails, to 
+     * show that no phonetic code is calculated.
+     */
+    private static HashedSpellingDictionary withoutTransformator( 
+	    HashedSpellingDictionary dictionary ) {
+	dictionary.transformator = new Transformator() {
+	    @Override
+	    public String transform( String word ) {
+		throw new AssertionError( "phonetic code calculated for " + word );
+	    }
+
+	    @Override
+	    public char[] getReplaceList() {
+		throw new AssertionError( "replace list used" );
+	    }
+	};
+	return dictionary;
+    }
+
+    @Test
+    public void spellThresholdResolvedOnConstructionTest() throws IOException {
+	Configuration configuration = Configuration.getConfiguration();
+	configuration.setInteger( Configuration.SPELL_THRESHOLD, 100 );
+	HashedSpellingDictionary dictionary =
+		new HashedSpellingDictionary( new StringReader( WORDS ), false, configuration );
+	configuration.setInteger( Configuration.SPELL_THRESHOLD, 300 );
+
+	assertThat( dictionary.spellThreshold(), is( 100 ) );
+	for ( Word suggestion : dictionary.getSuggestions( "listenr", 300 ) ) {
+	    assertThat( suggestion.getCost(), lessThan( 100 ) );
+	}
+	assertThat( dictionary.getSuggestions( "listenr", 300 ), hasSize( 1 ) );
+    }
+
+    @Test
+    public void editCostModelResolvedOnConstructionTest() throws IOException {
+	Configuration configuration = Configuration.getConfiguration();
+	EditCostModel cheapDeletions = new EditCostModel( 50, 50, 100, 90, 10 );
+	cheapDeletions.applyTo( configuration );
+	HashedSpellingDictionary cheap =
+		new HashedSpellingDictionary( new StringReader( WORDS ), false, configuration );
+	HashedSpellingDictionary standard =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+
+	assertThat( cheap.costModel(), is( cheapDeletions ) );
+	assertThat( standard.costModel(), is( EditDistance.DEFAULT_COSTS ) );
+	assertThat( cheap.getSuggestions( "listenr", 140 ).get( 0 ).getCost(), is( 50 ) );
+	assertThat( standard.getSuggestions( "listenr", 140 ).get( 0 ).getCost(), is( 95 ) );
+    }
+
+    @Test
+    public void maximumSuggestionsTest() throws IOException {
+	Configuration configuration = Configuration.getConfiguration();
+	configuration.setInteger( Configuration.SPELL_THRESHOLD, 300 );
+	HashedSpellingDictionary dictionary =
+		new HashedSpellingDictionary( new StringReader( WORDS ), false, configuration );
+	dictionary.freeze();
+
+	for ( String word : new String[] {"valeu", "lisetner", "colorr", "kolur", "Suay"} ) {
+	    List<Word> all = dictionary.getSuggestions( word, 0 );
+	    for ( int maximum = 0; maximum <= all.size() + 1; maximum++ ) {
+		List<Word> best = dictionary.getSuggestions( word, 0, maximum );
+		assertThat( "suggestions differ for " + word,
+			best,
+			is( SuggestionHeap.select( all, maximum ) ) );
+		assertThat( best, hasSize( Math.min( maximum, all.size() ) ) );
+	    }
+	}
+    }
+
+    @Test
+    public void boundedSearchTest() throws IOException {
+	Configuration configuration = Configuration.getConfiguration();
+	configuration.setInteger( Configuration.SPELL_THRESHOLD, 200 );
+	HashedSpellingDictionary phonetic =
+		new HashedSpellingDictionary( new StringReader( WORDS ), false, configuration );
+	phonetic.freeze();
+	configuration.setBoolean( Configuration.SPELL_BOUNDED_SEARCH, true );
+	HashedSpellingDictionary bounded =
+		new HashedSpellingDictionary( new StringReader( WORDS ), false, configuration );
+	bounded.freeze();
+
+	assertThat( phonetic.isBoundedSearch(), is( false ) );
+	assertThat( bounded.isBoundedSearch(), is( true ) );
+	// no word shares a similar phonetic code with these misspellings
+	assertThat( phonetic.getSuggestions( "litenign", 0 ), is( empty() ) );
+	assertThat( bounded.getSuggestions( "litenign", 0 ).get( 0 ).getText(), is( "listening" ) );
+	assertThat( bounded.getSuggestions( "litenign", 0 ).get( 0 ).getCost(), is( 185 ) );
+	assertThat( bounded.getSuggestions( "Suay", 0 ).get( 0 ).getText(), is( "Sunday" ) );
+	// suggestions found from phonetic codes are unchanged
+	for ( String word : new String[] {"valeu", "lisetner", "colorr", "kolur"} ) {
+	    assertThat( "suggestions differ for " + word,
+		    bounded.getSuggestions( word, 0 ),
+		    is( phonetic.getSuggestions( word, 0 ) ) );
+	}
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void frozenWordListsAreUnmodifiableTest() throws IOException {
+	HashedSpellingDictionary dictionary =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+	dictionary.freeze();
+	dictionary.getWords( dictionary.getPhoneticCode( "colour" ) ).add( "extra" );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void frozenDictionaryRejectsAdditionsTest() throws IOException {
+	HashedSpellingDictionary dictionary =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+	dictionary.freeze();
+	dictionary.addDictionary( new StringReader( "extra\n" ) );
+    }
+}
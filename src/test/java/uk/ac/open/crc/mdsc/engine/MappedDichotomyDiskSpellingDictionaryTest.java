@@ -0,0 +1,149 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static uk.ac.open.crc.mdsc.engine.DiskDictionaryFixture.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ *
+ */
+public class MappedDichotomyDiskSpellingDictionaryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mappedDictionaryAnswersAsDichotomyTest() throws IOException {
+	File codeFile = codeFile( "\n" );
+	DichotomyDiskSpellingDictionary dichotomy =
+		new DichotomyDiskSpellingDictionary( codeFile );
+	MappedDichotomyDiskSpellingDictionary mapped =
+		new MappedDichotomyDiskSpellingDictionary( codeFile );
+
+	assertThat( mapped.isReadOnly(), is( true ) );
+	assertThat( mapped.size(), is( WORDS.size() ) );
+
+	assertAnswersAs( mapped, dichotomy );
+	// a code shorter than any in the file
+	String code = mapped.getPhoneticCode( "a" );
+	assertThat( mapped.getWords( code ), is( dichotomy.getWords( code ) ) );
+    }
+
+    @Test
+    public void bulkLookupAnswersAsSingleLookupsTest() throws IOException {
+	for ( String lineEnd : new String[] {"\n", "\r\n"} ) {
+	    File codeFile = codeFile( lineEnd );
+	    DichotomyDiskSpellingDictionary dichotomy =
+		    new DichotomyDiskSpellingDictionary( codeFile );
+	    MappedDichotomyDiskSpellingDictionary mapped =
+		    new MappedDichotomyDiskSpellingDictionary( codeFile );
+
+	    TreeSet<String> codes = new TreeSet<>();
+	    for ( String word : new String[] {"about", "bxt", "colour", "listnr", "sunday", "valley", "xyzzy"} ) {
+		codes.add( mapped.getPhoneticCode( word ) );
+	    }
+	    List<String> expected = new ArrayList<>();
+	    for ( String code : codes ) {
+		expected.addAll( dichotomy.getWords( code ) );
+	    }
+
+	    assertThat( expected, not( empty() ) );
+	    assertThat( dichotomy.getWords( codes ), is( expected ) );
+	    assertThat( mapped.getWords( codes ), is( expected ) );
+	}
+    }
+
+    @Test
+    public void lineEndingsTest() throws IOException {
+	MappedDichotomyDiskSpellingDictionary unix =
+		new MappedDichotomyDiskSpellingDictionary( codeFile( "\n" ) );
+	MappedDichotomyDiskSpellingDictionary windows =
+		new MappedDichotomyDiskSpellingDictionary( codeFile( "\r\n" ) );
+
+	assertThat( windows.size(), is( WORDS.size() ) );
+	for ( String word : WORDS ) {
+	    String code = unix.getPhoneticCode( word );
+	    assertThat( windows.getWords( code ), is( unix.getWords( code ) ) );
+	    assertThat( windows.getWords( code ), hasItem( word ) );
+	}
+    }
+
+    @Test
+    public void concurrentQueriesTest() throws Exception {
+	MappedDichotomyDiskSpellingDictionary mapped =
+		new MappedDichotomyDiskSpellingDictionary( codeFile( "\n" ) );
+	List<List<String>> expected = new ArrayList<>();
+	for ( String word : WORDS ) {
+	    expected.add( mapped.getWords( mapped.getPhoneticCode( word ) ) );
+	}
+
+	ExecutorService executor = Executors.newFixedThreadPool( 4 );
+	try {
+	    List<Future<Boolean>> results = new ArrayList<>();
+	    for ( int thread = 0; thread < 4; thread++ ) {
+		results.add( executor.submit( () -> {
+		    for ( int round = 0; round < 2000; round++ ) {
+			int i = round % WORDS.size();
+			if ( !mapped.getWords( mapped.getPhoneticCode( WORDS.get( i ) ) )
+				.equals( expected.get( i ) ) ) {
+			    return false;
+			}
+		    }
+		    return true;
+		} ) );
+	    }
+	    for ( Future<Boolean> result : results ) {
+		assertThat( result.get(), is( true ) );
+	    }
+	}
+	finally {
+	    executor.shutdown();
+	}
+    }
+
+    @Test( expected = IOException.class )
+    public void rejectsLinesWithoutCodeTest() throws IOException {
+	File other = this.folder.newFile( "words.txt" );
+	Files.write( other.toPath(),
+		String.join( "\n", WORDS ).getBytes( StandardCharsets.UTF_8 ) );
+	new MappedDichotomyDiskSpellingDictionary( other );
+    }
+
+    private File codeFile( String lineEnd ) throws IOException {
+	return DiskDictionaryFixture.codeFile( this.folder.newFile(), WORDS, lineEnd );
+    }
+}
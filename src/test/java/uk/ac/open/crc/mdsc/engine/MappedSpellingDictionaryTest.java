@@ -0,0 +1,78 @@
+/*
+    mdsc - a multiple dictionary spell checker
+    Copyright (C) 2026 Simon Butler
+    Full text of license can be found in LICENSE.txt
+
+    This library is free software; you can redistribute it and/or
+    modify it under the terms of the GNU General Public License as published by
+    the Free Software Foundation with the 'classpath' exception,
+    either version 3 of the License, or (at your option) any later version.
+
+    This library is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    Lesser General Public License for more details.
+
+    You should have received a copy of the GNU General Public
+    License along with this library; if not, write to the Free Software
+    Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package uk.ac.open.crc.mdsc.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ *
+ */
+public class MappedSpellingDictionaryTest {
+
+    private static final String WORDS =
+	    "colour\ncolor\nvalue\nSunday\nlistener\nlistening\nnaïve\nfaçade\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void compiledDictionaryAnswersAsHashedTest() throws IOException {
+	HashedSpellingDictionary hashed =
+		new HashedSpellingDictionary( new StringReader( WORDS ) );
+	File compiled = this.folder.newFile( "test.mdsc" );
+	DictionaryCompiler.compile( hashed, compiled );
+	MappedSpellingDictionary mapped = new MappedSpellingDictionary( compiled );
+
+	assertThat( mapped.isReadOnly(), is( true ) );
+	assertThat( mapped.size(), is( 8 ) );
+
+	for ( String word : new String[] {"colour", "value", "Sunday", "VALUE", "sunday", "valeu", "naïve", "xyzzy"} ) {
+	    assertThat( "isCorrect differs for " + word,
+		    mapped.isCorrect( word ),
+		    is( hashed.isCorrect( word ) ) );
+	    String code = mapped.getPhoneticCode( word );
+	    assertThat( "bucket differs for " + word,
+		    mapped.getWords( code ),
+		    is( hashed.getWords( code ) ) );
+	    assertThat( "suggestions differ for " + word,
+		    mapped.getSuggestions( word, 140 ),
+		    is( hashed.getSuggestions( word, 140 ) ) );
+	}
+    }
+
+    @Test( expected = IOException.class )
+    public void rejectsOtherFilesTest() throws IOException {
+	File other = this.folder.newFile( "words.txt" );
+	Files.write( other.toPath(), WORDS.getBytes( StandardCharsets.UTF_8 ) );
+	new MappedSpellingDictionary( other );
+    }
+}